@@ -0,0 +1,63 @@
+package eclipse.euphoriacompanion;
+
+import eclipse.euphoriacompanion.cli.FixtureGenerator;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, generated by {@link FixtureGenerator}.
+ */
+public final class BenchmarkFixtures {
+    private static final long SEED = 42;
+    private static final int MOD_COUNT = 40;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a registry of the given size, with most blocks in a few large mods
+     */
+    public static RegistrySnapshot registry(int blockCount) {
+        return FixtureGenerator.registry(blockCount, MOD_COUNT, SEED);
+    }
+
+    /**
+     * Creates block.properties lines mapping most of the registry, with property-qualified
+     * entries, continuation lines, tags and nested version conditions
+     */
+    public static List<String> blockPropertiesLines(RegistrySnapshot registry, int lineCount) {
+        return FixtureGenerator.blockPropertiesLines(registry, FixtureGenerator.PackOptions.defaults(lineCount), SEED);
+    }
+
+    /**
+     * Writes a directory shader pack containing the given block.properties lines
+     *
+     * @return The path of the written block.properties file
+     */
+    public static Path writePack(Path packDir, List<String> lines) throws IOException {
+        return FixtureGenerator.writePackDirectory(packDir, lines);
+    }
+
+    /**
+     * Deletes a fixture directory and everything in it
+     */
+    public static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        try (var stream = Files.walk(dir)) {
+            stream.forEach(paths::add);
+        }
+        Collections.reverse(paths);
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package eclipse.euphoriacompanion.report;
+
+import eclipse.euphoriacompanion.BenchmarkFixtures;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing a pack's blocks with the game's and writing the pack's report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportBenchmark {
+    @Param({"30000"})
+    public int blockCount;
+
+    @Param({"2000"})
+    public int lineCount;
+
+    private Path logsDir;
+    private ReportContext context;
+    private Set<String> shaderBlocks;
+    private List<String> missingPropertyStates;
+
+    @Setup
+    public void setup() throws IOException {
+        RegistrySnapshot snapshot = BenchmarkFixtures.registry(blockCount);
+        context = ReportContext.create(snapshot);
+
+        shaderBlocks = new HashSet<>();
+        for (String line : BenchmarkFixtures.blockPropertiesLines(snapshot, lineCount)) {
+            for (String token : line.split("\\s+")) {
+                if (token.contains(":")) {
+                    shaderBlocks.add(token);
+                }
+            }
+        }
+        missingPropertyStates = List.of();
+
+        logsDir = Files.createTempDirectory("euphoriacompanion-jmh");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.delete(logsDir);
+    }
+
+    @Benchmark
+    public void setDifference(Blackhole blackhole) {
+        Set<String> gameBlocks = context.getGameBlocks();
+        Set<String> processedShaderBlocks = BlockReporter.normalizeShaderBlocks(shaderBlocks);
+        blackhole.consume(BlockReporter.difference(gameBlocks, processedShaderBlocks));
+        blackhole.consume(BlockReporter.difference(processedShaderBlocks, gameBlocks));
+    }
+
+    @Benchmark
+    public PackCoverage writeReport() {
+        return BlockReporter.processShaderBlocks("benchmark", shaderBlocks, context, logsDir, missingPropertyStates);
+    }
+}
@@ -0,0 +1,81 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.BenchmarkFixtures;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading a shader pack's block.properties file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParsingBenchmark {
+    @Param({"30000"})
+    public int blockCount;
+
+    @Param({"2000"})
+    public int lineCount;
+
+    private Path workDir;
+    private Path blockProperties;
+    private List<String> completeLines;
+    private int mcVersion;
+
+    @Setup
+    public void setup() throws IOException {
+        RegistrySnapshot registry = BenchmarkFixtures.registry(blockCount);
+        List<String> lines = BenchmarkFixtures.blockPropertiesLines(registry, lineCount);
+        mcVersion = registry.getMcVersion();
+
+        workDir = Files.createTempDirectory("euphoriacompanion-jmh");
+        blockProperties = BenchmarkFixtures.writePack(workDir.resolve("pack"), lines);
+
+        // processBlockLine takes lines after continuation joining
+        completeLines = new ArrayList<>();
+        StringBuilder currentLine = new StringBuilder();
+        for (String line : lines) {
+            if (line.startsWith("#")) {
+                continue;
+            }
+            if (line.endsWith("\\")) {
+                currentLine.append(line, 0, line.length() - 1).append(' ');
+            } else {
+                completeLines.add(currentLine.append(line).toString());
+                currentLine.setLength(0);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.delete(workDir);
+    }
+
+    @Benchmark
+    public Set<String> readPropertiesFile() throws IOException {
+        return ShaderPackProcessor.readPropertiesFile(blockProperties, "benchmark", mcVersion);
+    }
+
+    @Benchmark
+    public void processBlockLine(Blackhole blackhole) {
+        Set<String> shaderBlocks = new HashSet<>();
+        for (String line : completeLines) {
+            ShaderPackProcessor.processBlockLine(line, shaderBlocks);
+        }
+        blackhole.consume(shaderBlocks);
+    }
+}
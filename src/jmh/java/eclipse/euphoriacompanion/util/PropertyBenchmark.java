@@ -0,0 +1,83 @@
+package eclipse.euphoriacompanion.util;
+
+import eclipse.euphoriacompanion.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks block identifier parsing and the missing property state search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyBenchmark {
+    @Param({"30000"})
+    public int blockCount;
+
+    @Param({"2000"})
+    public int lineCount;
+
+    private Path workDir;
+    private Path blockProperties;
+    private String[] identifiers;
+    private GamePropertyIndex index;
+    private BlockPropertyRegistry registry;
+
+    @Setup
+    public void setup() throws IOException {
+        RegistrySnapshot snapshot = BenchmarkFixtures.registry(blockCount);
+        List<String> lines = BenchmarkFixtures.blockPropertiesLines(snapshot, lineCount);
+        index = snapshot.getPropertyIndex();
+
+        workDir = Files.createTempDirectory("euphoriacompanion-jmh");
+        blockProperties = BenchmarkFixtures.writePack(workDir.resolve("pack"), lines);
+
+        // Every identifier token, as the parser sees them
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String line : lines) {
+            for (String token : line.split("\\s+")) {
+                if (token.contains(":")) {
+                    tokens.add(token);
+                }
+            }
+        }
+        identifiers = tokens.toArray(new String[0]);
+
+        registry = BlockPropertyRegistry.getInstance(workDir);
+        registry.processAllShaderBlocks(tokens);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BlockPropertyRegistry.resetInstance();
+        BenchmarkFixtures.delete(workDir);
+    }
+
+    @Benchmark
+    public void parseBlockIdentifier(Blackhole blackhole) {
+        for (String identifier : identifiers) {
+            blackhole.consume(BlockPropertyExtractor.parseBlockIdentifier(identifier));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> parsePropertiesFile() {
+        // Parse the file every time instead of measuring the cache
+        BlockPropertyExtractor.clearCaches();
+        return BlockPropertyExtractor.parsePropertiesFile(blockProperties);
+    }
+
+    @Benchmark
+    public List<String> findAllMissingPropertyStates() {
+        return registry.findAllMissingPropertyStates(index);
+    }
+}
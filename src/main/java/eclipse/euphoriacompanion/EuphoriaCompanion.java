@@ -1,5 +1,7 @@
 package eclipse.euphoriacompanion;
 
+import eclipse.euphoriacompanion.shader.ActiveShaderPack;
+import eclipse.euphoriacompanion.shader.AnalysisHandle;
 import eclipse.euphoriacompanion.shader.ShaderPackProcessor;
 import eclipse.euphoriacompanion.util.BlockCategorizer;
 import eclipse.euphoriacompanion.util.BlockRegistryCacheManager;
@@ -18,13 +20,32 @@ public class EuphoriaCompanion implements ModInitializer {
     public static final String MODID = "euphoriacompanion";
     public static final Logger LOGGER = LoggerFactory.getLogger(MODID);
     public static KeyBinding ANALYZE_KEY;
+    public static KeyBinding HIGHLIGHT_KEY;
+    public static KeyBinding BROWSER_KEY;
 
     /**
-     * Process all shader packs in the game directory.
+     * Process the shader pack selected in Iris, or all shader packs in the game directory if none is.
+     * A request while an analysis is running cancels it and runs again with fresh files.
+     *
+     * @return The handle of the analysis that answers this request
      */
-    public static void processShaderPacks() {
+    public static AnalysisHandle processShaderPacks() {
         Path gameDir = FabricLoader.getInstance().getGameDir();
-        ShaderPackProcessor.processShaderPacksAsync(gameDir);
+        String activePack = ActiveShaderPack.getSelected();
+        if (activePack != null) {
+            LOGGER.info("Analyzing the active shader pack {}", activePack);
+        }
+        return ShaderPackProcessor.processShaderPacksAsync(gameDir, activePack, null);
+    }
+
+    /**
+     * Process all shader packs in the game directory, whichever is selected in Iris.
+     *
+     * @return The handle of the analysis that answers this request
+     */
+    public static AnalysisHandle processAllShaderPacks() {
+        Path gameDir = FabricLoader.getInstance().getGameDir();
+        return ShaderPackProcessor.processShaderPacksAsync(gameDir, null, null);
     }
 
 
@@ -43,6 +64,8 @@ public class EuphoriaCompanion implements ModInitializer {
         try {
             // Register the keybinding using Fabric API
             ANALYZE_KEY = KeyBindingHelper.registerKeyBinding(new KeyBinding("key.euphoriacompanion.analyze", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_F6, "category.euphoriacompanion.keys"));
+            HIGHLIGHT_KEY = KeyBindingHelper.registerKeyBinding(new KeyBinding("key.euphoriacompanion.highlight", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_F7, "category.euphoriacompanion.keys"));
+            BROWSER_KEY = KeyBindingHelper.registerKeyBinding(new KeyBinding("key.euphoriacompanion.browser", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_F8, "category.euphoriacompanion.keys"));
 
             LOGGER.info("Successfully registered keybinding");
         } catch (Exception e) {
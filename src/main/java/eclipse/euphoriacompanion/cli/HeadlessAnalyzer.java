@@ -0,0 +1,148 @@
+package eclipse.euphoriacompanion.cli;
+
+import eclipse.euphoriacompanion.report.BlockCensus;
+import eclipse.euphoriacompanion.report.PackCoverage;
+import eclipse.euphoriacompanion.shader.AnalysisHandle;
+import eclipse.euphoriacompanion.shader.ShaderPackProcessor;
+import eclipse.euphoriacompanion.util.OfflineRegistryBuilder;
+import eclipse.euphoriacompanion.util.RegionScanner;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command-line entry point that runs the shader pack analysis against an exported registry snapshot,
+ * without starting Minecraft. The snapshot is written by the mod to
+ * {@code mods/euphoriacompanion/registry_snapshot.json} on the first analysis of a session.
+ * Without a snapshot, an approximate registry is reconstructed from the blockstate files in
+ * {@code --mods} and {@code --minecraft-jar}, see {@link OfflineRegistryBuilder}.
+ * <p>
+ * Usage:
+ * <pre>
+ * java -cp euphoriacompanion.jar:gson.jar:slf4j-api.jar:fabric-loader.jar eclipse.euphoriacompanion.cli.HeadlessAnalyzer \
+ *     --snapshot registry_snapshot.json --shaderpacks shaderpacks [--pack Pack.zip] [--world saves/World] [--output reports] [--history reports] [--fail-on-missing]
+ * java ... eclipse.euphoriacompanion.cli.HeadlessAnalyzer \
+ *     --mods mods --minecraft-jar 1.20.1.jar [--cache cache] --shaderpacks shaderpacks [--output reports]
+ * </pre>
+ * {@code --pack} analyzes only the named pack, as F6 does with the pack selected in Iris.
+ * {@code --world} scans a saved world's region files with {@link RegionScanner} and ranks each
+ * pack's missing blocks and property states by how often they occur in it.
+ * Exit codes: 0 on success, 1 on invalid arguments or an unreadable snapshot, 2 if
+ * {@code --fail-on-missing} is set and any pack misses blocks or property states.
+ */
+public final class HeadlessAnalyzer {
+    private static final String USAGE = "Usage: HeadlessAnalyzer (--snapshot <file> | [--mods <dir>] [--minecraft-jar <jar>] [--cache <dir>]) --shaderpacks <dir> [--pack <name>] [--world <dir>] [--output <dir>] [--history <dir>] [--fail-on-missing]";
+
+    private HeadlessAnalyzer() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode = run(args);
+        ShaderPackProcessor.shutdown();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs the analyzer
+     *
+     * @param args Command-line arguments
+     * @return The process exit code
+     */
+    public static int run(String[] args) {
+        Path snapshotFile = null;
+        Path modsDir = null;
+        Path minecraftJar = null;
+        Path cacheDir = null;
+        Path shaderpacksDir = null;
+        Path outputDir = Paths.get("euphoriacompanion-reports");
+        Path historyDir = null;
+        String packName = null;
+        Path worldDir = null;
+        boolean failOnMissing = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--fail-on-missing")) {
+                failOnMissing = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + arg);
+                System.err.println(USAGE);
+                return 1;
+            }
+            switch (arg) {
+                case "--snapshot" -> snapshotFile = Paths.get(args[++i]);
+                case "--mods" -> modsDir = Paths.get(args[++i]);
+                case "--minecraft-jar" -> minecraftJar = Paths.get(args[++i]);
+                case "--cache" -> cacheDir = Paths.get(args[++i]);
+                case "--shaderpacks" -> shaderpacksDir = Paths.get(args[++i]);
+                case "--output" -> outputDir = Paths.get(args[++i]);
+                case "--history" -> historyDir = Paths.get(args[++i]);
+                case "--pack" -> packName = args[++i];
+                case "--world" -> worldDir = Paths.get(args[++i]);
+                default -> {
+                    System.err.println("Unknown argument: " + arg);
+                    System.err.println(USAGE);
+                    return 1;
+                }
+            }
+        }
+
+        if ((snapshotFile == null && modsDir == null && minecraftJar == null) || shaderpacksDir == null) {
+            System.err.println(USAGE);
+            return 1;
+        }
+        if (!Files.isDirectory(shaderpacksDir)) {
+            System.err.println("Shader pack directory not found: " + shaderpacksDir);
+            return 1;
+        }
+
+        if (worldDir != null && !Files.isDirectory(worldDir)) {
+            System.err.println("World directory not found: " + worldDir);
+            return 1;
+        }
+
+        RegistrySnapshot snapshot;
+        try {
+            Files.createDirectories(outputDir);
+            if (snapshotFile != null) {
+                snapshot = RegistrySnapshot.load(snapshotFile);
+            } else {
+                snapshot = OfflineRegistryBuilder.build(modsDir, minecraftJar, cacheDir != null ? cacheDir : outputDir);
+            }
+            if (historyDir != null) {
+                Files.createDirectories(historyDir);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to prepare analysis: " + e.getMessage());
+            return 1;
+        }
+
+        BlockCensus census = null;
+        if (worldDir != null) {
+            try {
+                census = RegionScanner.scan(worldDir);
+            } catch (IOException e) {
+                System.err.println("Failed to scan world: " + e.getMessage());
+                return 1;
+            }
+            System.out.println("Scanned " + census.chunks() + " chunks with " + census.stateCounts().size() + " block states in " + worldDir);
+        }
+
+        List<PackCoverage> coverages = ShaderPackProcessor.analyzeShaderPacks(snapshot, outputDir, shaderpacksDir, outputDir, historyDir, census, new AnalysisHandle(packName, null));
+
+        boolean anyMissing = false;
+        for (PackCoverage coverage : coverages) {
+            System.out.println(coverage.packName() + ": " + coverage.missingBlocks().size() + " missing blocks, " + coverage.unusedBlocks().size() + " unused blocks, " + coverage.missingPropertyStates().size() + " missing property states");
+            anyMissing |= !coverage.missingBlocks().isEmpty() || !coverage.missingPropertyStates().isEmpty();
+        }
+        System.out.println("Reports written to " + outputDir.toAbsolutePath());
+
+        return failOnMissing && anyMissing ? 2 : 0;
+    }
+}
@@ -0,0 +1,236 @@
+package eclipse.euphoriacompanion.client;
+
+import eclipse.euphoriacompanion.report.PackCoverage;
+import eclipse.euphoriacompanion.util.BlockRenderCategory;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The entries of one pack's coverage as the coverage browser shows them, sorted by kind,
+ * namespace, render category and ID, with a search index built once per analysis result.
+ * <p>
+ * Search is case-insensitive substring matching. Every two- and three-character sequence of every
+ * entry is indexed with the sorted entries containing it, so a query is answered by intersecting
+ * the lists of its trigrams, smallest first, and checking only the entries left, instead of
+ * scanning every entry on each keystroke.
+ */
+final class CoverageBrowserIndex {
+    // Category of entries that are not game blocks, shown as screen.euphoriacompanion.browser.not_in_game
+    static final String NOT_IN_GAME = "not_in_game";
+
+    /**
+     * What an entry says about the pack
+     */
+    enum Kind {
+        MISSING_BLOCK("screen.euphoriacompanion.browser.missing_blocks"),
+        MISSING_STATE("screen.euphoriacompanion.browser.missing_states"),
+        UNUSED("screen.euphoriacompanion.browser.unused");
+
+        // Lang key of the kind's header
+        final String translationKey;
+
+        Kind(String translationKey) {
+            this.translationKey = translationKey;
+        }
+    }
+
+    /**
+     * One listed block, property state or unused entry
+     *
+     * @param kind      What the entry says about the pack
+     * @param id        The block ID, or "blockId:property=value" for property states
+     * @param namespace The namespace of the block
+     * @param category  The block's render category, or {@link #NOT_IN_GAME} for unused entries
+     */
+    record Entry(Kind kind, String id, String namespace, String category) {
+    }
+
+    private final String packName;
+    private final List<Entry> entries;
+    private final String[] searchText;
+    // Key: Two packed lowercase chars, Value: ascending indices of the entries containing them
+    private final Map<Integer, int[]> bigrams;
+    // Key: Three packed lowercase chars, Value: ascending indices of the entries containing them
+    private final Map<Long, int[]> trigrams;
+
+    private CoverageBrowserIndex(String packName, List<Entry> entries, String[] searchText, Map<Integer, int[]> bigrams, Map<Long, int[]> trigrams) {
+        this.packName = packName;
+        this.entries = entries;
+        this.searchText = searchText;
+        this.bigrams = bigrams;
+        this.trigrams = trigrams;
+    }
+
+    /**
+     * Builds the entries and search index of a pack's coverage
+     *
+     * @param coverage   The pack's coverage from the latest analysis
+     * @param categoryOf Render category name of a block ID, for blocks with missing property states
+     * @return The index
+     */
+    static CoverageBrowserIndex create(PackCoverage coverage, Function<String, String> categoryOf) {
+        List<Entry> entries = new ArrayList<>(coverage.missingBlocks().size() + coverage.missingPropertyStates().size() + coverage.unusedBlocks().size());
+
+        for (Map.Entry<BlockRenderCategory, Set<String>> category : coverage.categorizedMissingBlocks().entrySet()) {
+            for (String blockId : category.getValue()) {
+                entries.add(new Entry(Kind.MISSING_BLOCK, blockId, namespace(blockId), category.getKey().name()));
+            }
+        }
+
+        Map<String, String> stateCategories = new HashMap<>();
+        for (String state : coverage.missingPropertyStates()) {
+            int separator = state.lastIndexOf(':');
+            String blockId = separator > 0 ? state.substring(0, separator) : state;
+            String category = stateCategories.computeIfAbsent(blockId, categoryOf);
+            entries.add(new Entry(Kind.MISSING_STATE, state, namespace(blockId), category));
+        }
+
+        for (String blockId : coverage.unusedBlocks()) {
+            entries.add(new Entry(Kind.UNUSED, blockId, namespace(blockId), NOT_IN_GAME));
+        }
+
+        entries.sort(Comparator.comparing(Entry::kind).thenComparing(Entry::namespace).thenComparing(Entry::category).thenComparing(Entry::id));
+
+        String[] searchText = new String[entries.size()];
+        Map<Integer, IntList> bigramLists = new HashMap<>();
+        Map<Long, IntList> trigramLists = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            String text = entries.get(i).id().toLowerCase(Locale.ROOT);
+            searchText[i] = text;
+            for (int c = 0; c + 1 < text.length(); c++) {
+                bigramLists.computeIfAbsent(bigram(text, c), k -> new IntList()).addOnce(i);
+                if (c + 2 < text.length()) {
+                    trigramLists.computeIfAbsent(trigram(text, c), k -> new IntList()).addOnce(i);
+                }
+            }
+        }
+
+        Map<Integer, int[]> bigrams = new HashMap<>(bigramLists.size() * 2);
+        bigramLists.forEach((key, list) -> bigrams.put(key, list.toArray()));
+        Map<Long, int[]> trigrams = new HashMap<>(trigramLists.size() * 2);
+        trigramLists.forEach((key, list) -> trigrams.put(key, list.toArray()));
+        return new CoverageBrowserIndex(coverage.packName(), List.copyOf(entries), searchText, bigrams, trigrams);
+    }
+
+    private static String namespace(String blockId) {
+        int colon = blockId.indexOf(':');
+        return colon > 0 ? blockId.substring(0, colon) : "minecraft";
+    }
+
+    private static int bigram(String text, int start) {
+        return (text.charAt(start) << 16) | text.charAt(start + 1);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    String getPackName() {
+        return packName;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    Entry get(int index) {
+        return entries.get(index);
+    }
+
+    /**
+     * Finds the entries containing a query
+     *
+     * @param query The text to find, case-insensitive
+     * @return Ascending indices of the matching entries, or null if the query is empty and every entry matches
+     */
+    int[] search(String query) {
+        String text = query.trim().toLowerCase(Locale.ROOT);
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (text.length() == 1) {
+            // A single character is in most entries, so a scan is as fast as any index
+            IntList matches = new IntList();
+            for (int i = 0; i < searchText.length; i++) {
+                if (searchText[i].indexOf(text.charAt(0)) >= 0) {
+                    matches.addOnce(i);
+                }
+            }
+            return matches.toArray();
+        }
+        if (text.length() == 2) {
+            int[] matches = bigrams.get(bigram(text, 0));
+            return matches != null ? matches : new int[0];
+        }
+
+        List<int[]> lists = new ArrayList<>(text.length() - 2);
+        for (int c = 0; c + 2 < text.length(); c++) {
+            int[] list = trigrams.get(trigram(text, c));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+        if (text.length() == 3) {
+            return candidates;
+        }
+
+        // Every trigram occurring somewhere does not mean they occur in sequence
+        IntList matches = new IntList();
+        for (int candidate : candidates) {
+            if (searchText[candidate].contains(text)) {
+                matches.addOnce(candidate);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Growable list of ascending ints
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // Entries are added in order, so a repeated sequence in one entry only checks the last value
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
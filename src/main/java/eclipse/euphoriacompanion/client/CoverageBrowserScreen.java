@@ -0,0 +1,296 @@
+package eclipse.euphoriacompanion.client;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.report.PackCoverage;
+import eclipse.euphoriacompanion.shader.ActiveShaderPack;
+import eclipse.euphoriacompanion.shader.ShaderPackProcessor;
+import eclipse.euphoriacompanion.util.BlockRenderHelper;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.widget.ButtonWidget;
+import net.minecraft.client.gui.widget.TextFieldWidget;
+import net.minecraft.registry.Registries;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.*;
+
+/**
+ * Lists the missing blocks, missing property states and unused entries of the latest analysis,
+ * grouped by namespace and render category, with a search field.
+ * <p>
+ * Reads the analysis result in memory rather than the report files. The list only draws the
+ * rows in view, so scrolling costs the same for fifty entries or fifty thousand, and searching
+ * uses an index built once per analysis result, see {@link CoverageBrowserIndex}.
+ */
+public class CoverageBrowserScreen extends Screen {
+    private static final int ROW_HEIGHT = 11;
+    private static final int LIST_TOP = 56;
+    private static final int MARGIN = 10;
+    private static final int KIND_COLOR = 0xFFFFFF55;
+    private static final int GROUP_COLOR = 0xFFAAAAAA;
+    private static final int MISSING_BLOCK_COLOR = 0xFFFF5555;
+    private static final int MISSING_STATE_COLOR = 0xFFFFAA00;
+    private static final int UNUSED_COLOR = 0xFF55FFFF;
+
+    // The analysis result the indices were built from, compared by identity
+    private static @Nullable List<PackCoverage> indexSource;
+    // Key: Pack name, Value: entries and search index of that pack
+    private static final Map<String, CoverageBrowserIndex> indices = new HashMap<>();
+
+    private final List<PackCoverage> coverages;
+    private int packIndex;
+    private @Nullable CoverageBrowserIndex index;
+    // Rows in display order: entry indices, or -(header + 1) for a header in headers
+    private int[] rows = new int[0];
+    private final List<String> headers = new ArrayList<>();
+    private int matchCount;
+    // Translated once per search rather than every frame
+    private String status = "";
+    private int scroll;
+    private @Nullable TextFieldWidget searchField;
+    private @Nullable ButtonWidget packButton;
+
+    public CoverageBrowserScreen() {
+        super(Text.translatable("screen.euphoriacompanion.browser"));
+        coverages = ShaderPackProcessor.getLatestCoverages();
+        String selected = ActiveShaderPack.getSelected();
+        for (int i = 0; i < coverages.size(); i++) {
+            if (coverages.get(i).packName().equals(selected)) {
+                packIndex = i;
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected void init() {
+        int fieldWidth = Math.min(300, width - 2 * MARGIN - 130);
+        String query = searchField != null ? searchField.getText() : "";
+        searchField = new TextFieldWidget(textRenderer, MARGIN, 22, fieldWidth, 20, Text.translatable("screen.euphoriacompanion.browser.search"));
+        searchField.setMaxLength(256);
+        searchField.setText(query);
+        searchField.setChangedListener(this::applySearch);
+        addDrawableChild(searchField);
+        setInitialFocus(searchField);
+
+        packButton = addDrawableChild(ButtonWidget.builder(Text.literal(""), button -> cyclePack())
+                .dimensions(MARGIN + fieldWidth + 10, 22, 120, 20)
+                .build());
+
+        selectPack(packIndex);
+    }
+
+    private void cyclePack() {
+        if (!coverages.isEmpty()) {
+            selectPack((packIndex + 1) % coverages.size());
+        }
+    }
+
+    private void selectPack(int newIndex) {
+        packIndex = newIndex;
+        index = coverages.isEmpty() ? null : getIndex(coverages.get(packIndex));
+        if (packButton != null) {
+            packButton.setMessage(index != null ? Text.translatable("screen.euphoriacompanion.browser.pack", index.getPackName(), packIndex + 1, coverages.size()) : Text.literal("-"));
+        }
+        applySearch(searchField != null ? searchField.getText() : "");
+    }
+
+    private static CoverageBrowserIndex getIndex(PackCoverage coverage) {
+        List<PackCoverage> latest = ShaderPackProcessor.getLatestCoverages();
+        if (latest != indexSource) {
+            indexSource = latest;
+            indices.clear();
+        }
+        return indices.computeIfAbsent(coverage.packName(), name -> {
+            long start = System.nanoTime();
+            CoverageBrowserIndex created = CoverageBrowserIndex.create(coverage, CoverageBrowserScreen::categoryOf);
+            EuphoriaCompanion.LOGGER.info("Indexed {} coverage entries of {} in {} ms", created.size(), name, (System.nanoTime() - start) / 1_000_000);
+            return created;
+        });
+    }
+
+    private static String categoryOf(String blockId) {
+        Identifier id = Identifier.tryParse(blockId);
+        return id == null ? CoverageBrowserIndex.NOT_IN_GAME : Registries.BLOCK.getOrEmpty(id)
+                .map(block -> BlockRenderHelper.getRenderCategory(block).name())
+                .orElse(CoverageBrowserIndex.NOT_IN_GAME);
+    }
+
+    private void applySearch(String query) {
+        headers.clear();
+        scroll = 0;
+        if (index == null) {
+            rows = new int[0];
+            matchCount = 0;
+            status = "";
+            return;
+        }
+
+        long start = System.nanoTime();
+        int[] matches = index.search(query);
+        double searchMillis = (System.nanoTime() - start) / 1_000_000.0;
+        matchCount = matches != null ? matches.length : index.size();
+        buildRows(matches);
+        status = matches != null
+                ? Text.translatable("screen.euphoriacompanion.browser.status.searched", matchCount, index.size(), String.format(Locale.ROOT, "%.2f", searchMillis)).getString()
+                : Text.translatable("screen.euphoriacompanion.browser.status", matchCount, index.size()).getString();
+    }
+
+    /**
+     * Lays out the matching entries under a header per kind and per namespace and category.
+     * Header labels are filled in once their group's size is known.
+     *
+     * @param matches Ascending entry indices, or null for every entry
+     */
+    private void buildRows(@Nullable int[] matches) {
+        CoverageBrowserIndex entries = Objects.requireNonNull(index);
+        int[] laidOut = new int[matchCount * 2 + 2];
+        int count = 0;
+        CoverageBrowserIndex.Kind kind = null;
+        // First entry of the current namespace and category group
+        CoverageBrowserIndex.Entry group = null;
+        int kindHeader = -1;
+        int groupHeader = -1;
+        int kindSize = 0;
+        int groupSize = 0;
+
+        for (int i = 0; i < matchCount; i++) {
+            int entryIndex = matches != null ? matches[i] : i;
+            CoverageBrowserIndex.Entry entry = entries.get(entryIndex);
+            if (entry.kind() != kind) {
+                closeHeader(kindHeader, kind != null ? Text.translatable(kind.translationKey).getString() : null, kindSize);
+                closeHeader(groupHeader, groupLabel(group), groupSize);
+                kind = entry.kind();
+                group = null;
+                kindSize = 0;
+                kindHeader = headers.size();
+                headers.add("");
+                laidOut = ensureCapacity(laidOut, count + 1);
+                laidOut[count++] = -(kindHeader + 1);
+            }
+            if (group == null || !entry.namespace().equals(group.namespace()) || !entry.category().equals(group.category())) {
+                closeHeader(groupHeader, groupLabel(group), groupSize);
+                group = entry;
+                groupSize = 0;
+                groupHeader = headers.size();
+                headers.add("");
+                laidOut = ensureCapacity(laidOut, count + 1);
+                laidOut[count++] = -(groupHeader + 1);
+            }
+            laidOut = ensureCapacity(laidOut, count + 1);
+            laidOut[count++] = entryIndex;
+            kindSize++;
+            groupSize++;
+        }
+        closeHeader(kindHeader, kind != null ? Text.translatable(kind.translationKey).getString() : null, kindSize);
+        closeHeader(groupHeader, groupLabel(group), groupSize);
+        rows = Arrays.copyOf(laidOut, count);
+    }
+
+    private static @Nullable String groupLabel(@Nullable CoverageBrowserIndex.Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        String category = entry.category().equals(CoverageBrowserIndex.NOT_IN_GAME)
+                ? Text.translatable("screen.euphoriacompanion.browser.not_in_game").getString()
+                : entry.category();
+        return Text.translatable("screen.euphoriacompanion.browser.group", entry.namespace(), category).getString();
+    }
+
+    private void closeHeader(int header, @Nullable String label, int size) {
+        if (header >= 0 && label != null) {
+            headers.set(header, Text.translatable("screen.euphoriacompanion.browser.count", label, size).getString());
+        }
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private int listBottom() {
+        return height - MARGIN;
+    }
+
+    private int maxScroll() {
+        return Math.max(0, rows.length * ROW_HEIGHT - (listBottom() - LIST_TOP));
+    }
+
+    private void scrollBy(int pixels) {
+        scroll = Math.max(0, Math.min(maxScroll(), scroll + pixels));
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double amount) {
+        scrollBy((int) (-amount * ROW_HEIGHT * 3));
+        return true;
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        int page = listBottom() - LIST_TOP - ROW_HEIGHT;
+        if (keyCode == GLFW.GLFW_KEY_PAGE_DOWN) {
+            scrollBy(page);
+            return true;
+        }
+        if (keyCode == GLFW.GLFW_KEY_PAGE_UP) {
+            scrollBy(-page);
+            return true;
+        }
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    @Override
+    public void render(DrawContext context, int mouseX, int mouseY, float delta) {
+        renderBackground(context);
+        super.render(context, mouseX, mouseY, delta);
+        context.drawCenteredTextWithShadow(textRenderer, Text.translatable("screen.euphoriacompanion.browser").getString(), width / 2, 8, 0xFFFFFFFF);
+
+        if (index == null) {
+            context.drawCenteredTextWithShadow(textRenderer, Text.translatable("screen.euphoriacompanion.browser.empty").getString(), width / 2, LIST_TOP + 20, GROUP_COLOR);
+            return;
+        }
+        context.drawTextWithShadow(textRenderer, status, MARGIN, 45, GROUP_COLOR);
+
+        // Only the rows in view are drawn
+        int bottom = listBottom();
+        int first = scroll / ROW_HEIGHT;
+        int last = Math.min(rows.length, (scroll + bottom - LIST_TOP) / ROW_HEIGHT + 1);
+        context.enableScissor(MARGIN, LIST_TOP, width - MARGIN, bottom);
+        for (int row = first; row < last; row++) {
+            int y = LIST_TOP + row * ROW_HEIGHT - scroll;
+            int value = rows[row];
+            if (value < 0) {
+                String header = headers.get(-value - 1);
+                boolean kindHeader = row + 1 < rows.length && rows[row + 1] < 0;
+                context.drawTextWithShadow(textRenderer, header, kindHeader ? MARGIN : MARGIN + 8, y, kindHeader ? KIND_COLOR : GROUP_COLOR);
+            } else {
+                CoverageBrowserIndex.Entry entry = index.get(value);
+                context.drawTextWithShadow(textRenderer, entry.id(), MARGIN + 16, y, colorOf(entry.kind()));
+            }
+        }
+        context.disableScissor();
+
+        if (rows.length * ROW_HEIGHT > bottom - LIST_TOP) {
+            int trackHeight = bottom - LIST_TOP;
+            int thumbHeight = Math.max(10, trackHeight * trackHeight / (rows.length * ROW_HEIGHT));
+            int thumbTop = LIST_TOP + (int) ((long) (trackHeight - thumbHeight) * scroll / Math.max(1, maxScroll()));
+            context.fill(width - MARGIN - 4, thumbTop, width - MARGIN, thumbTop + thumbHeight, 0xFF888888);
+        }
+    }
+
+    private static int colorOf(CoverageBrowserIndex.Kind kind) {
+        return switch (kind) {
+            case MISSING_BLOCK -> MISSING_BLOCK_COLOR;
+            case MISSING_STATE -> MISSING_STATE_COLOR;
+            case UNUSED -> UNUSED_COLOR;
+        };
+    }
+
+    @Override
+    public boolean shouldPause() {
+        return false;
+    }
+}
@@ -0,0 +1,364 @@
+package eclipse.euphoriacompanion.client;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.report.PackCoverage;
+import eclipse.euphoriacompanion.shader.ActiveShaderPack;
+import eclipse.euphoriacompanion.shader.ShaderPackProcessor;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.gl.ShaderProgram;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.Registries;
+import net.minecraft.state.property.Property;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Debug overlay that outlines the blocks near the player that the analyzed shader pack does not
+ * cover: red for blocks missing from block.properties, yellow for missing property states.
+ * <p>
+ * Outlines are built once per chunk section and uploaded to a vertex buffer of their own. A section
+ * is only rebuilt when a block in it changes, its chunk is loaded again, or a new analysis changes
+ * the coverage; sections whose palette holds no uncovered state are skipped without visiting their
+ * blocks and get no buffer. Each frame only draws the cached buffers, nearest sections first, and
+ * builds at most a few new sections. Buffers are freed when their section is rebuilt or unloaded
+ * and when the overlay is turned off.
+ */
+public final class CoverageHighlighter {
+    // Horizontal distance in chunks around the camera
+    private static final int RADIUS = Math.max(1, Integer.getInteger("euphoriacompanion.highlightRadius", 4));
+    // New sections built per frame, so turning the overlay on or flying fast does not stutter
+    private static final int BUILDS_PER_FRAME = 8;
+    private static final int MAX_OUTLINES = 8192;
+    private static final int MISSING_BLOCK = 1;
+    private static final int MISSING_STATE = 2;
+    private static final int[] NO_OUTLINES = new int[0];
+    private static final SectionMesh NO_MESH = new SectionMesh(null, 0);
+    // Room for 64 outlines of 24 line vertices of 20 bytes, the builder grows for more
+    private static final int INITIAL_BUFFER_BYTES = 64 * 24 * 20;
+    // Chunk offsets within the radius, nearest first
+    private static final List<int[]> OFFSETS = createOffsets();
+
+    // Key: Packed section position, Value: the section's uploaded outlines
+    // Only touched on the client thread, which is also the render thread the buffers belong to
+    private static final Map<Long, SectionMesh> sectionMeshes = new HashMap<>();
+    // Reused for every section, created on the first build
+    private static @Nullable BufferBuilder builder;
+    private static boolean enabled;
+    private static boolean initialized;
+    private static @Nullable ClientWorld outlinedWorld;
+    // The analysis result the lookup was built from, compared by identity
+    private static @Nullable List<PackCoverage> coverageSource;
+    private static @Nullable CoverageLookup lookup;
+
+    private CoverageHighlighter() {
+    }
+
+    /**
+     * Registers the render and chunk listeners
+     */
+    public static void initialize() {
+        if (initialized) {
+            return;
+        }
+        WorldRenderEvents.AFTER_TRANSLUCENT.register(CoverageHighlighter::render);
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> invalidateChunk(world, chunk));
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> invalidateChunk(world, chunk));
+        initialized = true;
+    }
+
+    /**
+     * Turns the overlay on or off
+     *
+     * @return true if the overlay is now on
+     */
+    public static boolean toggle() {
+        enabled = !enabled;
+        if (!enabled) {
+            // Free the cached buffers, they are cheap to rebuild
+            clearMeshes();
+        }
+        EuphoriaCompanion.LOGGER.info("Coverage highlighter {}", enabled ? "enabled" : "disabled");
+        return enabled;
+    }
+
+    /**
+     * Drops the outlines of the section containing a changed block. Called on the client thread.
+     *
+     * @param pos The changed block
+     */
+    public static void onBlockChanged(BlockPos pos) {
+        if (enabled && !sectionMeshes.isEmpty()) {
+            removeMesh(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        }
+    }
+
+    private static void invalidateChunk(ClientWorld world, WorldChunk chunk) {
+        if (!enabled || world != outlinedWorld) {
+            return;
+        }
+        int chunkX = chunk.getPos().x;
+        int chunkZ = chunk.getPos().z;
+        for (int sectionY = world.getBottomSectionCoord(); sectionY < world.getTopSectionCoord(); sectionY++) {
+            removeMesh(ChunkSectionPos.asLong(chunkX, sectionY, chunkZ));
+        }
+    }
+
+    private static void removeMesh(long key) {
+        SectionMesh mesh = sectionMeshes.remove(key);
+        if (mesh != null && mesh.buffer() != null) {
+            mesh.buffer().close();
+        }
+    }
+
+    private static void clearMeshes() {
+        for (SectionMesh mesh : sectionMeshes.values()) {
+            if (mesh.buffer() != null) {
+                mesh.buffer().close();
+            }
+        }
+        sectionMeshes.clear();
+    }
+
+    private static void render(WorldRenderContext context) {
+        if (!enabled) {
+            return;
+        }
+        ClientWorld world = context.world();
+        if (world != outlinedWorld) {
+            clearMeshes();
+            outlinedWorld = world;
+        }
+        if (!refreshLookup()) {
+            return;
+        }
+
+        Vec3d camera = context.camera().getPos();
+        int cameraChunkX = (int) Math.floor(camera.x) >> 4;
+        int cameraChunkZ = (int) Math.floor(camera.z) >> 4;
+        MatrixStack matrices = context.matrixStack();
+        RenderLayer layer = RenderLayer.getLines();
+        ShaderProgram program = GameRenderer.getRenderTypeLinesProgram();
+        int builds = 0;
+        int outlines = 0;
+
+        layer.startDrawing();
+        try {
+            for (int[] offset : OFFSETS) {
+                int chunkX = cameraChunkX + offset[0];
+                int chunkZ = cameraChunkZ + offset[1];
+                boolean loaded = world.getChunkManager().isChunkLoaded(chunkX, chunkZ);
+                for (int sectionY = world.getBottomSectionCoord(); sectionY < world.getTopSectionCoord(); sectionY++) {
+                    long key = ChunkSectionPos.asLong(chunkX, sectionY, chunkZ);
+                    SectionMesh mesh = sectionMeshes.get(key);
+                    if (mesh == null) {
+                        if (!loaded || builds >= BUILDS_PER_FRAME) {
+                            continue;
+                        }
+                        mesh = upload(buildSection(world, chunkX, sectionY, chunkZ));
+                        sectionMeshes.put(key, mesh);
+                        builds++;
+                    }
+                    if (mesh.buffer() == null) {
+                        continue;
+                    }
+                    outlines += mesh.outlines();
+                    if (outlines > MAX_OUTLINES) {
+                        return;
+                    }
+
+                    // Vertices are relative to the section, so the buffer is placed relative to the camera
+                    matrices.push();
+                    matrices.translate((chunkX << 4) - camera.x, (sectionY << 4) - camera.y, (chunkZ << 4) - camera.z);
+                    mesh.buffer().bind();
+                    mesh.buffer().draw(matrices.peek().getPositionMatrix(), context.projectionMatrix(), program);
+                    matrices.pop();
+                }
+            }
+        } finally {
+            VertexBuffer.unbind();
+            layer.endDrawing();
+        }
+    }
+
+    /**
+     * Uploads the outlines of one section into a new vertex buffer
+     *
+     * @param outlines The section's outlines
+     * @return The uploaded outlines, without a buffer if there are none
+     */
+    private static SectionMesh upload(int[] outlines) {
+        if (outlines.length == 0) {
+            return NO_MESH;
+        }
+        if (builder == null) {
+            builder = new BufferBuilder(INITIAL_BUFFER_BYTES);
+        }
+        builder.begin(VertexFormat.DrawMode.LINES, VertexFormats.LINES);
+        MatrixStack origin = new MatrixStack();
+        for (int outline : outlines) {
+            int x = outline & 15;
+            int y = (outline >> 8) & 15;
+            int z = (outline >> 4) & 15;
+            boolean missingBlock = (outline >> 12) == MISSING_BLOCK;
+            WorldRenderer.drawBox(origin, builder, x - 0.002, y - 0.002, z - 0.002, x + 1.002, y + 1.002, z + 1.002, 1.0f, missingBlock ? 0.2f : 0.85f, 0.2f, 1.0f);
+        }
+        VertexBuffer buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+        buffer.bind();
+        buffer.upload(builder.end());
+        VertexBuffer.unbind();
+        return new SectionMesh(buffer, outlines.length);
+    }
+
+    private static int[] buildSection(ClientWorld world, int chunkX, int sectionY, int chunkZ) {
+        WorldChunk chunk = world.getChunk(chunkX, chunkZ);
+        ChunkSection[] sections = chunk.getSectionArray();
+        int index = sectionY - world.getBottomSectionCoord();
+        if (index < 0 || index >= sections.length) {
+            return NO_OUTLINES;
+        }
+        ChunkSection section = sections[index];
+        CoverageLookup coverage = lookup;
+        // The palette answers for the whole section, most sections hold no uncovered state
+        if (section == null || section.isEmpty() || coverage == null || !section.getBlockStateContainer().hasAny(state -> coverage.classify(state) != 0)) {
+            return NO_OUTLINES;
+        }
+
+        int[] outlines = new int[64];
+        int count = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int kind = coverage.classify(section.getBlockState(x, y, z));
+                    if (kind == 0) {
+                        continue;
+                    }
+                    if (count == outlines.length) {
+                        outlines = Arrays.copyOf(outlines, count * 2);
+                    }
+                    outlines[count++] = (kind << 12) | (y << 8) | (z << 4) | x;
+                }
+            }
+        }
+        return Arrays.copyOf(outlines, count);
+    }
+
+    /**
+     * The outlines of one chunk section, uploaded to the GPU
+     *
+     * @param buffer   The section's line vertices relative to the section origin, or null if it has no outlines
+     * @param outlines Number of outlined blocks
+     */
+    private record SectionMesh(@Nullable VertexBuffer buffer, int outlines) {
+    }
+
+    /**
+     * Rebuilds the lookup when a new analysis has finished
+     *
+     * @return true if there is coverage to highlight
+     */
+    private static boolean refreshLookup() {
+        List<PackCoverage> coverages = ShaderPackProcessor.getLatestCoverages();
+        if (coverages != coverageSource) {
+            coverageSource = coverages;
+            PackCoverage coverage = selectCoverage(coverages);
+            lookup = coverage != null ? new CoverageLookup(coverage) : null;
+            clearMeshes();
+            if (coverage != null) {
+                EuphoriaCompanion.LOGGER.info("Highlighting blocks not covered by {}", coverage.packName());
+            }
+        }
+        return lookup != null;
+    }
+
+    // Prefers the pack selected in Iris, otherwise the first pack analyzed
+    private static @Nullable PackCoverage selectCoverage(List<PackCoverage> coverages) {
+        String selected = ActiveShaderPack.getSelected();
+        for (PackCoverage coverage : coverages) {
+            if (coverage.packName().equals(selected)) {
+                return coverage;
+            }
+        }
+        return coverages.isEmpty() ? null : coverages.get(0);
+    }
+
+    private static List<int[]> createOffsets() {
+        List<int[]> offsets = new ArrayList<>();
+        for (int x = -RADIUS; x <= RADIUS; x++) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                offsets.add(new int[]{x, z});
+            }
+        }
+        offsets.sort(Comparator.comparingInt(offset -> offset[0] * offset[0] + offset[1] * offset[1]));
+        return List.copyOf(offsets);
+    }
+
+    /**
+     * Per-state view of one pack's coverage, memoized per block state
+     */
+    private static final class CoverageLookup {
+        private final Set<String> missingBlocks;
+        // Key: Block ID, Value: missing "property=value" pairs of that block
+        private final Map<String, Set<String>> missingStates = new HashMap<>();
+        private final Map<BlockState, Integer> kinds = new IdentityHashMap<>();
+
+        CoverageLookup(PackCoverage coverage) {
+            missingBlocks = coverage.missingBlocks();
+            for (String state : coverage.missingPropertyStates()) {
+                int separator = state.lastIndexOf(':');
+                if (separator > 0) {
+                    missingStates.computeIfAbsent(state.substring(0, separator), k -> new HashSet<>()).add(state.substring(separator + 1));
+                }
+            }
+        }
+
+        /**
+         * @return 0 if the state is covered, otherwise MISSING_BLOCK or MISSING_STATE
+         */
+        int classify(BlockState state) {
+            Integer kind = kinds.get(state);
+            if (kind == null) {
+                kind = computeKind(state);
+                kinds.put(state, kind);
+            }
+            return kind;
+        }
+
+        private int computeKind(BlockState state) {
+            if (state.isAir()) {
+                return 0;
+            }
+            Block block = state.getBlock();
+            String blockId = Registries.BLOCK.getId(block).toString();
+            if (missingBlocks.contains(blockId)) {
+                return MISSING_BLOCK;
+            }
+            Set<String> missing = missingStates.get(blockId);
+            if (missing != null) {
+                for (Map.Entry<Property<?>, Comparable<?>> property : state.getEntries().entrySet()) {
+                    if (missing.contains(property.getKey().getName() + "=" + property.getValue().toString().toLowerCase(Locale.ROOT))) {
+                        return MISSING_STATE;
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package eclipse.euphoriacompanion.client;
 
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.shader.ActiveShaderPack;
 import eclipse.euphoriacompanion.util.BlockRegistryCacheManager;
 import eclipse.euphoriacompanion.util.BlockRenderHelper;
 import eclipse.euphoriacompanion.util.RegistryUtil;
+import eclipse.euphoriacompanion.util.WorldCensus;
 import eclipse.euphoriacompanion.util.WorldReadyHandler;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
@@ -25,6 +27,15 @@ public class EuphoriaCompanionClient implements ClientModInitializer {
             // Initialize the world ready handler
             WorldReadyHandler.initialize();
 
+            // Re-analyze when the player switches shader packs in Iris
+            ActiveShaderPack.initialize();
+
+            // Count the blocks of loaded chunks if the census is enabled
+            WorldCensus.initialize();
+
+            // Outline uncovered blocks when toggled with F7
+            CoverageHighlighter.initialize();
+
             // Register client lifecycle events
             ClientLifecycleEvents.CLIENT_STARTED.register(client -> {
                 // Handle registry caching
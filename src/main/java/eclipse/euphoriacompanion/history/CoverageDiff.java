@@ -0,0 +1,28 @@
+package eclipse.euphoriacompanion.history;
+
+import java.util.List;
+
+/**
+ * Differences in one shader pack's coverage between two recorded runs.
+ * All lists are sorted.
+ *
+ * @param packName            The shader pack's name
+ * @param fromRun             The earlier run ID
+ * @param toRun               The later run ID
+ * @param packChanged         Whether the pack's block entries changed between the runs
+ * @param modsChanged         Whether the mod list changed between the runs
+ * @param newlyCovered        Blocks in both runs that were missing and are now covered
+ * @param newlyMissing        Blocks in both runs that were covered and are now missing
+ * @param addedBlocks         Blocks added to the game since the earlier run
+ * @param removedBlocks       Blocks removed from the game since the earlier run
+ * @param fixedPropertyStates Missing property states that are no longer missing
+ * @param newPropertyStates   Property states that are newly missing
+ */
+public record CoverageDiff(String packName, int fromRun, int toRun, boolean packChanged, boolean modsChanged, List<String> newlyCovered, List<String> newlyMissing, List<String> addedBlocks, List<String> removedBlocks, List<String> fixedPropertyStates, List<String> newPropertyStates) {
+    /**
+     * Checks if nothing changed between the runs
+     */
+    public boolean isEmpty() {
+        return newlyCovered.isEmpty() && newlyMissing.isEmpty() && addedBlocks.isEmpty() && removedBlocks.isEmpty() && fixedPropertyStates.isEmpty() && newPropertyStates.isEmpty();
+    }
+}
@@ -0,0 +1,453 @@
+package eclipse.euphoriacompanion.history;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Append-only binary store of shader pack coverage, one record per pack per analysis run.
+ * <p>
+ * The file is a sequence of entries after a 4 byte magic number. String entries append to a
+ * dictionary shared by block IDs, property states, pack names and input hashes, so each
+ * string is stored once. Record entries hold the run ID, the input hashes and three sets of
+ * dictionary IDs: blocks present in the game, blocks covered by the pack and missing property
+ * states. Each set is stored as an XOR delta against the pack's previous record, with a full
+ * keyframe every {@value #KEYFRAME_INTERVAL} records to bound reconstruction cost.
+ */
+public class CoverageHistory {
+    public static final String HISTORY_FILENAME = "coverage_history.bin";
+    private static final int MAGIC = 0x45434831; // "ECH1"
+    private static final int TAG_STRING = 1;
+    private static final int TAG_RECORD = 2;
+    private static final int KEYFRAME_INTERVAL = 32;
+    private static final int ENCODING_GAPS = 0;
+    private static final int ENCODING_BITS = 1;
+
+    private final Path file;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<Entry> records = new ArrayList<>();
+    // Key: Pack name string ID, Value: index of the pack's latest record
+    private final Map<Integer, Integer> latestRecordByPack = new HashMap<>();
+    // Reconstructed state of each pack's latest record, so appends don't walk the delta chain
+    private final Map<Integer, State> latestStateByPack = new HashMap<>();
+    private long validLength;
+
+    private CoverageHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens a history file, loading every entry. A truncated trailing entry from an interrupted
+     * write is discarded and will be overwritten by the next append.
+     *
+     * @param file The history file, created on first append if missing
+     * @return The loaded history
+     * @throws IOException If the file exists but cannot be read, has the wrong format or holds an unknown entry
+     */
+    public static CoverageHistory open(Path file) throws IOException {
+        CoverageHistory history = new CoverageHistory(file);
+        if (Files.exists(file)) {
+            history.load();
+        }
+        return history;
+    }
+
+    private void load() throws IOException {
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a coverage history file: " + file);
+            }
+            validLength = counter.count;
+
+            while (true) {
+                int tag = in.read();
+                if (tag == -1) {
+                    break;
+                }
+                if (tag == TAG_STRING) {
+                    byte[] bytes = new byte[readVarInt(in)];
+                    in.readFully(bytes);
+                    addString(new String(bytes, StandardCharsets.UTF_8));
+                } else if (tag == TAG_RECORD) {
+                    Entry entry = new Entry(readVarInt(in), in.readLong(), readVarInt(in), readVarInt(in), readVarInt(in), readVarInt(in) - 1, readIdSet(in), readIdSet(in), readIdSet(in));
+                    addRecord(entry);
+                } else {
+                    // Not a truncation: discarding from here on would delete every later entry on the next append
+                    throw new IOException("Unknown entry tag " + tag + " at offset " + validLength + " in " + file + ", the file is corrupt or from a newer version");
+                }
+                validLength = counter.count;
+            }
+        } catch (EOFException e) {
+            EuphoriaCompanion.LOGGER.warn("Coverage history {} ends with an incomplete entry, ignoring it", file);
+        }
+    }
+
+    /**
+     * Gets the ID to use for the next analysis run
+     */
+    public int nextRunId() {
+        int max = 0;
+        for (Entry entry : records) {
+            max = Math.max(max, entry.runId);
+        }
+        return max + 1;
+    }
+
+    /**
+     * Appends one pack's coverage for a run and flushes it to disk
+     *
+     * @param runId                 The run ID, shared by all packs analyzed together
+     * @param packName              The shader pack's name
+     * @param packHash              Hash of the pack's block entries
+     * @param modHash               Hash of the mod list
+     * @param gameBlocks            All block IDs in the game
+     * @param missingBlocks         Game blocks the pack does not cover
+     * @param missingPropertyStates Missing property states
+     * @throws IOException If the entry cannot be written
+     */
+    public synchronized void append(int runId, String packName, String packHash, String modHash, Set<String> gameBlocks, Set<String> missingBlocks, Collection<String> missingPropertyStates) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        // New strings only join the dictionary once they are on disk
+        Map<String, Integer> pending = new LinkedHashMap<>();
+
+        int packId = intern(packName, out, pending);
+        int packHashId = intern(packHash, out, pending);
+        int modHashId = intern(modHash, out, pending);
+
+        BitSet present = new BitSet();
+        BitSet covered = new BitSet();
+        for (String block : gameBlocks) {
+            int id = intern(block, out, pending);
+            present.set(id);
+            if (!missingBlocks.contains(block)) {
+                covered.set(id);
+            }
+        }
+        BitSet propertyStates = new BitSet();
+        for (String missingState : missingPropertyStates) {
+            propertyStates.set(intern(missingState, out, pending));
+        }
+
+        State state = new State(present, covered, propertyStates);
+        Integer previousIndex = latestRecordByPack.get(packId);
+        Entry entry;
+        if (previousIndex != null && records.get(previousIndex).chainLength < KEYFRAME_INTERVAL) {
+            State previous = latestStateByPack.computeIfAbsent(packId, k -> reconstruct(previousIndex));
+            entry = new Entry(runId, System.currentTimeMillis(), packId, packHashId, modHashId, previousIndex, xor(previous.present, present), xor(previous.covered, covered), xor(previous.propertyStates, propertyStates));
+        } else {
+            entry = new Entry(runId, System.currentTimeMillis(), packId, packHashId, modHashId, -1, present, covered, propertyStates);
+        }
+
+        out.write(TAG_RECORD);
+        writeVarInt(out, entry.runId);
+        out.writeLong(entry.timestamp);
+        writeVarInt(out, entry.packId);
+        writeVarInt(out, entry.packHashId);
+        writeVarInt(out, entry.modHashId);
+        writeVarInt(out, entry.baseIndex + 1);
+        writeIdSet(out, entry.present);
+        writeIdSet(out, entry.covered);
+        writeIdSet(out, entry.propertyStates);
+        out.flush();
+
+        writeEntries(buffer.toByteArray());
+
+        pending.keySet().forEach(this::addString);
+        addRecord(entry);
+        latestStateByPack.put(packId, state);
+    }
+
+    private void addRecord(Entry entry) {
+        entry.chainLength = entry.baseIndex < 0 ? 0 : records.get(entry.baseIndex).chainLength + 1;
+        latestRecordByPack.put(entry.packId, records.size());
+        records.add(entry);
+    }
+
+    private void writeEntries(byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (validLength == 0) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(4).putInt(MAGIC).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                validLength = 4;
+            } else if (channel.size() > validLength) {
+                // Drop an incomplete entry left by an interrupted write
+                channel.truncate(validLength);
+            }
+            ByteBuffer data = ByteBuffer.wrap(bytes);
+            long position = validLength;
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+            validLength = position;
+        }
+    }
+
+    /**
+     * Lists the runs recorded for a pack, oldest first
+     *
+     * @param packName The shader pack's name
+     * @return The recorded runs
+     */
+    public List<RunInfo> getRuns(String packName) {
+        Integer packId = stringIds.get(packName);
+        List<RunInfo> runs = new ArrayList<>();
+        if (packId == null) {
+            return runs;
+        }
+        for (Entry entry : records) {
+            if (entry.packId == packId) {
+                runs.add(new RunInfo(entry.runId, entry.timestamp, strings.get(entry.packHashId), strings.get(entry.modHashId)));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Diffs a pack's coverage between two runs
+     *
+     * @param packName The shader pack's name
+     * @param fromRun  The earlier run ID
+     * @param toRun    The later run ID
+     * @return The differences, or null if the pack was not recorded in one of the runs
+     */
+    public CoverageDiff diff(String packName, int fromRun, int toRun) {
+        Integer packId = stringIds.get(packName);
+        if (packId == null) {
+            return null;
+        }
+        int fromIndex = findRecord(packId, fromRun);
+        int toIndex = findRecord(packId, toRun);
+        if (fromIndex < 0 || toIndex < 0) {
+            return null;
+        }
+
+        State from = reconstruct(fromIndex);
+        State to = reconstruct(toIndex);
+
+        // Blocks present in both runs whose coverage changed
+        BitSet both = (BitSet) from.present.clone();
+        both.and(to.present);
+        BitSet newlyCovered = (BitSet) to.covered.clone();
+        newlyCovered.andNot(from.covered);
+        newlyCovered.and(both);
+        BitSet newlyMissing = (BitSet) from.covered.clone();
+        newlyMissing.andNot(to.covered);
+        newlyMissing.and(both);
+
+        BitSet added = (BitSet) to.present.clone();
+        added.andNot(from.present);
+        BitSet removed = (BitSet) from.present.clone();
+        removed.andNot(to.present);
+
+        BitSet fixedStates = (BitSet) from.propertyStates.clone();
+        fixedStates.andNot(to.propertyStates);
+        BitSet newStates = (BitSet) to.propertyStates.clone();
+        newStates.andNot(from.propertyStates);
+
+        Entry fromEntry = records.get(fromIndex);
+        Entry toEntry = records.get(toIndex);
+        return new CoverageDiff(packName, fromRun, toRun, fromEntry.packHashId != toEntry.packHashId, fromEntry.modHashId != toEntry.modHashId, toStrings(newlyCovered), toStrings(newlyMissing), toStrings(added), toStrings(removed), toStrings(fixedStates), toStrings(newStates));
+    }
+
+    private int findRecord(int packId, int runId) {
+        for (int i = records.size() - 1; i >= 0; i--) {
+            Entry entry = records.get(i);
+            if (entry.packId == packId && entry.runId == runId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Rebuilds the full sets of a record by applying deltas forward from its keyframe
+    private State reconstruct(int index) {
+        Deque<Entry> chain = new ArrayDeque<>();
+        Entry entry = records.get(index);
+        chain.push(entry);
+        while (entry.baseIndex >= 0) {
+            entry = records.get(entry.baseIndex);
+            chain.push(entry);
+        }
+
+        Entry keyframe = chain.pop();
+        BitSet present = (BitSet) keyframe.present.clone();
+        BitSet covered = (BitSet) keyframe.covered.clone();
+        BitSet propertyStates = (BitSet) keyframe.propertyStates.clone();
+        for (Entry delta : chain) {
+            present.xor(delta.present);
+            covered.xor(delta.covered);
+            propertyStates.xor(delta.propertyStates);
+        }
+        return new State(present, covered, propertyStates);
+    }
+
+    private List<String> toStrings(BitSet ids) {
+        List<String> result = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            result.add(strings.get(id));
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private int intern(String value, DataOutputStream out, Map<String, Integer> pending) throws IOException {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = pending.get(value);
+        }
+        if (id != null) {
+            return id;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(TAG_STRING);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+        id = strings.size() + pending.size();
+        pending.put(value, id);
+        return id;
+    }
+
+    private void addString(String value) {
+        stringIds.put(value, strings.size());
+        strings.add(value);
+    }
+
+    private static BitSet xor(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.xor(b);
+        return result;
+    }
+
+    // Writes a set of IDs as gap-encoded varints or as raw bitset bytes, whichever is smaller
+    private static void writeIdSet(DataOutputStream out, BitSet ids) throws IOException {
+        ByteArrayOutputStream gaps = new ByteArrayOutputStream();
+        DataOutputStream gapOut = new DataOutputStream(gaps);
+        int previous = -1;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            writeVarInt(gapOut, id - previous - 1);
+            previous = id;
+        }
+
+        byte[] bits = ids.toByteArray();
+        if (bits.length < gaps.size()) {
+            out.write(ENCODING_BITS);
+            writeVarInt(out, bits.length);
+            out.write(bits);
+        } else {
+            out.write(ENCODING_GAPS);
+            writeVarInt(out, ids.cardinality());
+            gaps.writeTo(out);
+        }
+    }
+
+    private static BitSet readIdSet(DataInputStream in) throws IOException {
+        int encoding = in.readUnsignedByte();
+        int length = readVarInt(in);
+        if (encoding == ENCODING_BITS) {
+            byte[] bits = new byte[length];
+            in.readFully(bits);
+            return BitSet.valueOf(bits);
+        }
+
+        BitSet ids = new BitSet();
+        int previous = -1;
+        for (int i = 0; i < length; i++) {
+            previous += readVarInt(in) + 1;
+            ids.set(previous);
+        }
+        return ids;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Summary of one recorded run of a pack
+     */
+    public record RunInfo(int runId, long timestamp, String packHash, String modHash) {
+    }
+
+    private record State(BitSet present, BitSet covered, BitSet propertyStates) {
+    }
+
+    private static final class Entry {
+        final int runId;
+        final long timestamp;
+        final int packId;
+        final int packHashId;
+        final int modHashId;
+        final int baseIndex;
+        final BitSet present;
+        final BitSet covered;
+        final BitSet propertyStates;
+        int chainLength;
+
+        Entry(int runId, long timestamp, int packId, int packHashId, int modHashId, int baseIndex, BitSet present, BitSet covered, BitSet propertyStates) {
+            this.runId = runId;
+            this.timestamp = timestamp;
+            this.packId = packId;
+            this.packHashId = packHashId;
+            this.modHashId = modHashId;
+            this.baseIndex = baseIndex;
+            this.present = present;
+            this.covered = covered;
+            this.propertyStates = propertyStates;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package eclipse.euphoriacompanion.mixin;
 
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.client.CoverageBrowserScreen;
+import eclipse.euphoriacompanion.client.CoverageHighlighter;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.text.Text;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -21,9 +25,26 @@ public class MinecraftClientMixin {
         if (client.player != null && client.currentScreen == null && !paused && EuphoriaCompanion.ANALYZE_KEY != null) {
             // Check if our key was pressed
             if (EuphoriaCompanion.ANALYZE_KEY.wasPressed()) {
-                EuphoriaCompanion.LOGGER.info("Analyze key pressed, processing shader packs");
-                EuphoriaCompanion.processShaderPacks();
+                // Shift analyzes every pack, not just the one selected in Iris
+                if (Screen.hasShiftDown()) {
+                    EuphoriaCompanion.LOGGER.info("Analyze key pressed with shift, processing all shader packs");
+                    EuphoriaCompanion.processAllShaderPacks();
+                } else {
+                    EuphoriaCompanion.LOGGER.info("Analyze key pressed, processing shader packs");
+                    EuphoriaCompanion.processShaderPacks();
+                }
             }
         }
+
+        if (client.player != null && client.currentScreen == null && !paused && EuphoriaCompanion.HIGHLIGHT_KEY != null) {
+            while (EuphoriaCompanion.HIGHLIGHT_KEY.wasPressed()) {
+                boolean enabled = CoverageHighlighter.toggle();
+                client.player.sendMessage(Text.translatable(enabled ? "message.euphoriacompanion.highlight.on" : "message.euphoriacompanion.highlight.off"), true);
+            }
+        }
+
+        if (client.player != null && client.currentScreen == null && !paused && EuphoriaCompanion.BROWSER_KEY != null && EuphoriaCompanion.BROWSER_KEY.wasPressed()) {
+            client.setScreen(new CoverageBrowserScreen());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package eclipse.euphoriacompanion.mixin;
+
+import eclipse.euphoriacompanion.client.CoverageHighlighter;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockView;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Tells the coverage highlighter which sections to rebuild. Every client-side block change,
+ * whether from a single block update or a section update packet, goes through updateBlock.
+ */
+@Mixin(WorldRenderer.class)
+public class WorldRendererMixin {
+    @Inject(method = "updateBlock", at = @At("HEAD"))
+    private void onUpdateBlock(BlockView world, BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+        if (oldState != newState) {
+            CoverageHighlighter.onBlockChanged(pos);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package eclipse.euphoriacompanion.perf;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for file reads and cache lookups. They only ever grow; a
+ * {@link PhaseMetrics} takes a baseline when created and reports the difference, so runs don't
+ * need to reset anything.
+ */
+public final class AnalysisCounters {
+    public static final Cache FILE_PROPERTY_CACHE = new Cache("filePropertyCache");
+    // Successor of the old per-block property cache: reused or rebuilt when the mod list changes
+    public static final Cache GAME_PROPERTY_INDEX = new Cache("gamePropertyIndex");
+    public static final Cache BLOCK_CATEGORIES_CACHE = new Cache("blockCategoriesCache");
+    public static final Cache REGISTRY_CACHE = new Cache("registryCache");
+    private static final List<Cache> CACHES = List.of(FILE_PROPERTY_CACHE, GAME_PROPERTY_INDEX, BLOCK_CATEGORIES_CACHE, REGISTRY_CACHE);
+
+    private static final LongAdder FILES_READ = new LongAdder();
+    private static final LongAdder BYTES_READ = new LongAdder();
+
+    private AnalysisCounters() {
+    }
+
+    /**
+     * Records a file read by the analysis
+     *
+     * @param bytes Bytes read, or characters for text files read line by line
+     */
+    public static void recordFileRead(long bytes) {
+        FILES_READ.increment();
+        BYTES_READ.add(bytes);
+    }
+
+    static long filesRead() {
+        return FILES_READ.sum();
+    }
+
+    static long bytesRead() {
+        return BYTES_READ.sum();
+    }
+
+    // Hits and misses of every cache, by cache name
+    static Map<String, long[]> cacheCounts() {
+        Map<String, long[]> counts = new LinkedHashMap<>();
+        for (Cache cache : CACHES) {
+            counts.put(cache.name, new long[]{cache.hits.sum(), cache.misses.sum()});
+        }
+        return counts;
+    }
+
+    /**
+     * Hit and miss counter of one cache
+     */
+    public static final class Cache {
+        private final String name;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private Cache(String name) {
+            this.name = name;
+        }
+
+        public void hit() {
+            hits.increment();
+        }
+
+        public void miss() {
+            misses.increment();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package eclipse.euphoriacompanion.perf;
+
+import jdk.jfr.*;
+
+import java.nio.file.Path;
+
+/**
+ * JDK Flight Recorder events for each step of a shader pack analysis, so a recording shows where
+ * the time goes instead of one block on the processing thread. They are in the
+ * "Euphoria Companion" category of JDK Mission Control.
+ * <p>
+ * Each event is started with {@code start()} and committed with {@code finish(...)}. When
+ * recording is off, {@code finish} returns before filling in any field, and the JIT removes the
+ * rest.
+ */
+public final class AnalysisEvents {
+    /**
+     * Pack name of events that cover every pack of a run at once
+     */
+    public static final String ALL_PACKS = "(all packs)";
+    private static final String PREFIX = "eclipse.euphoriacompanion.";
+    private static final String CATEGORY = "Euphoria Companion";
+
+    private AnalysisEvents() {
+    }
+
+    @Name(PREFIX + "PackDiscovery")
+    @Label("Pack Discovery")
+    @Description("Listing the shader pack directory")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class PackDiscovery extends Event {
+        @Label("Directory")
+        String directory;
+
+        @Label("Packs")
+        int packs;
+
+        public static PackDiscovery start() {
+            PackDiscovery event = new PackDiscovery();
+            event.begin();
+            return event;
+        }
+
+        public void finish(Path shaderpacksDir, int packCount) {
+            end();
+            if (shouldCommit()) {
+                directory = shaderpacksDir.toString();
+                packs = packCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "PackParse")
+    @Label("Pack Parse")
+    @Description("Loading and parsing a pack's block.properties")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class PackParse extends Event {
+        @Label("Pack")
+        String packName;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Lines")
+        int lines;
+
+        @Label("Block Entries")
+        int blockEntries;
+
+        public static PackParse start() {
+            PackParse event = new PackParse();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String pack, long byteCount, int lineCount, int entryCount) {
+            end();
+            if (shouldCommit()) {
+                packName = pack;
+                bytes = byteCount;
+                lines = lineCount;
+                blockEntries = entryCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "Preprocessor")
+    @Label("Preprocessor Evaluation")
+    @Description("#if/#else/#endif handling while parsing a pack; the duration is the whole parse, the evaluation time only the directives")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class Preprocessor extends Event {
+        @Label("Pack")
+        String packName;
+
+        @Label("Directives")
+        int directives;
+
+        @Label("Skipped Lines")
+        int skippedLines;
+
+        @Label("Evaluation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long evaluationTime;
+
+        public static Preprocessor start() {
+            Preprocessor event = new Preprocessor();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String pack, int directiveCount, int skippedLineCount, long evaluationNanos) {
+            end();
+            if (shouldCommit()) {
+                packName = pack;
+                directives = directiveCount;
+                skippedLines = skippedLineCount;
+                evaluationTime = evaluationNanos;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "PropertyRegistryBuild")
+    @Label("Property Registry Build")
+    @Description("Collecting the block properties used by the packs")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class PropertyRegistryBuild extends Event {
+        @Label("Pack")
+        String packName;
+
+        @Label("Blocks")
+        int blocks;
+
+        public static PropertyRegistryBuild start() {
+            PropertyRegistryBuild event = new PropertyRegistryBuild();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String pack, int blockCount) {
+            end();
+            if (shouldCommit()) {
+                packName = pack;
+                blocks = blockCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "MissingStates")
+    @Label("Missing State Computation")
+    @Description("Finding the property states a pack does not cover")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class MissingStates extends Event {
+        @Label("Pack")
+        String packName;
+
+        @Label("Blocks")
+        int blocks;
+
+        @Label("Missing States")
+        int missingStates;
+
+        public static MissingStates start() {
+            MissingStates event = new MissingStates();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String pack, int blockCount, int missingStateCount) {
+            end();
+            if (shouldCommit()) {
+                packName = pack;
+                blocks = blockCount;
+                missingStates = missingStateCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "Categorization")
+    @Label("Categorization")
+    @Description("Sorting blocks into render categories")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class Categorization extends Event {
+        @Label("Pack")
+        String packName;
+
+        @Label("Blocks")
+        int blocks;
+
+        public static Categorization start() {
+            Categorization event = new Categorization();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String pack, int blockCount) {
+            end();
+            if (shouldCommit()) {
+                packName = pack;
+                blocks = blockCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "ReportWrite")
+    @Label("Report Write")
+    @Description("Writing one report file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class ReportWrite extends Event {
+        @Label("Pack")
+        String packName;
+
+        @Label("Report")
+        String report;
+
+        @Label("Items")
+        int items;
+
+        public static ReportWrite start() {
+            ReportWrite event = new ReportWrite();
+            event.begin();
+            return event;
+        }
+
+        public void finish(String pack, Path reportPath, int itemCount) {
+            end();
+            if (shouldCommit()) {
+                packName = pack;
+                report = String.valueOf(reportPath.getFileName());
+                items = itemCount;
+                commit();
+            }
+        }
+    }
+}
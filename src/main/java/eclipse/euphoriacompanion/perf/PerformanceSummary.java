@@ -0,0 +1,112 @@
+package eclipse.euphoriacompanion.perf;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What an analysis run cost, appended to its reports and written as a JSON sidecar so support
+ * requests come with numbers.
+ *
+ * @param phases         Totals of each phase
+ * @param peakHeapDelta  Peak heap usage during the run minus the usage at its start, in bytes
+ * @param filesRead      Number of files read
+ * @param bytesRead      Bytes read (characters for text files)
+ * @param caches         Hits and misses of each cache, by cache name
+ * @param threads        Number of distinct threads that did timed work
+ */
+public record PerformanceSummary(Map<Phase, PhaseMetrics.PhaseStats> phases, long peakHeapDelta, long filesRead, long bytesRead, Map<String, CacheStats> caches, int threads) {
+    /**
+     * First line of the section appended to reports; everything from it on varies between runs
+     */
+    public static final String SECTION_HEADER = "============ PERFORMANCE SUMMARY ============";
+    public static final String SIDECAR_FILENAME = "performance_summary.json";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Hit and miss counts of one cache during the run
+     */
+    public record CacheStats(long hits, long misses) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total > 0 ? (double) hits / total : 0;
+        }
+    }
+
+    /**
+     * Appends the summary section to the end of a report
+     *
+     * @param report The report file
+     * @throws IOException If the file cannot be written
+     */
+    public void appendTo(Path report) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardOpenOption.APPEND)) {
+            write(writer);
+        }
+    }
+
+    /**
+     * Writes the summary section
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write(SECTION_HEADER + "\n");
+        writer.write("phase: wall ms / busy ms / allocated MB\n");
+        for (Map.Entry<Phase, PhaseMetrics.PhaseStats> entry : phases.entrySet()) {
+            PhaseMetrics.PhaseStats stats = entry.getValue();
+            writer.write(String.format(Locale.ROOT, "%s: %d / %d / %.1f\n", entry.getKey().getId(), stats.wallMillis(), stats.busyNanos() / 1_000_000, stats.allocatedBytes() / (1024.0 * 1024.0)));
+        }
+        writer.write(String.format(Locale.ROOT, "Peak heap delta: %.1f MB\n", peakHeapDelta / (1024.0 * 1024.0)));
+        writer.write(String.format(Locale.ROOT, "Files read: %d (%.1f KB)\n", filesRead, bytesRead / 1024.0));
+        for (Map.Entry<String, CacheStats> entry : caches.entrySet()) {
+            CacheStats stats = entry.getValue();
+            writer.write(String.format(Locale.ROOT, "%s: %d hits / %d misses (%.0f%% hit rate)\n", entry.getKey(), stats.hits(), stats.misses(), stats.hitRate() * 100));
+        }
+        writer.write("Threads used: " + threads + "\n");
+    }
+
+    /**
+     * Writes the summary as JSON
+     *
+     * @param sidecar The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public void writeJson(Path sidecar) throws IOException {
+        JsonObject root = new JsonObject();
+
+        JsonObject phasesObject = new JsonObject();
+        for (Map.Entry<Phase, PhaseMetrics.PhaseStats> entry : phases.entrySet()) {
+            JsonObject phase = new JsonObject();
+            phase.addProperty("wallMillis", entry.getValue().wallMillis());
+            phase.addProperty("busyMillis", entry.getValue().busyNanos() / 1_000_000);
+            phase.addProperty("allocatedBytes", entry.getValue().allocatedBytes());
+            phasesObject.add(entry.getKey().getId(), phase);
+        }
+        root.add("phases", phasesObject);
+        root.addProperty("peakHeapDeltaBytes", peakHeapDelta);
+        root.addProperty("filesRead", filesRead);
+        root.addProperty("bytesRead", bytesRead);
+
+        JsonObject cachesObject = new JsonObject();
+        for (Map.Entry<String, CacheStats> entry : caches.entrySet()) {
+            JsonObject cache = new JsonObject();
+            cache.addProperty("hits", entry.getValue().hits());
+            cache.addProperty("misses", entry.getValue().misses());
+            cachesObject.add(entry.getKey(), cache);
+        }
+        root.add("caches", cachesObject);
+        root.addProperty("threads", threads);
+
+        try (Writer writer = Files.newBufferedWriter(sidecar)) {
+            GSON.toJson(root, writer);
+        }
+    }
+}
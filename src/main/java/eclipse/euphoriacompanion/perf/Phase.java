@@ -0,0 +1,30 @@
+package eclipse.euphoriacompanion.perf;
+
+/**
+ * The phases of a shader pack analysis, in pipeline order.
+ */
+public enum Phase {
+    // Listing the shader pack directory
+    SCAN("scan"),
+    // Reading block.properties and expanding blockstates
+    PARSE("parse"),
+    // Scanning shader sources for the block IDs they check
+    SHADER_CODE("shader_code"),
+    // Finding missing property states per pack and across all packs
+    PROPERTY_REGISTRY("property_registry"),
+    // Writing the per-pack reports, inventory, matrix and history
+    REPORTS("reports");
+
+    private final String id;
+
+    Phase(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the phase's name as used in budgets and summaries
+     */
+    public String getId() {
+        return id;
+    }
+}
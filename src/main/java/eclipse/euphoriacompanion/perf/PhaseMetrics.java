@@ -0,0 +1,179 @@
+package eclipse.euphoriacompanion.perf;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wall time and allocated bytes of each analysis phase. Work can be timed on any thread: each
+ * timed section measures the allocations of its own thread, and the sections of a phase are
+ * summed, so work split over the analysis pool is fully counted.
+ * <p>
+ * Creating the metrics also marks the start of a run for {@link #summarize()}: file reads and
+ * cache lookups are counted from then on, and the heap's peak usage is reset.
+ */
+public final class PhaseMetrics {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+    private final Map<Phase, Accumulator> phases = new EnumMap<>(Phase.class);
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+    private final long startHeapBytes;
+    private final long startFilesRead;
+    private final long startBytesRead;
+    private final Map<String, long[]> startCacheCounts;
+
+    public PhaseMetrics() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new Accumulator());
+        }
+
+        long heapBytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+                heapBytes += pool.getUsage().getUsed();
+            }
+        }
+        startHeapBytes = heapBytes;
+        startFilesRead = AnalysisCounters.filesRead();
+        startBytesRead = AnalysisCounters.bytesRead();
+        startCacheCounts = AnalysisCounters.cacheCounts();
+    }
+
+    /**
+     * Starts timing a section of a phase on the current thread
+     *
+     * @param phase The phase the section belongs to
+     * @return The timer, which records the section when closed
+     */
+    public Timer start(Phase phase) {
+        threads.add(Thread.currentThread().getName());
+        return new Timer(phases.get(phase));
+    }
+
+    /**
+     * Gets the totals of a phase so far
+     */
+    public PhaseStats get(Phase phase) {
+        return phases.get(phase).snapshot();
+    }
+
+    /**
+     * Summarizes the run so far
+     *
+     * @return The performance summary
+     */
+    public PerformanceSummary summarize() {
+        Map<Phase, PhaseStats> phaseStats = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phaseStats.put(phase, get(phase));
+        }
+
+        // Sum of the pools' peaks overestimates the true peak a little, since pools peak at different times
+        long peakHeapBytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        Map<String, PerformanceSummary.CacheStats> caches = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : AnalysisCounters.cacheCounts().entrySet()) {
+            long[] start = startCacheCounts.get(entry.getKey());
+            caches.put(entry.getKey(), new PerformanceSummary.CacheStats(entry.getValue()[0] - start[0], entry.getValue()[1] - start[1]));
+        }
+
+        return new PerformanceSummary(phaseStats, Math.max(0, peakHeapBytes - startHeapBytes), AnalysisCounters.filesRead() - startFilesRead, AnalysisCounters.bytesRead() - startBytesRead, caches, threads.size());
+    }
+
+    /**
+     * Whether allocated bytes are measured on this JVM
+     */
+    public static boolean isAllocationSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Fall through, allocations are reported as 0
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    /**
+     * Totals of one phase
+     *
+     * @param wallNanos      Time from the start of the phase's first section to the end of its last
+     * @param busyNanos      Sum of the durations of every section, across threads
+     * @param allocatedBytes Bytes allocated by every section, across threads
+     * @param sections       Number of timed sections
+     */
+    public record PhaseStats(long wallNanos, long busyNanos, long allocatedBytes, int sections) {
+        public long wallMillis() {
+            return wallNanos / 1_000_000;
+        }
+
+        public long allocatedMegabytes() {
+            return allocatedBytes / (1024 * 1024);
+        }
+    }
+
+    /**
+     * A running section of a phase
+     */
+    public static final class Timer implements AutoCloseable {
+        private final Accumulator accumulator;
+        private final long startNanos;
+        private final long startBytes;
+
+        private Timer(Accumulator accumulator) {
+            this.accumulator = accumulator;
+            this.startBytes = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long endNanos = System.nanoTime();
+            accumulator.add(startNanos, endNanos, allocatedBytes() - startBytes);
+        }
+    }
+
+    private static final class Accumulator {
+        private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder sections = new LongAdder();
+
+        void add(long startNanos, long endNanos, long bytes) {
+            firstStart.accumulateAndGet(startNanos, Math::min);
+            lastEnd.accumulateAndGet(endNanos, Math::max);
+            busyNanos.add(endNanos - startNanos);
+            allocatedBytes.add(bytes);
+            sections.increment();
+        }
+
+        PhaseStats snapshot() {
+            int count = sections.intValue();
+            long wall = count > 0 ? lastEnd.get() - firstStart.get() : 0;
+            return new PhaseStats(wall, busyNanos.sum(), allocatedBytes.sum(), count);
+        }
+    }
+}
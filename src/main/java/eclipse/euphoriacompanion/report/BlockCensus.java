@@ -0,0 +1,68 @@
+package eclipse.euphoriacompanion.report;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * How often each block state occurs in a set of chunks, from the loaded world or a saved one.
+ *
+ * @param source          Where the chunks came from, e.g. "loaded world" or a save directory
+ * @param chunks          Number of chunks counted
+ * @param stateCounts     Number of each block state, keyed "blockId[property=value,...]"
+ * @param blockCounts     Number of each block, by block ID
+ * @param propertyCounts  Number of blocks with each property value, keyed "blockId:property=value"
+ * @param meanChunkMicros Mean time to count one chunk, in microseconds
+ * @param maxChunkMicros  Longest time to count one chunk, in microseconds
+ */
+public record BlockCensus(String source, long chunks, Map<String, Long> stateCounts, Map<String, Long> blockCounts, Map<String, Long> propertyCounts, double meanChunkMicros, double maxChunkMicros) {
+
+    /**
+     * Creates a census from block state counts, deriving the block and property value counts
+     *
+     * @param source          Where the chunks came from
+     * @param chunks          Number of chunks counted
+     * @param stateCounts     Number of each block state, keyed as by {@link #stateKey}
+     * @param meanChunkMicros Mean time to count one chunk, in microseconds
+     * @param maxChunkMicros  Longest time to count one chunk, in microseconds
+     * @return The census
+     */
+    public static BlockCensus create(String source, long chunks, Map<String, Long> stateCounts, double meanChunkMicros, double maxChunkMicros) {
+        Map<String, Long> blockCounts = new HashMap<>();
+        Map<String, Long> propertyCounts = new HashMap<>();
+        for (Map.Entry<String, Long> entry : stateCounts.entrySet()) {
+            String state = entry.getKey();
+            int bracket = state.indexOf('[');
+            String blockId = bracket < 0 ? state : state.substring(0, bracket);
+            blockCounts.merge(blockId, entry.getValue(), Long::sum);
+            if (bracket < 0) {
+                continue;
+            }
+            for (String property : state.substring(bracket + 1, state.length() - 1).split(",")) {
+                propertyCounts.merge(blockId + ":" + property, entry.getValue(), Long::sum);
+            }
+        }
+        return new BlockCensus(source, chunks, Map.copyOf(stateCounts), blockCounts, propertyCounts, meanChunkMicros, maxChunkMicros);
+    }
+
+    /**
+     * Formats a block state as a census key, e.g. "minecraft:furnace[facing=north,lit=true]"
+     *
+     * @param blockId    The block ID with namespace
+     * @param properties Property values sorted by name, values lowercase
+     * @return The key
+     */
+    public static String stateKey(String blockId, SortedMap<String, String> properties) {
+        if (properties.isEmpty()) {
+            return blockId;
+        }
+        StringBuilder key = new StringBuilder(blockId).append('[');
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            if (key.charAt(key.length() - 1) != '[') {
+                key.append(',');
+            }
+            key.append(property.getKey()).append('=').append(property.getValue());
+        }
+        return key.append(']').toString();
+    }
+}
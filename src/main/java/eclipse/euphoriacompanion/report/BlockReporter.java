@@ -1,26 +1,456 @@
 package eclipse.euphoriacompanion.report;
 
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.history.CoverageDiff;
+import eclipse.euphoriacompanion.perf.AnalysisEvents;
 import eclipse.euphoriacompanion.util.BlockPropertyExtractor;
-import eclipse.euphoriacompanion.util.BlockPropertyRegistry;
 import eclipse.euphoriacompanion.util.BlockRenderCategory;
-import eclipse.euphoriacompanion.util.BlockRenderHelper;
-import net.minecraft.block.Block;
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.registry.Registries;
-import net.minecraft.util.Identifier;
+import eclipse.euphoriacompanion.util.PropertySchema;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 
 public class BlockReporter {
-    public static void processShaderBlocks(String shaderpackName, Set<String> shaderBlocks, Set<String> gameBlocks, Path logsDir, Map<String, List<String>> blocksByMod, Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> blockPropertiesMap) {
-        // Process blocks with properties
+    public static final String INVENTORY_FILENAME = "block_inventory.txt";
+    public static final String STATE_FREQUENCY_FILENAME = "block_state_frequency.txt";
+    // Names of the vanilla dimension folders Iris and OptiFine use
+    private static final Map<String, String> DIMENSION_NAMES = Map.of("world0", "Overworld", "world-1", "Nether", "world1", "End");
+    // Reports are tens of thousands of short lines, so write through a large buffer
+    private static final int REPORT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes the full list of game blocks, grouped by mod, to a file shared by every report in the run.
+     * The inventory does not depend on any shader pack, so it is written once instead of per report.
+     *
+     * @param logsDir The logs directory
+     * @param context Registry data shared by all reports in this run
+     */
+    public static void writeBlockInventory(Path logsDir, ReportContext context) {
+        Path inventoryPath = logsDir.resolve(INVENTORY_FILENAME);
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        try (BufferedWriter writer = newReportWriter(inventoryPath)) {
+            writeFullBlockListByCategoryAndMod(writer, context.getCategorizedBlocksByMod());
+            EuphoriaCompanion.LOGGER.info("Block inventory written to {}", inventoryPath);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write block inventory", e);
+        }
+        event.finish(AnalysisEvents.ALL_PACKS, inventoryPath, context.getGameBlocks().size());
+    }
+
+    /**
+     * Writes what changed in a pack's coverage since an earlier run to coverage_changes_[shaderpack].txt
+     *
+     * @param logsDir The logs directory
+     * @param diff    The differences between the runs
+     */
+    public static void writeCoverageChanges(Path logsDir, CoverageDiff diff) {
+        Path changesPath = logsDir.resolve("coverage_changes_" + safeFileName(diff.packName()) + ".txt");
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        try (BufferedWriter writer = newReportWriter(changesPath)) {
+            writer.write("=========================================\n");
+            writer.write("== COVERAGE CHANGES FOR " + diff.packName().toUpperCase() + " ==\n");
+            writer.write("=========================================\n");
+            writer.write("Compared run " + diff.fromRun() + " to run " + diff.toRun() + "\n");
+            writer.write("Shader pack changed: " + (diff.packChanged() ? "yes" : "no") + "\n");
+            writer.write("Mod list changed: " + (diff.modsChanged() ? "yes" : "no") + "\n\n");
+
+            if (diff.isEmpty()) {
+                writer.write("No coverage changes.\n");
+            }
+            writeChangeSection(writer, "NEWLY COVERED BLOCKS", diff.newlyCovered());
+            writeChangeSection(writer, "NEWLY MISSING BLOCKS", diff.newlyMissing());
+            writeChangeSection(writer, "BLOCKS ADDED TO GAME", diff.addedBlocks());
+            writeChangeSection(writer, "BLOCKS REMOVED FROM GAME", diff.removedBlocks());
+            writeChangeSection(writer, "FIXED PROPERTY STATES", diff.fixedPropertyStates());
+            writeChangeSection(writer, "NEWLY MISSING PROPERTY STATES", diff.newPropertyStates());
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write coverage changes", e);
+        }
+        event.finish(diff.packName(), changesPath, diff.newlyCovered().size() + diff.newlyMissing().size() + diff.addedBlocks().size() + diff.removedBlocks().size() + diff.fixedPropertyStates().size() + diff.newPropertyStates().size());
+    }
+
+    /**
+     * Writes how each dimension override of a pack's block.properties changes its coverage to
+     * dimension_coverage_[shaderpack].txt
+     *
+     * @param logsDir           The logs directory
+     * @param shaderpackName    The shader pack's file or directory name
+     * @param baseMissingBlocks Number of game blocks the base block.properties misses
+     * @param coverages         Coverage of each dimension override
+     */
+    public static void writeDimensionCoverage(Path logsDir, String shaderpackName, int baseMissingBlocks, List<DimensionCoverage> coverages) {
+        Path coveragePath = logsDir.resolve("dimension_coverage_" + safeFileName(shaderpackName) + ".txt");
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        int items = 0;
+        try (BufferedWriter writer = newReportWriter(coveragePath)) {
+            writer.write("=========================================\n");
+            writer.write("== DIMENSION COVERAGE FOR " + shaderpackName.toUpperCase() + " ==\n");
+            writer.write("=========================================\n");
+            writer.write("Base block.properties misses " + baseMissingBlocks + " blocks\n\n");
+
+            for (DimensionCoverage coverage : coverages) {
+                String label = DIMENSION_NAMES.getOrDefault(coverage.dimension(), coverage.dimension());
+                int missing = baseMissingBlocks - coverage.newlyCovered().size() + coverage.noLongerCovered().size();
+                writer.write("=== " + coverage.dimension() + (label.equals(coverage.dimension()) ? "" : " (" + label + ")") + " ===\n");
+                writer.write("Replaced IDs: " + coverage.replacedIds() + ", added IDs: " + coverage.addedIds() + "\n");
+                writer.write("Missing blocks in this dimension: " + missing + "\n\n");
+                writeChangeSection(writer, "NEWLY COVERED BLOCKS", new ArrayList<>(coverage.newlyCovered()));
+                writeChangeSection(writer, "NO LONGER COVERED BLOCKS", new ArrayList<>(coverage.noLongerCovered()));
+                writeChangeSection(writer, "BLOCKS NOT IN GAME", new ArrayList<>(coverage.unknownBlocks()));
+                items += coverage.newlyCovered().size() + coverage.noLongerCovered().size() + coverage.unknownBlocks().size();
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write dimension coverage", e);
+        }
+        event.finish(shaderpackName, coveragePath, items);
+    }
+
+    /**
+     * Writes the missing blocks and property states of a pack that appear in the loaded world,
+     * most frequent first, to world_census_[shaderpack].txt
+     *
+     * @param logsDir               The logs directory
+     * @param shaderpackName        The shader pack's file or directory name
+     * @param missingBlocks         Game blocks the pack does not list
+     * @param missingPropertyStates Missing property states in the format "blockId:property=value"
+     * @param census                Block counts of the loaded world or a saved one
+     */
+    public static void writeWorldCensus(Path logsDir, String shaderpackName, Set<String> missingBlocks, List<String> missingPropertyStates, BlockCensus census) {
+        Path censusPath = logsDir.resolve("world_census_" + safeFileName(shaderpackName) + ".txt");
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        List<Map.Entry<String, Long>> blocks = rankByCount(missingBlocks, census.blockCounts());
+        // Missing states are single property values, ranked by every full state that has them
+        List<Map.Entry<String, Long>> states = rankByCount(missingPropertyStates, census.propertyCounts());
+        try (BufferedWriter writer = newReportWriter(censusPath)) {
+            writer.write("=========================================\n");
+            writer.write("== WORLD CENSUS FOR " + shaderpackName.toUpperCase(Locale.ROOT) + " ==\n");
+            writer.write("=========================================\n");
+            writeCensusHeader(writer, census);
+
+            writer.write("============ MISSING BLOCKS IN THE WORLD (" + blocks.size() + ") ============\n");
+            for (Map.Entry<String, Long> block : blocks) {
+                writeCountLine(writer, block.getValue(), block.getKey());
+            }
+            writer.write("\n============ MISSING PROPERTY STATES IN THE WORLD (" + states.size() + ") ============\n");
+            for (Map.Entry<String, Long> state : states) {
+                writeCountLine(writer, state.getValue(), state.getKey());
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write world census", e);
+        }
+        event.finish(shaderpackName, censusPath, blocks.size() + states.size());
+    }
+
+    /**
+     * Writes every block state of a census, most frequent first, to block_state_frequency.txt
+     *
+     * @param logsDir The logs directory
+     * @param census  Block counts of the loaded world or a saved one
+     */
+    public static void writeBlockStateFrequency(Path logsDir, BlockCensus census) {
+        Path frequencyPath = logsDir.resolve(STATE_FREQUENCY_FILENAME);
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        List<Map.Entry<String, Long>> states = rankByCount(census.stateCounts().keySet(), census.stateCounts());
+        try (BufferedWriter writer = newReportWriter(frequencyPath)) {
+            writer.write("=========================================\n");
+            writer.write("== BLOCK STATE FREQUENCY ==\n");
+            writer.write("=========================================\n");
+            writeCensusHeader(writer, census);
+            writer.write("============ BLOCK STATES (" + states.size() + ") ============\n");
+            for (Map.Entry<String, Long> state : states) {
+                writeCountLine(writer, state.getValue(), state.getKey());
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write block state frequency", e);
+        }
+        event.finish(AnalysisEvents.ALL_PACKS, frequencyPath, states.size());
+    }
+
+    private static void writeCensusHeader(BufferedWriter writer, BlockCensus census) throws IOException {
+        writer.write("Source: " + census.source() + "\n");
+        writer.write(String.format(Locale.ROOT, "Chunks: %d, counted in %.1f us mean, %.1f us max per chunk\n\n", census.chunks(), census.meanChunkMicros(), census.maxChunkMicros()));
+    }
+
+    // Writes "count  id" with the count right-aligned in 12 columns, without a format call per line
+    private static void writeCountLine(BufferedWriter writer, long count, String id) throws IOException {
+        String digits = Long.toString(count);
+        for (int i = digits.length(); i < 12; i++) {
+            writer.write(' ');
+        }
+        writer.write(digits);
+        writer.write("  ");
+        writer.write(id);
+        writer.write('\n');
+    }
+
+    // Keeps the IDs that occur in the counts, most frequent first and then by ID
+    private static List<Map.Entry<String, Long>> rankByCount(Collection<String> ids, Map<String, Long> counts) {
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>();
+        for (String id : ids) {
+            Long count = counts.get(id);
+            if (count != null) {
+                ranked.add(Map.entry(id, count));
+            }
+        }
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return ranked;
+    }
+
+    /**
+     * Writes how a pack's item.properties and entity.properties cover the game's items and
+     * entities to registry_coverage_[shaderpack].txt
+     *
+     * @param logsDir        The logs directory
+     * @param shaderpackName The shader pack's file or directory name
+     * @param coverages      Coverage of each registry the pack has a properties file for
+     */
+    public static void writeRegistryCoverage(Path logsDir, String shaderpackName, List<RegistryCoverage> coverages) {
+        Path coveragePath = logsDir.resolve("registry_coverage_" + safeFileName(shaderpackName) + ".txt");
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        int items = 0;
+        try (BufferedWriter writer = newReportWriter(coveragePath)) {
+            writer.write("=========================================\n");
+            writer.write("== ITEM AND ENTITY COVERAGE FOR " + shaderpackName.toUpperCase() + " ==\n");
+            writer.write("=========================================\n");
+            for (RegistryCoverage coverage : coverages) {
+                String name = coverage.registry().toUpperCase(Locale.ROOT);
+                writer.write(name + ": " + coverage.listedIds().size() + " listed, " + coverage.missingIds().size() + " missing, " + coverage.unusedIds().size() + " unused\n");
+            }
+            writer.write("\n");
+
+            for (RegistryCoverage coverage : coverages) {
+                String name = coverage.registry().toUpperCase(Locale.ROOT);
+                if (!coverage.missingIds().isEmpty()) {
+                    writeIdsByNamespace(writer, "MISSING " + name + " IDS", coverage.missingIds());
+                }
+                if (!coverage.unusedIds().isEmpty()) {
+                    writeIdsByNamespace(writer, "UNUSED " + name + " IDS", coverage.unusedIds());
+                }
+                items += coverage.missingIds().size() + coverage.unusedIds().size();
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write registry coverage", e);
+        }
+        event.finish(shaderpackName, coveragePath, items);
+    }
+
+    /**
+     * Writes which declared block IDs a pack's shader code leaves unused, and which IDs it checks
+     * without any blocks mapped to them, to shader_id_usage_[shaderpack].txt
+     *
+     * @param logsDir The logs directory
+     * @param usage   The pack's ID usage
+     */
+    public static void writeShaderIdUsage(Path logsDir, ShaderIdUsage usage) {
+        Path usagePath = logsDir.resolve("shader_id_usage_" + safeFileName(usage.packName()) + ".txt");
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        try (BufferedWriter writer = newReportWriter(usagePath)) {
+            writer.write("=========================================\n");
+            writer.write("== SHADER ID USAGE FOR " + usage.packName().toUpperCase() + " ==\n");
+            writer.write("=========================================\n");
+            writer.write("Shader files scanned: " + usage.filesScanned() + "\n");
+            writer.write("Declared block IDs: " + usage.declaredIds().size() + "\n");
+            writer.write("Dead IDs: " + usage.deadIds().size() + "\n");
+            writer.write("Unmapped IDs: " + usage.unmappedIds().size() + "\n\n");
+
+            writer.write("=== DEAD IDS ===\n");
+            writer.write("Mapped in block.properties but never checked by the shader code. IDs the code only reaches\n");
+            writer.write("through arithmetic or ranges wider than 64 IDs are listed too, so check before removing them.\n");
+            if (usage.deadIds().isEmpty()) {
+                writer.write("None\n");
+            }
+            for (int id : usage.deadIds()) {
+                int entries = usage.declaredIds().get(id);
+                writer.write("block." + id + " (" + entries + (entries == 1 ? " entry" : " entries") + ")\n");
+            }
+            writer.write("\n");
+
+            writer.write("=== UNMAPPED IDS ===\n");
+            writer.write("Compared against by the shader code, but no blocks are mapped to them.\n");
+            if (usage.unmappedIds().isEmpty()) {
+                writer.write("None\n");
+            }
+            for (Map.Entry<Integer, SortedSet<String>> entry : usage.unmappedIds().entrySet()) {
+                writer.write("block." + entry.getKey() + " in " + String.join(", ", entry.getValue()) + "\n");
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write shader ID usage", e);
+        }
+        event.finish(usage.packName(), usagePath, usage.deadIds().size() + usage.unmappedIds().size());
+    }
+
+    /**
+     * Writes a single cross-pack report to coverage_matrix.txt, showing which blocks are covered by
+     * every pack, by some packs or by none, per render category and per mod.
+     *
+     * @param logsDir The logs directory
+     * @param matrix  The coverage matrix of every pack in this run
+     */
+    public static void writeCoverageMatrix(Path logsDir, CoverageMatrix matrix) {
+        Path matrixPath = logsDir.resolve("coverage_matrix.txt");
+        AnalysisEvents.ReportWrite event = AnalysisEvents.ReportWrite.start();
+        try (BufferedWriter writer = newReportWriter(matrixPath)) {
+            List<String> packNames = matrix.getPackNames();
+            BitSet allBlocks = matrix.allBlocks();
+
+            writer.write("=========================================\n");
+            writer.write("== SHADER PACK COVERAGE MATRIX ==\n");
+            writer.write("=========================================\n");
+            writer.write("Total blocks in game: " + matrix.getBlockCount() + "\n");
+            writer.write("Shader packs compared: " + packNames.size() + "\n\n");
+
+            writer.write("============ COVERAGE BY PACK ============\n");
+            int[] packCounts = matrix.coverageCounts(allBlocks);
+            for (int i = 0; i < packNames.size(); i++) {
+                writer.write(packNames.get(i) + ": " + packCounts[i] + " of " + matrix.getBlockCount() + " blocks\n");
+            }
+            writer.write("\n");
+
+            writer.write("============ SUMMARY ============\n");
+            writer.write("Covered by every pack: " + matrix.coveredByAll(allBlocks).cardinality() + "\n");
+            writer.write("Covered by at least one pack: " + matrix.coveredByAny(allBlocks).cardinality() + "\n");
+            writer.write("Missing in at least one pack: " + matrix.missingInAny(allBlocks).cardinality() + "\n");
+            writer.write("Missing in every pack: " + matrix.missingInAll(allBlocks).cardinality() + "\n\n");
+
+            writer.write("============ COVERAGE BY CATEGORY ============\n");
+            writer.write("category: total / covered by all / covered by any / missing in all / best pack\n");
+            for (BlockRenderCategory category : BlockRenderCategory.values()) {
+                // Show "non_full_blocks" instead of "solid" in the report
+                String displayName = category == BlockRenderCategory.SOLID ? "non_full_blocks" : category.name();
+                writeMatrixRow(writer, displayName, matrix, matrix.categoryMask(category));
+            }
+            writer.write("\n");
+
+            writer.write("============ COVERAGE BY MOD ============\n");
+            writer.write("mod: total / covered by all / covered by any / missing in all / best pack\n");
+            for (String namespace : matrix.getNamespaces()) {
+                writeMatrixRow(writer, namespace, matrix, matrix.namespaceMask(namespace));
+            }
+            writer.write("\n");
+
+            List<String> missingInAll = matrix.toBlockIds(matrix.missingInAll(allBlocks));
+            writer.write("============ BLOCKS MISSING IN EVERY PACK (" + missingInAll.size() + ") ============\n");
+            for (String blockId : missingInAll) {
+                writer.write(blockId);
+                writer.write('\n');
+            }
+
+            EuphoriaCompanion.LOGGER.info("Coverage matrix written to {}", matrixPath);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write coverage matrix", e);
+        }
+        event.finish(AnalysisEvents.ALL_PACKS, matrixPath, matrix.getBlockCount());
+    }
+
+    private static void writeMatrixRow(BufferedWriter writer, String label, CoverageMatrix matrix, BitSet mask) throws IOException {
+        int total = mask.cardinality();
+        if (total == 0) {
+            return;
+        }
+        writer.write(label + ": " + total + " / " + matrix.coveredByAll(mask).cardinality() + " / " + matrix.coveredByAny(mask).cardinality() + " / " + matrix.missingInAll(mask).cardinality() + " / " + matrix.bestPack(mask) + "\n");
+    }
+
+    private static void writeChangeSection(BufferedWriter writer, String title, List<String> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        writer.write("============ " + title + " (" + entries.size() + ") ============\n");
+        for (String entry : entries) {
+            writer.write(entry);
+            writer.write('\n');
+        }
+        writer.write("\n");
+    }
+
+    private static BufferedWriter newReportWriter(Path outputPath) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(outputPath), StandardCharsets.UTF_8), REPORT_BUFFER_SIZE);
+    }
+
+    /**
+     * Converts a shader pack name into a string that is safe to use in file names
+     *
+     * @param shaderpackName The shader pack's file or directory name
+     * @return The name with unsafe characters replaced by underscores
+     */
+    public static String safeFileName(String shaderpackName) {
+        return shaderpackName.replaceAll("[^a-zA-Z0-9.-]", "_");
+    }
+
+    /**
+     * Compares a shader pack's blocks with the game's blocks and writes the pack's reports.
+     *
+     * @param shaderpackName        The shader pack's file or directory name
+     * @param shaderBlocks          Block identifiers from the pack, including property-qualified entries
+     * @param context               Registry data shared by all reports in this run
+     * @param logsDir               The logs directory
+     * @param missingPropertyStates Missing property states computed for this pack
+     * @return The pack's coverage
+     */
+    public static PackCoverage processShaderBlocks(String shaderpackName, Set<String> shaderBlocks, ReportContext context, Path logsDir, List<String> missingPropertyStates) {
+        Set<String> gameBlocks = context.getGameBlocks();
+
+        // Reduce property-qualified entries to their base block
+        Set<String> processedShaderBlocks = normalizeShaderBlocks(shaderBlocks);
+
+        // Find blocks missing from the shader
+        Set<String> missingFromShader = difference(gameBlocks, processedShaderBlocks);
+
+        // Find blocks in the shader but not in the game
+        Set<String> missingFromGame = difference(processedShaderBlocks, gameBlocks);
+
+        // Create a safe filename
+        String safeName = safeFileName(shaderpackName);
+        Path comparisonPath = comparisonReportPath(logsDir, shaderpackName);
+
+        // Create categorized missing blocks
+        AnalysisEvents.Categorization categorizationEvent = AnalysisEvents.Categorization.start();
+        Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks = categorizeMissingBlocks(missingFromShader, context);
+        categorizationEvent.finish(shaderpackName, missingFromShader.size());
+
+        // Write the comparison file
+        AnalysisEvents.ReportWrite reportEvent = AnalysisEvents.ReportWrite.start();
+        writeComparisonFile(comparisonPath, shaderpackName, gameBlocks, processedShaderBlocks, missingFromShader, missingFromGame, context.getCategorizedBlocksByMod(), categorizedMissingBlocks, missingPropertyStates);
+        reportEvent.finish(shaderpackName, comparisonPath, missingFromShader.size() + missingFromGame.size() + missingPropertyStates.size());
+
+        // Write machine-readable copies if enabled
+        for (MachineReportWriter.Format format : MachineReportWriter.configuredFormats()) {
+            Path basePath = logsDir.resolve("block_comparison_" + safeName);
+            AnalysisEvents.ReportWrite machineEvent = AnalysisEvents.ReportWrite.start();
+            Path machinePath = writeMachineReport(basePath, format, gameBlocks.size(), processedShaderBlocks.size(), missingFromShader.size(), missingFromGame, categorizedMissingBlocks, missingPropertyStates);
+            if (machinePath != null) {
+                // Records the file the writer created, with its .gz suffix; finish only reads it if the event is enabled
+                machineEvent.finish(shaderpackName, machinePath, missingFromShader.size() + missingFromGame.size() + missingPropertyStates.size());
+            }
+        }
+
+        return new PackCoverage(shaderpackName, processedShaderBlocks, missingFromShader, missingFromGame, categorizedMissingBlocks, missingPropertyStates);
+    }
+
+    /**
+     * Gets the path of a pack's block_comparison report
+     *
+     * @param logsDir        The logs directory
+     * @param shaderpackName Name of the shader pack
+     * @return The report path
+     */
+    public static Path comparisonReportPath(Path logsDir, String shaderpackName) {
+        return logsDir.resolve("block_comparison_" + safeFileName(shaderpackName) + ".txt");
+    }
+
+    /**
+     * Reduces property-qualified shader entries (e.g., "minecraft:oak_log:axis=y") to their base block ID
+     *
+     * @param shaderBlocks Block identifiers from the pack, including property-qualified entries
+     * @return The distinct base block IDs
+     */
+    public static Set<String> normalizeShaderBlocks(Set<String> shaderBlocks) {
         Set<String> processedShaderBlocks = new HashSet<>();
-        // Use the passed-in blockPropertiesMap to track extracted properties
 
         // Process each shader block and handle those with properties
         for (String shaderBlock : shaderBlocks) {
@@ -31,7 +461,6 @@ public class BlockReporter {
                     BlockPropertyExtractor.ParsedBlockIdentifier parsed = BlockPropertyExtractor.parseBlockIdentifier(shaderBlock);
 
                     String blockId = parsed.blockName();
-                    Set<BlockPropertyExtractor.BlockStateProperty> properties = parsed.properties();
 
                     // Add minecraft namespace only if the block doesn't already have one
                     if (!blockId.contains(":")) {
@@ -43,11 +472,6 @@ public class BlockReporter {
 
                     // Add to processed blocks
                     processedShaderBlocks.add(blockId);
-
-                    // Store properties if any
-                    if (!properties.isEmpty()) {
-                        blockPropertiesMap.put(blockId, properties);
-                    }
                 } catch (Exception e) {
                     // If parsing fails, just add the block as is
                     processedShaderBlocks.add(shaderBlock);
@@ -58,53 +482,63 @@ public class BlockReporter {
             }
         }
 
-        // Find blocks missing from the shader
-        Set<String> missingFromShader = new HashSet<>(gameBlocks);
-        missingFromShader.removeAll(processedShaderBlocks);
+        return processedShaderBlocks;
+    }
 
-        // Find blocks in the shader but not in the game
-        Set<String> missingFromGame = new HashSet<>(processedShaderBlocks);
-        missingFromGame.removeAll(gameBlocks);
+    // Returns the elements of a that are not in b
+    static Set<String> difference(Set<String> a, Set<String> b) {
+        Set<String> result = new HashSet<>(a);
+        result.removeAll(b);
+        return result;
+    }
 
-        // Create a safe filename
-        String safeName = shaderpackName.replaceAll("[^a-zA-Z0-9.-]", "_");
-        Path comparisonPath = logsDir.resolve("block_comparison_" + safeName + ".txt");
+    // Returns the file written, or null if it could not be written
+    private static @Nullable Path writeMachineReport(Path basePath, MachineReportWriter.Format format, int gameBlockCount, int shaderBlockCount, int missingCount, Set<String> missingFromGame, Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks, List<String> missingPropertyStates) {
+        try (MachineReportWriter writer = MachineReportWriter.open(basePath, format, MachineReportWriter.isGzipEnabled())) {
+            writer.writeSummary("game_blocks", gameBlockCount);
+            writer.writeSummary("shader_blocks", shaderBlockCount);
+            writer.writeSummary("unused_blocks", missingFromGame.size());
+            writer.writeSummary("missing_blocks", missingCount);
+            writer.writeSummary("missing_property_states", missingPropertyStates.size());
 
-        // Create categorized blocks
-        Map<BlockRenderCategory, Map<String, List<String>>> categorizedBlocksByMod = getCategorizedBlocksByMod(blocksByMod);
+            for (BlockRenderCategory category : BlockRenderCategory.values()) {
+                Set<String> missingBlocks = categorizedMissingBlocks.get(category);
+                if (missingBlocks == null) {
+                    continue;
+                }
+                for (String block : new TreeSet<>(missingBlocks)) {
+                    int separator = block.indexOf(':');
+                    writer.writeMissingBlock(separator >= 0 ? block.substring(0, separator) : "minecraft", category.name(), block);
+                }
+            }
 
-        // Create categorized missing blocks
-        Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks = categorizeMissingBlocks(missingFromShader);
+            for (String block : new TreeSet<>(missingFromGame)) {
+                int separator = block.indexOf(':');
+                writer.writeUnusedBlock(separator >= 0 ? block.substring(0, separator) : "unknown", block);
+            }
 
-        // Write the comparison file
-        writeComparisonFile(comparisonPath, shaderpackName, gameBlocks, processedShaderBlocks, missingFromShader, missingFromGame, categorizedBlocksByMod, categorizedMissingBlocks, blockPropertiesMap);
+            for (String missingState : missingPropertyStates) {
+                writer.writeMissingPropertyState(missingState);
+            }
+            return writer.getPath();
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write {} report {}", format, basePath, e);
+            return null;
+        }
     }
 
-    private static void writeComparisonFile(Path outputPath, String shaderpackName, Set<String> gameBlocks, Set<String> shaderBlocks, Set<String> missingFromShader, Set<String> missingFromGame, Map<BlockRenderCategory, Map<String, List<String>>> categorizedBlocksByMod, Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks, Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> blockPropertiesMap) {
-
-        // The logs directory is the parent of the output path
-        Path logsDir = outputPath.getParent();
-        try (BufferedWriter writer = Files.newBufferedWriter(outputPath)) {
+    private static void writeComparisonFile(Path outputPath, String shaderpackName, Set<String> gameBlocks, Set<String> shaderBlocks, Set<String> missingFromShader, Set<String> missingFromGame, Map<BlockRenderCategory, Map<String, List<String>>> categorizedBlocksByMod, Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks, List<String> missingPropertyStates) {
+        try (BufferedWriter writer = newReportWriter(outputPath)) {
             writer.write("=========================================\n");
             writer.write("== BLOCK COMPARISON SUMMARY FOR " + shaderpackName.toUpperCase() + " ==\n");
             writer.write("=========================================\n");
-            writer.write(String.format("Total blocks in game: %d\n", gameBlocks.size()));
-            writer.write(String.format("Total blocks in shader: %d\n", shaderBlocks.size()));
-            writer.write(String.format("Unused blocks from shader: %d\n", missingFromGame.size()));
-            writer.write(String.format("Blocks missing from shader: %d\n\n", missingFromShader.size()));
-
-            // Find and write missing property states
-            EuphoriaCompanion.LOGGER.debug("Checking for missing property states in {} shader blocks", shaderBlocks.size());
-
-            // Check if we have a missing_property_states.txt file
-            Path missingPropertiesPath = logsDir.resolve("missing_property_states.txt");
-            if (Files.exists(missingPropertiesPath)) {
-                EuphoriaCompanion.LOGGER.debug("Using consolidated missing property states from {}", missingPropertiesPath);
-                writeMissingPropertyStatesFromFile(writer, missingPropertiesPath);
-            } else {
-                // For safety during transition, still use the old method if file not found
-                writeMissingPropertyStates(writer, shaderBlocks, blockPropertiesMap);
-            }
+            writer.write("Total blocks in game: " + gameBlocks.size() + "\n");
+            writer.write("Total blocks in shader: " + shaderBlocks.size() + "\n");
+            writer.write("Unused blocks from shader: " + missingFromGame.size() + "\n");
+            writer.write("Blocks missing from shader: " + missingFromShader.size() + "\n\n");
+
+            // Write the missing property states computed for this pack
+            writeMissingPropertyStates(writer, missingPropertyStates);
 
             // Write category counts
             writeCategoryCounts(writer, categorizedBlocksByMod);
@@ -114,7 +548,7 @@ public class BlockReporter {
             }
 
             writeMissingBlocksByCategoryAndMod(writer, categorizedMissingBlocks);
-            writeFullBlockListByCategoryAndMod(writer, categorizedBlocksByMod);
+            writeBlockInventoryReference(writer, gameBlocks.size());
             writeUnusedShaderBlocks(writer, missingFromGame);
 
             EuphoriaCompanion.LOGGER.info("Report written to {}", outputPath);
@@ -135,7 +569,7 @@ public class BlockReporter {
             }
             // Show "non_full_blocks" instead of "solid" in the report
             String displayName = category == BlockRenderCategory.SOLID ? "non_full_blocks" : category.name();
-            writer.write(String.format("%s: %d blocks\n", displayName, count));
+            writer.write(displayName + ": " + count + " blocks\n");
         }
         writer.write("\n");
     }
@@ -146,76 +580,25 @@ public class BlockReporter {
     }
 
     /**
-     * Checks for and writes any missing property states of blocks with properties
+     * Writes the missing property states of blocks with properties.
      * For example, if redstone_torch:lit=false is in the shader blocks but redstone_torch:lit=true is not,
-     * this will detect and list the missing state.
-     * <p>
-     * Uses the improved BlockPropertyRegistry to track and compare properties.
+     * the missing state is listed.
      *
-     * @param writer       BufferedWriter to write to
-     * @param shaderBlocks Set of blocks in the shader
+     * @param writer                BufferedWriter to write to
+     * @param missingPropertyStates Sorted missing property states computed for this shader pack
      * @throws IOException If an error occurs while writing
      */
-    private static void writeMissingPropertyStates(BufferedWriter writer, Set<String> shaderBlocks, Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> blockPropertiesMap) throws IOException {
-        // Use the improved BlockPropertyRegistry
-        BlockPropertyRegistry registry = BlockPropertyRegistry.getInstance(MinecraftClient.getInstance().runDirectory.toPath());
-
-        // Clear any existing data to ensure a fresh start
-        registry.clearAll();
-
-        // Process shader blocks to identify properties
-        Set<String> relevantBlocks = new HashSet<>();
-
-        // First, add blocks from blockPropertiesMap
-        for (Map.Entry<String, Set<BlockPropertyExtractor.BlockStateProperty>> entry : blockPropertiesMap.entrySet()) {
-            String baseBlockId = entry.getKey();
-            Set<BlockPropertyExtractor.BlockStateProperty> properties = entry.getValue();
-
-            if (properties.isEmpty()) {
-                continue;
-            }
-
-            // Get normalized block ID
-            if (!baseBlockId.contains(":")) {
-                baseBlockId = "minecraft:" + baseBlockId;
-            }
+    private static void writeMissingPropertyStates(BufferedWriter writer, List<String> missingPropertyStates) throws IOException {
+        EuphoriaCompanion.LOGGER.debug("Writing {} missing property states", missingPropertyStates.size());
 
-            // Register each property
-            for (BlockPropertyExtractor.BlockStateProperty prop : properties) {
-                registry.registerUsedProperty(baseBlockId, prop.name(), prop.value());
-
-                // Add reconstructed block ID with properties
-                String blockWithProps = baseBlockId + ":" + prop.name() + "=" + prop.value();
-                relevantBlocks.add(blockWithProps);
-            }
-        }
-
-        // Then add blocks with properties from shader blocks
-        for (String blockId : shaderBlocks) {
-            if (blockId.contains("=")) {
-                registry.registerBlockWithProperties(blockId);
-                relevantBlocks.add(blockId);
-            }
-        }
-
-        // No blocks with properties found
-        if (relevantBlocks.isEmpty()) {
-            return;
-        }
-
-        // Get missing property states
-        List<String> missingPropertyStates = registry.findAllMissingPropertyStates();
-
-        // Log missing property states count with debug level
-        EuphoriaCompanion.LOGGER.debug("Found {} missing property states", missingPropertyStates.size());
-
-        // Write the missing property states if any
         if (!missingPropertyStates.isEmpty()) {
             writer.write("============ MISSING PROPERTY STATES ============\n");
             writer.write("The following property states are missing from the shader:\n");
 
             for (String missingState : missingPropertyStates) {
-                writer.write(missingState + "\n");
+                writer.write("  ");
+                writer.write(missingState);
+                writer.write('\n');
             }
 
             writer.write("\n");
@@ -224,50 +607,6 @@ public class BlockReporter {
         }
     }
 
-    /**
-     * Writes missing property states from a file instead of detecting them
-     *
-     * @param writer                BufferedWriter to write to
-     * @param missingPropertiesPath Path to the file containing missing property states
-     * @throws IOException If an error occurs while reading or writing
-     */
-    private static void writeMissingPropertyStatesFromFile(BufferedWriter writer, Path missingPropertiesPath) throws IOException {
-        List<String> missingPropertyStates = new ArrayList<>();
-
-        try {
-            // Read all lines after the header (first 3 lines)
-            List<String> allLines = Files.readAllLines(missingPropertiesPath);
-            if (allLines.size() > 3) {
-                for (int i = 3; i < allLines.size(); i++) {
-                    String line = allLines.get(i).trim();
-                    if (!line.isEmpty()) {
-                        missingPropertyStates.add(line);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            EuphoriaCompanion.LOGGER.error("Error reading missing property states file: {}", e.getMessage());
-            return;
-        }
-
-        // Log how many we found
-        EuphoriaCompanion.LOGGER.info("Read {} missing property states from file", missingPropertyStates.size());
-
-        // Write them to the report
-        if (!missingPropertyStates.isEmpty()) {
-            writer.write("============ MISSING PROPERTY STATES ============\n");
-            writer.write("The following property states are missing from the shader:\n");
-
-            for (String missingState : missingPropertyStates) {
-                writer.write("  " + missingState + "\n");
-            }
-
-            writer.write("\n");
-        } else {
-            EuphoriaCompanion.LOGGER.info("No missing property states found in file");
-        }
-    }
-
     private static void writeMissingBlocksByCategoryAndMod(BufferedWriter writer, Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks) throws IOException {
         writer.write("============ MISSING BLOCKS ============\n");
 
@@ -282,10 +621,10 @@ public class BlockReporter {
             }
 
             for (String block : missingBlocks) {
-                String[] parts = block.split(":", 2);
-                if (parts.length == 2) {
-                    String modId = parts[0];
-                    String blockName = parts[1];
+                int separator = block.indexOf(':');
+                if (separator >= 0) {
+                    String modId = block.substring(0, separator);
+                    String blockName = block.substring(separator + 1);
 
                     // Create nested map structure: modId -> category -> block list
                     missingByModAndCategory.computeIfAbsent(modId, k -> new HashMap<>()).computeIfAbsent(category, k -> new ArrayList<>()).add(blockName);
@@ -318,7 +657,7 @@ public class BlockReporter {
                 writer.write("-- " + displayName + " (" + blocks.size() + ") --\n");
                 Collections.sort(blocks);
                 for (String block : blocks) {
-                    writer.write(modId + ":" + block + "\n");
+                    writeBlockLine(writer, modId, block);
                 }
                 writer.write("\n");
             }
@@ -350,95 +689,64 @@ public class BlockReporter {
             writer.write("--- " + entry.getKey() + " (" + entry.getValue().size() + ") ---\n");
             Collections.sort(entry.getValue());
             for (String block : entry.getValue()) {
-                writer.write(entry.getKey() + ":" + block + "\n");
+                writeBlockLine(writer, entry.getKey(), block);
             }
             writer.write("\n");
         }
     }
 
+    // Writes "namespace:path" without building an intermediate string
+    private static void writeBlockLine(BufferedWriter writer, String namespace, String path) throws IOException {
+        writer.write(namespace);
+        writer.write(':');
+        writer.write(path);
+        writer.write('\n');
+    }
+
+    private static void writeBlockInventoryReference(BufferedWriter writer, int blockCount) throws IOException {
+        writer.write("============ ALL BLOCKS ============\n");
+        writer.write("The full list of " + blockCount + " game blocks is in " + INVENTORY_FILENAME + "\n\n");
+    }
+
     private static void writeUnusedShaderBlocks(BufferedWriter writer, Set<String> missingFromGame) throws IOException {
         if (missingFromGame.isEmpty()) {
             return;
         }
+        writeIdsByNamespace(writer, "UNUSED SHADER BLOCKS", missingFromGame);
+    }
 
-        Map<String, List<String>> unusedByNamespace = new TreeMap<>();
-        for (String block : missingFromGame) {
-            String[] parts = block.split(":", 2);
-            if (parts.length == 2) {
-                unusedByNamespace.computeIfAbsent(parts[0], k -> new ArrayList<>()).add(parts[1]);
+    // Writes IDs under a section title, grouped by namespace
+    private static void writeIdsByNamespace(BufferedWriter writer, String title, Set<String> ids) throws IOException {
+        Map<String, List<String>> idsByNamespace = new TreeMap<>();
+        for (String id : ids) {
+            int separator = id.indexOf(':');
+            if (separator >= 0) {
+                idsByNamespace.computeIfAbsent(id.substring(0, separator), k -> new ArrayList<>()).add(id.substring(separator + 1));
             } else {
                 // Handle case where there's no namespace
-                unusedByNamespace.computeIfAbsent("unknown", k -> new ArrayList<>()).add(block);
+                idsByNamespace.computeIfAbsent("unknown", k -> new ArrayList<>()).add(id);
             }
         }
 
-        writer.write("============ UNUSED SHADER BLOCKS ============\n");
-        for (Map.Entry<String, List<String>> entry : unusedByNamespace.entrySet()) {
+        writer.write("============ " + title + " ============\n");
+        for (Map.Entry<String, List<String>> entry : idsByNamespace.entrySet()) {
             writer.write("--- " + entry.getKey() + " (" + entry.getValue().size() + ") ---\n");
             Collections.sort(entry.getValue());
             for (String block : entry.getValue()) {
-                writer.write(entry.getKey() + ":" + block + "\n");
+                writeBlockLine(writer, entry.getKey(), block);
             }
             writer.write("\n");
         }
     }
 
-    /**
-     * Categorizes blocks by their render layers and mod.
-     *
-     * @param blocksByMod Map of blocks organized by mod
-     * @return Map of render categories to maps of mods to block lists
-     */
-    private static Map<BlockRenderCategory, Map<String, List<String>>> getCategorizedBlocksByMod(Map<String, List<String>> blocksByMod) {
-        // Ensure blocks are categorized
-        if (BlockRenderHelper.getBlocksInCategory(BlockRenderCategory.SOLID).isEmpty()) {
-            BlockRenderHelper.categorizeAllBlocks();
-        }
-
-        Map<BlockRenderCategory, Map<String, List<String>>> result = new HashMap<>();
-
-        // Initialize the maps for each category
-        for (BlockRenderCategory category : BlockRenderCategory.values()) {
-            result.put(category, new TreeMap<>());
-        }
-
-        // Process each mod's blocks
-        for (Map.Entry<String, List<String>> entry : blocksByMod.entrySet()) {
-            String modId = entry.getKey();
-
-            for (String blockPath : entry.getValue()) {
-                String fullId = modId + ":" + blockPath;
-                // Split into namespace and path for 1.21.4 compatibility
-                String[] parts = fullId.split(":", 2);
-                if (parts.length == 2) {
-                    // Use getOrEmpty for 1.21.4 compatibility
-                    Optional<Block> blockOptional = Registries.BLOCK.getOrEmpty(Identifier.of(parts[0], parts[1]));
-                    if (blockOptional.isEmpty()) {
-                        continue;
-                    }
-                    Block block = blockOptional.get();
-
-                    BlockRenderCategory category = BlockRenderHelper.getRenderCategory(block);
-                    result.get(category).computeIfAbsent(modId, k -> new ArrayList<>()).add(blockPath);
-                }
-            }
-        }
-
-        return result;
-    }
-
     /**
      * Categorizes missing blocks by their render layers.
      *
      * @param missingBlocks Set of missing block identifiers
+     * @param context       Registry data shared by all reports in this run
      * @return Map of render categories to sets of missing block identifiers
      */
-    private static Map<BlockRenderCategory, Set<String>> categorizeMissingBlocks(Set<String> missingBlocks) {
-        // Ensure blocks are categorized
-        if (BlockRenderHelper.getBlocksInCategory(BlockRenderCategory.SOLID).isEmpty()) {
-            BlockRenderHelper.categorizeAllBlocks();
-        }
-
+    private static Map<BlockRenderCategory, Set<String>> categorizeMissingBlocks(Set<String> missingBlocks, ReportContext context) {
         Map<BlockRenderCategory, Set<String>> result = new HashMap<>();
 
         // Initialize sets for each category
@@ -471,34 +779,26 @@ public class BlockReporter {
                 baseBlockId = blockId;
             }
 
-            // Split into namespace and path for compatibility
-            String[] parts = baseBlockId.split(":", 2);
-            if (parts.length != 2) {
+            if (!baseBlockId.contains(":")) {
                 // Block doesn't have a namespace, add minecraft: namespace
                 baseBlockId = "minecraft:" + baseBlockId;
-                parts = baseBlockId.split(":", 2);
-                if (parts.length != 2) {
-                    continue; // Skip invalid identifiers
-                }
                 EuphoriaCompanion.LOGGER.debug("Added minecraft namespace: {}", baseBlockId);
             }
 
-            // Use getOrEmpty for compatibility
-            Optional<Block> blockOptional = Registries.BLOCK.getOrEmpty(Identifier.of(parts[0], parts[1]));
-            if (blockOptional.isEmpty()) {
+            // Use the schemas resolved once for this run
+            PropertySchema schema = context.getSchema(baseBlockId);
+            BlockRenderCategory category = context.getCategory(baseBlockId);
+            if (schema == null || category == null) {
                 continue;
             }
 
-            Block block = blockOptional.get();
-
             // If there are properties, verify the block supports them
-            if (!properties.isEmpty() && !BlockPropertyExtractor.matchesFileProperties(block, properties)) {
+            if (!properties.isEmpty() && !schema.supportsAll(properties)) {
                 EuphoriaCompanion.LOGGER.debug("Block {} doesn't support properties: {}", blockId, properties);
                 continue;
             }
 
-            // Get render category and add to result
-            BlockRenderCategory category = BlockRenderHelper.getRenderCategory(block);
+            // Add to the render category's result
             result.get(category).add(blockId);
         }
 
@@ -0,0 +1,213 @@
+package eclipse.euphoriacompanion.report;
+
+import eclipse.euphoriacompanion.util.BlockRenderCategory;
+
+import java.util.*;
+
+/**
+ * Blocks-by-packs coverage matrix built from every pack's coverage in a run.
+ * Each pack's column is a bitset over the sorted game block list, and each namespace and render
+ * category has a row mask, so cross-pack questions are answered with bitwise operations.
+ */
+public class CoverageMatrix {
+    private final List<String> blocks;
+    private final List<String> packNames;
+    private final List<BitSet> packColumns;
+    private final Map<String, BitSet> namespaceMasks;
+    private final Map<BlockRenderCategory, BitSet> categoryMasks;
+    private final BitSet coveredByAll;
+    private final BitSet coveredByAny;
+
+    private CoverageMatrix(List<String> blocks, List<String> packNames, List<BitSet> packColumns, Map<String, BitSet> namespaceMasks, Map<BlockRenderCategory, BitSet> categoryMasks) {
+        this.blocks = blocks;
+        this.packNames = packNames;
+        this.packColumns = packColumns;
+        this.namespaceMasks = namespaceMasks;
+        this.categoryMasks = categoryMasks;
+
+        coveredByAny = new BitSet(blocks.size());
+        coveredByAll = new BitSet(blocks.size());
+        coveredByAll.set(0, blocks.size());
+        for (BitSet column : packColumns) {
+            coveredByAny.or(column);
+            coveredByAll.and(column);
+        }
+    }
+
+    /**
+     * Builds the matrix from the coverage of every pack in a run
+     *
+     * @param context   Registry data shared by all reports in this run
+     * @param coverages Coverage of each pack
+     * @return The matrix
+     */
+    public static CoverageMatrix create(ReportContext context, List<PackCoverage> coverages) {
+        List<String> blocks = new ArrayList<>(context.getGameBlocks());
+        Collections.sort(blocks);
+
+        Map<String, BitSet> namespaceMasks = new TreeMap<>();
+        Map<BlockRenderCategory, BitSet> categoryMasks = new LinkedHashMap<>();
+        for (BlockRenderCategory category : BlockRenderCategory.values()) {
+            categoryMasks.put(category, new BitSet(blocks.size()));
+        }
+
+        for (int row = 0; row < blocks.size(); row++) {
+            String block = blocks.get(row);
+            int separator = block.indexOf(':');
+            namespaceMasks.computeIfAbsent(separator >= 0 ? block.substring(0, separator) : "minecraft", k -> new BitSet()).set(row);
+            BlockRenderCategory category = context.getCategory(block);
+            if (category != null) {
+                categoryMasks.get(category).set(row);
+            }
+        }
+
+        List<PackCoverage> sorted = new ArrayList<>(coverages);
+        sorted.sort(Comparator.comparing(PackCoverage::packName));
+
+        List<String> packNames = new ArrayList<>();
+        List<BitSet> packColumns = new ArrayList<>();
+        for (PackCoverage coverage : sorted) {
+            BitSet column = new BitSet(blocks.size());
+            for (int row = 0; row < blocks.size(); row++) {
+                if (!coverage.missingBlocks().contains(blocks.get(row))) {
+                    column.set(row);
+                }
+            }
+            packNames.add(coverage.packName());
+            packColumns.add(column);
+        }
+
+        return new CoverageMatrix(List.copyOf(blocks), List.copyOf(packNames), List.copyOf(packColumns), namespaceMasks, categoryMasks);
+    }
+
+    /**
+     * Gets the pack names in column order
+     */
+    public List<String> getPackNames() {
+        return packNames;
+    }
+
+    /**
+     * Gets all namespaces with at least one block, sorted
+     */
+    public Set<String> getNamespaces() {
+        return namespaceMasks.keySet();
+    }
+
+    /**
+     * Gets the total number of game blocks
+     */
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Gets the row mask of a namespace
+     *
+     * @param namespace The namespace
+     * @return Bitset of the namespace's block rows, empty if unknown
+     */
+    public BitSet namespaceMask(String namespace) {
+        BitSet mask = namespaceMasks.get(namespace);
+        return mask != null ? mask : new BitSet();
+    }
+
+    /**
+     * Gets the row mask of a render category
+     *
+     * @param category The render category
+     * @return Bitset of the category's block rows
+     */
+    public BitSet categoryMask(BlockRenderCategory category) {
+        return categoryMasks.get(category);
+    }
+
+    /**
+     * Gets the rows covered by every pack, restricted to a mask
+     */
+    public BitSet coveredByAll(BitSet mask) {
+        return and(coveredByAll, mask);
+    }
+
+    /**
+     * Gets the rows covered by at least one pack, restricted to a mask
+     */
+    public BitSet coveredByAny(BitSet mask) {
+        return and(coveredByAny, mask);
+    }
+
+    /**
+     * Gets the rows no pack covers, restricted to a mask
+     */
+    public BitSet missingInAll(BitSet mask) {
+        BitSet result = (BitSet) mask.clone();
+        result.andNot(coveredByAny);
+        return result;
+    }
+
+    /**
+     * Gets the rows at least one pack misses, restricted to a mask
+     */
+    public BitSet missingInAny(BitSet mask) {
+        BitSet result = (BitSet) mask.clone();
+        result.andNot(coveredByAll);
+        return result;
+    }
+
+    /**
+     * Counts how many rows of a mask each pack covers
+     *
+     * @param mask The rows to count
+     * @return Covered count per pack, in column order
+     */
+    public int[] coverageCounts(BitSet mask) {
+        int[] counts = new int[packColumns.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = and(packColumns.get(i), mask).cardinality();
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the name of the pack that covers the most rows of a mask
+     *
+     * @param mask The rows to count
+     * @return The best pack's name, or null if there are no packs
+     */
+    public String bestPack(BitSet mask) {
+        int[] counts = coverageCounts(mask);
+        int best = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (best < 0 || counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return best >= 0 ? packNames.get(best) : null;
+    }
+
+    /**
+     * Gets a mask covering every block
+     */
+    public BitSet allBlocks() {
+        BitSet mask = new BitSet(blocks.size());
+        mask.set(0, blocks.size());
+        return mask;
+    }
+
+    /**
+     * Converts rows to block IDs, in sorted order
+     */
+    public List<String> toBlockIds(BitSet rows) {
+        List<String> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(blocks.get(row));
+        }
+        return result;
+    }
+
+    private static BitSet and(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package eclipse.euphoriacompanion.report;
+
+import java.util.Set;
+
+/**
+ * How a dimension's block.properties override changes a pack's coverage compared to its base
+ * block.properties.
+ *
+ * @param dimension        The override's folder under shaders, e.g. "world-1"
+ * @param replacedIds      Number of block.N IDs the override maps differently from the base
+ * @param addedIds         Number of block.N IDs only the override maps
+ * @param newlyCovered     Game blocks covered in this dimension but not by the base
+ * @param noLongerCovered  Game blocks covered by the base but not in this dimension
+ * @param unknownBlocks    Blocks the override adds that are not in the game
+ */
+public record DimensionCoverage(String dimension, int replacedIds, int addedIds, Set<String> newlyCovered, Set<String> noLongerCovered, Set<String> unknownBlocks) {
+}
@@ -0,0 +1,229 @@
+package eclipse.euphoriacompanion.report;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams report records in a machine-readable format, one record per line.
+ * Records are written as they are produced, so no document tree is built in memory.
+ * <p>
+ * Enable with {@code -Deuphoriacompanion.machineFormats=ndjson,csv} and optionally
+ * {@code -Deuphoriacompanion.machineGzip=true}.
+ * <p>
+ * Every record has a {@code type}: {@code summary}, {@code missing_block}, {@code unused_block}
+ * or {@code missing_property_state}. CSV output uses one fixed column set for all record types.
+ */
+public class MachineReportWriter implements Closeable {
+    private static final String CSV_HEADER = "type,namespace,category,id,property,value,count\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Format format;
+    private final Writer writer;
+    private final Path path;
+
+    private MachineReportWriter(Format format, Writer writer, Path path) {
+        this.format = format;
+        this.writer = writer;
+        this.path = path;
+    }
+
+    /**
+     * Gets the formats enabled through system properties
+     *
+     * @return The enabled formats, empty if machine-readable output is off
+     */
+    public static Set<Format> configuredFormats() {
+        Set<Format> formats = EnumSet.noneOf(Format.class);
+        String value = System.getProperty("euphoriacompanion.machineFormats", "");
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                formats.add(Format.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                EuphoriaCompanion.LOGGER.warn("Unknown machine report format: {}", trimmed);
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Checks if machine-readable output should be gzip-compressed
+     */
+    public static boolean isGzipEnabled() {
+        return Boolean.parseBoolean(System.getProperty("euphoriacompanion.machineGzip", "false"));
+    }
+
+    /**
+     * Opens a writer for the given base path, adding the format's extension and ".gz" if compressed
+     *
+     * @param basePath Output path without extension
+     * @param format   The output format
+     * @param gzip     Whether to gzip the output
+     * @return The opened writer
+     * @throws IOException If the file cannot be created
+     */
+    public static MachineReportWriter open(Path basePath, Format format, boolean gzip) throws IOException {
+        String fileName = basePath.getFileName().toString() + format.extension + (gzip ? ".gz" : "");
+        Path path = basePath.resolveSibling(fileName);
+        OutputStream out = Files.newOutputStream(path);
+        try {
+            if (gzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+
+            MachineReportWriter reportWriter = new MachineReportWriter(format, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE), path);
+            if (format == Format.CSV) {
+                reportWriter.writer.write(CSV_HEADER);
+            }
+            return reportWriter;
+        } catch (IOException | RuntimeException e) {
+            // Closes the file, and the gzip stream around it if that was created
+            try {
+                out.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the file being written, including the format's extension and ".gz" if compressed
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes a named count, such as the number of blocks in the game
+     */
+    public void writeSummary(String name, long count) throws IOException {
+        writeRecord("summary", null, null, name, null, null, count);
+    }
+
+    /**
+     * Writes a game block that the shader pack does not cover
+     */
+    public void writeMissingBlock(String namespace, String category, String blockId) throws IOException {
+        writeRecord("missing_block", namespace, category, blockId, null, null, -1);
+    }
+
+    /**
+     * Writes a shader pack block that does not exist in the game
+     */
+    public void writeUnusedBlock(String namespace, String blockId) throws IOException {
+        writeRecord("unused_block", namespace, null, blockId, null, null, -1);
+    }
+
+    /**
+     * Writes a missing property state in the format "namespace:block:property=value"
+     */
+    public void writeMissingPropertyState(String missingState) throws IOException {
+        int equals = missingState.lastIndexOf('=');
+        int colon = equals >= 0 ? missingState.lastIndexOf(':', equals) : -1;
+        if (colon < 0) {
+            writeRecord("missing_property_state", null, null, missingState, null, null, -1);
+            return;
+        }
+
+        String blockId = missingState.substring(0, colon);
+        int namespaceEnd = blockId.indexOf(':');
+        String namespace = namespaceEnd >= 0 ? blockId.substring(0, namespaceEnd) : null;
+        writeRecord("missing_property_state", namespace, null, blockId, missingState.substring(colon + 1, equals), missingState.substring(equals + 1), -1);
+    }
+
+    private void writeRecord(String type, String namespace, String category, String id, String property, String value, long count) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write("{\"type\":\"");
+            writer.write(type);
+            writer.write('"');
+            writeJsonField("namespace", namespace);
+            writeJsonField("category", category);
+            writeJsonField("id", id);
+            writeJsonField("property", property);
+            writeJsonField("value", value);
+            if (count >= 0) {
+                writer.write(",\"count\":");
+                writer.write(Long.toString(count));
+            }
+            writer.write("}\n");
+        } else {
+            writer.write(type);
+            writeCsvField(namespace);
+            writeCsvField(category);
+            writeCsvField(id);
+            writeCsvField(property);
+            writeCsvField(value);
+            writer.write(',');
+            if (count >= 0) {
+                writer.write(Long.toString(count));
+            }
+            writer.write('\n');
+        }
+    }
+
+    private void writeJsonField(String name, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write(",\"");
+        writer.write(name);
+        writer.write("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    private void writeCsvField(String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        // RFC 4180 readers also end a record at a bare carriage return
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Supported machine-readable formats
+     */
+    public enum Format {
+        NDJSON(".ndjson"), CSV(".csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package eclipse.euphoriacompanion.report;
+
+import eclipse.euphoriacompanion.util.BlockRenderCategory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of comparing one shader pack against the game's blocks.
+ *
+ * @param packName                 The shader pack's file or directory name
+ * @param shaderBlocks             Normalized block IDs the pack lists, without property qualifiers
+ * @param missingBlocks            Game blocks the pack does not list
+ * @param unusedBlocks             Blocks the pack lists that are not in the game
+ * @param categorizedMissingBlocks Missing blocks grouped by render category
+ * @param missingPropertyStates    Sorted missing property states in the format "blockId:property=value"
+ */
+public record PackCoverage(String packName, Set<String> shaderBlocks, Set<String> missingBlocks, Set<String> unusedBlocks, Map<BlockRenderCategory, Set<String>> categorizedMissingBlocks, List<String> missingPropertyStates) {
+}
@@ -0,0 +1,26 @@
+package eclipse.euphoriacompanion.report;
+
+import java.util.Set;
+
+/**
+ * The result of comparing a shader pack's item.properties or entity.properties against the
+ * game's item or entity registry.
+ *
+ * @param registry    The registry compared, "item" or "entity"
+ * @param listedIds   Normalized IDs the pack lists
+ * @param missingIds  Registry entries the pack does not list
+ * @param unusedIds   IDs the pack lists that are not in the registry
+ */
+public record RegistryCoverage(String registry, Set<String> listedIds, Set<String> missingIds, Set<String> unusedIds) {
+    /**
+     * Compares the IDs a pack lists with a registry
+     *
+     * @param registry  The registry compared, "item" or "entity"
+     * @param gameIds   Every ID in the registry
+     * @param listedIds Normalized IDs the pack lists
+     * @return The coverage
+     */
+    public static RegistryCoverage create(String registry, Set<String> gameIds, Set<String> listedIds) {
+        return new RegistryCoverage(registry, listedIds, BlockReporter.difference(gameIds, listedIds), BlockReporter.difference(listedIds, gameIds));
+    }
+}
@@ -0,0 +1,102 @@
+package eclipse.euphoriacompanion.report;
+
+import eclipse.euphoriacompanion.util.BlockRenderCategory;
+import eclipse.euphoriacompanion.util.PropertySchema;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+
+import java.util.*;
+
+/**
+ * Registry-derived data that is identical for every shader pack in a run.
+ * Built once per run and shared read-only by all pack reports, so registry lookups and
+ * render categorization happen once per block instead of once per block per pack.
+ */
+public final class ReportContext {
+    private final RegistrySnapshot snapshot;
+    private final Map<BlockRenderCategory, Map<String, List<String>>> categorizedBlocksByMod;
+
+    private ReportContext(RegistrySnapshot snapshot, Map<BlockRenderCategory, Map<String, List<String>>> categorizedBlocksByMod) {
+        this.snapshot = snapshot;
+        this.categorizedBlocksByMod = categorizedBlocksByMod;
+    }
+
+    /**
+     * Groups every game block of the snapshot by render category and mod.
+     *
+     * @param snapshot The registry snapshot this run analyzes against
+     * @return The shared context for this run
+     */
+    public static ReportContext create(RegistrySnapshot snapshot) {
+        Map<BlockRenderCategory, Map<String, List<String>>> categorized = new HashMap<>();
+
+        // Initialize the maps for each category
+        for (BlockRenderCategory category : BlockRenderCategory.values()) {
+            categorized.put(category, new TreeMap<>());
+        }
+
+        // Process each mod's blocks, which the snapshot keeps sorted
+        for (Map.Entry<String, List<String>> entry : snapshot.getBlocksByMod().entrySet()) {
+            String modId = entry.getKey();
+
+            for (String blockPath : entry.getValue()) {
+                BlockRenderCategory category = snapshot.getCategory(modId + ":" + blockPath);
+                if (category != null) {
+                    categorized.get(category).computeIfAbsent(modId, k -> new ArrayList<>()).add(blockPath);
+                }
+            }
+        }
+
+        // Freeze the categorized view
+        Map<BlockRenderCategory, Map<String, List<String>>> frozen = new HashMap<>();
+        for (Map.Entry<BlockRenderCategory, Map<String, List<String>>> entry : categorized.entrySet()) {
+            Map<String, List<String>> byMod = new TreeMap<>();
+            for (Map.Entry<String, List<String>> modEntry : entry.getValue().entrySet()) {
+                byMod.put(modEntry.getKey(), Collections.unmodifiableList(modEntry.getValue()));
+            }
+            frozen.put(entry.getKey(), Collections.unmodifiableMap(byMod));
+        }
+
+        return new ReportContext(snapshot, Collections.unmodifiableMap(frozen));
+    }
+
+    /**
+     * Gets all block identifiers in the game
+     */
+    public Set<String> getGameBlocks() {
+        return snapshot.getGameBlocks();
+    }
+
+    /**
+     * Gets block paths organized by mod
+     */
+    public Map<String, List<String>> getBlocksByMod() {
+        return snapshot.getBlocksByMod();
+    }
+
+    /**
+     * Gets the property schema of a block
+     *
+     * @param blockId Full block ID (e.g., "minecraft:oak_fence")
+     * @return The schema, or null if the block is not registered
+     */
+    public PropertySchema getSchema(String blockId) {
+        return snapshot.getPropertyIndex().getSchema(blockId);
+    }
+
+    /**
+     * Gets the primary render category for a full identifier
+     *
+     * @param blockId Full block ID (e.g., "minecraft:oak_fence")
+     * @return The category, or null if the block is not registered
+     */
+    public BlockRenderCategory getCategory(String blockId) {
+        return snapshot.getCategory(blockId);
+    }
+
+    /**
+     * Gets all game blocks grouped by render category and then by mod, with sorted block paths
+     */
+    public Map<BlockRenderCategory, Map<String, List<String>>> getCategorizedBlocksByMod() {
+        return categorizedBlocksByMod;
+    }
+}
@@ -0,0 +1,16 @@
+package eclipse.euphoriacompanion.report;
+
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * How a shader pack's code uses the block IDs its block.properties declares.
+ *
+ * @param packName     The shader pack's file or directory name
+ * @param filesScanned Number of shader source files scanned
+ * @param declaredIds  Number of block entries mapped to each declared block.N ID
+ * @param deadIds      Declared IDs that no shader source checks
+ * @param unmappedIds  IDs the code compares against that have no blocks, with the files comparing them
+ */
+public record ShaderIdUsage(String packName, int filesScanned, SortedMap<Integer, Integer> declaredIds, SortedSet<Integer> deadIds, SortedMap<Integer, SortedSet<String>> unmappedIds) {
+}
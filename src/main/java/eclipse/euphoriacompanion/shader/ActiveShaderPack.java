@@ -0,0 +1,132 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The shader pack selected in Iris, read from {@code config/iris.properties}. Lets F6 analyze
+ * only the pack the player has loaded instead of every archived pack, and re-runs the analysis
+ * when the player switches packs.
+ */
+public final class ActiveShaderPack {
+    public static final String IRIS_CONFIG_FILENAME = "iris.properties";
+    // Set -Deuphoriacompanion.activePackOnly=false to analyze every pack on F6
+    private static final boolean ACTIVE_PACK_ONLY = Boolean.parseBoolean(System.getProperty("euphoriacompanion.activePackOnly", "true"));
+    // Name Iris gives its built-in pack, which has no files in shaderpacks
+    private static final String INTERNAL_PACK = "(internal)";
+    // The config file is only stat'ed this often, and only read when it changed
+    private static final int CHECK_INTERVAL_TICKS = 40;
+
+    private static int ticksSinceCheck = 0;
+    private static FileTime lastModified;
+    private static String lastSelected;
+    private static boolean checked = false;
+    private static boolean initialized = false;
+
+    private ActiveShaderPack() {
+    }
+
+    /**
+     * Gets the pack F6 should analyze
+     *
+     * @return The file name of the pack selected in Iris, or null to analyze every pack: when
+     * the mode is off, Iris is not installed, shaders are disabled or no pack is selected
+     */
+    public static @Nullable String getSelected() {
+        if (!ACTIVE_PACK_ONLY || !FabricLoader.getInstance().isModLoaded("iris")) {
+            return null;
+        }
+        return read(FabricLoader.getInstance().getConfigDir());
+    }
+
+    /**
+     * Reads the selected pack from Iris's config file
+     *
+     * @param configDir The game's config directory
+     * @return The file name of the selected pack, or null if shaders are disabled, no pack is
+     * selected or the file cannot be read
+     */
+    public static @Nullable String read(Path configDir) {
+        Path configFile = configDir.resolve(IRIS_CONFIG_FILENAME);
+        if (!Files.isRegularFile(configFile)) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(configFile)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            EuphoriaCompanion.LOGGER.warn("Failed to read Iris config {}", configFile, e);
+            return null;
+        }
+
+        if (!Boolean.parseBoolean(properties.getProperty("enableShaders", "true"))) {
+            return null;
+        }
+        String pack = properties.getProperty("shaderPack", "").trim();
+        return pack.isEmpty() || pack.equals(INTERNAL_PACK) ? null : pack;
+    }
+
+    /**
+     * Starts watching the Iris config, analyzing the newly selected pack when it changes while a
+     * world is loaded
+     */
+    public static void initialize() {
+        if (initialized || !ACTIVE_PACK_ONLY) {
+            return;
+        }
+
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            if (++ticksSinceCheck >= CHECK_INTERVAL_TICKS) {
+                ticksSinceCheck = 0;
+                checkForChange(client);
+            }
+        });
+
+        initialized = true;
+        EuphoriaCompanion.LOGGER.debug("Watching the Iris config for shader pack changes");
+    }
+
+    private static void checkForChange(MinecraftClient client) {
+        if (!FabricLoader.getInstance().isModLoaded("iris")) {
+            return;
+        }
+
+        Path configFile = FabricLoader.getInstance().getConfigDir().resolve(IRIS_CONFIG_FILENAME);
+        FileTime modified;
+        try {
+            modified = Files.exists(configFile) ? Files.getLastModifiedTime(configFile) : null;
+        } catch (IOException e) {
+            return;
+        }
+        boolean firstCheck = !checked;
+        checked = true;
+        if (!firstCheck && Objects.equals(modified, lastModified)) {
+            return;
+        }
+        lastModified = modified;
+
+        String selected = read(configFile.getParent());
+        if (Objects.equals(selected, lastSelected)) {
+            return;
+        }
+        lastSelected = selected;
+
+        // The first read only records the selection, joining a world analyzes it anyway
+        if (!firstCheck && selected != null && client.world != null) {
+            EuphoriaCompanion.LOGGER.info("Selected shader pack changed to {}, analyzing it", selected);
+            EuphoriaCompanion.processShaderPacks();
+        }
+    }
+}
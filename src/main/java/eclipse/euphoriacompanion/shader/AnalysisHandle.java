@@ -0,0 +1,159 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.Phase;
+import eclipse.euphoriacompanion.perf.PhaseMetrics;
+import eclipse.euphoriacompanion.report.PackCoverage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One requested shader pack analysis: its result, its progress and a way to cancel it.
+ * <p>
+ * Cancellation is cooperative. The analysis checks {@link #checkCancelled()} between packs and
+ * before each step, so a cancelled run stops after the step in progress, and its result future is
+ * cancelled. Reports written before that point are left as they are.
+ */
+public final class AnalysisHandle {
+    private final CompletableFuture<List<PackCoverage>> result = new CompletableFuture<>();
+    @Nullable
+    private final String packName;
+    @Nullable
+    private final ProgressListener listener;
+    private volatile PhaseMetrics metrics;
+    private volatile boolean cancelled;
+    private volatile Phase phase;
+    private volatile int completed;
+    private volatile int total;
+
+    /**
+     * Receives progress updates. May be called from any analysis thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param phase     The phase being worked on
+         * @param completed Items of the phase done so far, e.g. packs parsed
+         * @param total     Items in the phase
+         */
+        void onProgress(Phase phase, int completed, int total);
+    }
+
+    public AnalysisHandle(@Nullable ProgressListener listener) {
+        this(null, listener);
+    }
+
+    /**
+     * @param packName The only pack to analyze, or null for every pack
+     * @param listener Receives progress updates, or null
+     */
+    public AnalysisHandle(@Nullable String packName, @Nullable ProgressListener listener) {
+        this.packName = packName;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the file name of the only pack this run analyzes, or null if it analyzes every pack
+     */
+    public @Nullable String getPackName() {
+        return packName;
+    }
+
+    /**
+     * Whether this run's reports also answer a request for the given pack
+     *
+     * @param requestedPack The requested pack, or null for every pack
+     */
+    public boolean covers(@Nullable String requestedPack) {
+        return packName == null || packName.equals(requestedPack);
+    }
+
+    /**
+     * Gets the future completed with each pack's coverage, or cancelled with the run
+     */
+    public CompletableFuture<List<PackCoverage>> getResult() {
+        return result;
+    }
+
+    /**
+     * Asks the analysis to stop at its next check
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the calling step if the analysis was cancelled
+     *
+     * @throws CancellationException If {@link #cancel()} was called
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Shader pack analysis cancelled");
+        }
+    }
+
+    /**
+     * Gets the metrics of this run, starting them on first use so queued runs don't count the
+     * run before them
+     */
+    public PhaseMetrics getMetrics() {
+        PhaseMetrics current = metrics;
+        if (current == null) {
+            synchronized (this) {
+                if (metrics == null) {
+                    metrics = new PhaseMetrics();
+                }
+                current = metrics;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the phase last reported, or null if the analysis has not started
+     */
+    public @Nullable Phase getPhase() {
+        return phase;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    void reportProgress(Phase phase, int completed, int total) {
+        this.phase = phase;
+        this.completed = completed;
+        this.total = total;
+        if (listener != null) {
+            try {
+                listener.onProgress(phase, completed, total);
+            } catch (RuntimeException e) {
+                EuphoriaCompanion.LOGGER.error("Analysis progress listener failed", e);
+            }
+        }
+    }
+
+    void complete(List<PackCoverage> coverages) {
+        result.complete(coverages);
+    }
+
+    void fail(Throwable e) {
+        if (e instanceof CancellationException) {
+            result.cancel(false);
+        } else {
+            result.completeExceptionally(e);
+        }
+    }
+}
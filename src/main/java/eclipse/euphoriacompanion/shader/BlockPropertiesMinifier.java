@@ -0,0 +1,364 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.util.GamePropertyIndex;
+import eclipse.euphoriacompanion.util.PropertySchema;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites a block.properties file into a smaller one that maps the same block states to the
+ * same IDs, so Iris has fewer entries to parse and match when the pack loads.
+ * <p>
+ * Each line is minified on its own: duplicate entries are removed, property-qualified entries
+ * that together cover every state of a block are collapsed into the plain block, and entries
+ * whose states other entries on the line already cover are dropped. Continued lines are joined
+ * the way the analysis joins them, see {@link PropertiesLineJoiner}, comments and blank lines are
+ * removed, and preprocessor directives are kept as they are.
+ * <p>
+ * Every rewritten line is checked against the game's block states: if the states it matches
+ * differ from the original line's in any way, the original line is kept.
+ */
+public final class BlockPropertiesMinifier {
+    private static final Pattern DIRECTIVE = Pattern.compile("#\\s*(if|ifdef|ifndef|elif|else|endif|define|undef|include)\\b.*");
+    // Blocks with more states are only deduplicated, enumerating them costs more than it saves
+    private static final int MAX_STATES = 4096;
+
+    private BlockPropertiesMinifier() {
+    }
+
+    /**
+     * The minified file
+     *
+     * @param lines           Lines of the minified file
+     * @param entriesBefore   Number of entries in the original file
+     * @param entriesAfter    Number of entries in the minified file
+     * @param blocksCollapsed Number of times property-qualified entries were collapsed into a plain block
+     * @param linesKept       Number of lines kept as they were because their minified form did not verify
+     */
+    public record Result(List<String> lines, int entriesBefore, int entriesAfter, int blocksCollapsed, int linesKept) {
+    }
+
+    /**
+     * Minifies a block.properties file
+     *
+     * @param propertiesPath The file, on the default or a ZIP file system
+     * @param index          The game's block states
+     * @return The minified file
+     * @throws IOException If the file cannot be read
+     */
+    public static Result minify(Path propertiesPath, GamePropertyIndex index) throws IOException {
+        Minifier minifier = new Minifier(index);
+        try (BufferedReader reader = Files.newBufferedReader(propertiesPath)) {
+            // Lines are joined as the analysis joins them, so the minified file keeps the entries it reads
+            PropertiesLineJoiner joiner = new PropertiesLineJoiner();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if (PropertiesLineJoiner.isConditional(line)) {
+                    minifier.lines.add(line);
+                    continue;
+                }
+
+                String fullLine = joiner.accept(line);
+                if (fullLine != null) {
+                    minifier.accept(fullLine);
+                } else if (DIRECTIVE.matcher(line).matches()) {
+                    minifier.lines.add(line);
+                }
+            }
+        }
+        return new Result(minifier.lines, minifier.entriesBefore, minifier.entriesAfter, minifier.blocksCollapsed, minifier.linesKept);
+    }
+
+    /**
+     * Minifies the lines of one file and counts what changed
+     */
+    private static final class Minifier {
+        private final GamePropertyIndex index;
+        private final List<String> lines = new ArrayList<>();
+        private int entriesBefore;
+        private int entriesAfter;
+        private int blocksCollapsed;
+        private int linesKept;
+
+        Minifier(GamePropertyIndex index) {
+            this.index = index;
+        }
+
+        void accept(String fullLine) {
+            int equals = fullLine.indexOf('=');
+            String key = equals > 0 ? fullLine.substring(0, equals).trim() : "";
+            // Keys naming a block state are the old block-first format, which is left alone
+            if (key.isEmpty() || key.contains(":")) {
+                lines.add(fullLine);
+                return;
+            }
+
+            String values = fullLine.substring(equals + 1).trim();
+            List<String> entries = values.isEmpty() ? List.of() : List.of(values.split("\\s+"));
+            int collapsedBefore = blocksCollapsed;
+            List<String> minified = minifyEntries(entries);
+
+            if (!matchedStates(minified).equals(matchedStates(entries))) {
+                blocksCollapsed = collapsedBefore;
+                linesKept++;
+                minified = entries;
+            }
+            entriesBefore += entries.size();
+            entriesAfter += minified.size();
+            lines.add(key + "=" + String.join(" ", minified));
+        }
+
+        private List<String> minifyEntries(List<String> entries) {
+            // Entries that are not game blocks are kept in place, known blocks are minified per block
+            List<Object> slots = new ArrayList<>();
+            Set<String> literals = new HashSet<>();
+            Map<String, List<Entry>> blocks = new HashMap<>();
+            Set<String> canonical = new HashSet<>();
+
+            for (String text : entries) {
+                Entry entry = Entry.parse(text);
+                if (entry == null || index.getSchema(entry.block) == null) {
+                    if (literals.add(text)) {
+                        slots.add(text);
+                    }
+                    continue;
+                }
+                if (!canonical.add(entry.canonical())) {
+                    continue;
+                }
+                List<Entry> blockEntries = blocks.get(entry.block);
+                if (blockEntries == null) {
+                    blockEntries = new ArrayList<>();
+                    blocks.put(entry.block, blockEntries);
+                    slots.add(blockEntries);
+                }
+                blockEntries.add(entry);
+            }
+
+            List<String> minified = new ArrayList<>();
+            for (Object slot : slots) {
+                if (slot instanceof String text) {
+                    minified.add(text);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    List<Entry> blockEntries = (List<Entry>) slot;
+                    minifyBlock(blockEntries, minified);
+                }
+            }
+            return minified;
+        }
+
+        private void minifyBlock(List<Entry> entries, List<String> minified) {
+            for (Entry entry : entries) {
+                if (entry.conditions.isEmpty()) {
+                    // The plain block already matches every state
+                    minified.add(entry.text);
+                    return;
+                }
+            }
+
+            PropertySchema schema = index.getSchema(entries.get(0).block);
+            if (schema.stateCount() > MAX_STATES) {
+                for (Entry entry : entries) {
+                    minified.add(entry.text);
+                }
+                return;
+            }
+
+            List<BitSet> states = new ArrayList<>(entries.size());
+            BitSet union = new BitSet();
+            for (Entry entry : entries) {
+                BitSet entryStates = matchingStates(schema, entry.conditions);
+                states.add(entryStates);
+                if (entryStates != null) {
+                    union.or(entryStates);
+                }
+            }
+            if (union.cardinality() == schema.stateCount()) {
+                minified.add(entries.get(0).name);
+                blocksCollapsed++;
+                return;
+            }
+
+            // Drop entries whose states the entries still kept match, in file order
+            boolean[] dropped = new boolean[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                if (states.get(i) == null) {
+                    continue;
+                }
+                BitSet others = new BitSet();
+                for (int j = 0; j < entries.size(); j++) {
+                    if (j != i && !dropped[j] && states.get(j) != null) {
+                        others.or(states.get(j));
+                    }
+                }
+                BitSet uncovered = (BitSet) states.get(i).clone();
+                uncovered.andNot(others);
+                dropped[i] = uncovered.isEmpty();
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                if (!dropped[i]) {
+                    minified.add(entries.get(i).text);
+                }
+            }
+        }
+
+        // Describes what a line matches in this game: the states of each known block, and every other entry as written
+        private Set<String> matchedStates(List<String> entries) {
+            Set<String> matched = new HashSet<>();
+            Map<String, List<Entry>> blocks = new HashMap<>();
+            for (String text : entries) {
+                Entry entry = Entry.parse(text);
+                if (entry == null || index.getSchema(entry.block) == null) {
+                    matched.add("=" + text);
+                } else {
+                    blocks.computeIfAbsent(entry.block, k -> new ArrayList<>()).add(entry);
+                }
+            }
+
+            for (Map.Entry<String, List<Entry>> block : blocks.entrySet()) {
+                PropertySchema schema = index.getSchema(block.getKey());
+                boolean enumerable = schema.stateCount() <= MAX_STATES;
+                List<BitSet> states = new ArrayList<>();
+                BitSet union = new BitSet();
+                boolean all = false;
+                for (Entry entry : block.getValue()) {
+                    all |= entry.conditions.isEmpty();
+                    BitSet entryStates = enumerable ? matchingStates(schema, entry.conditions) : null;
+                    states.add(entryStates);
+                    if (entryStates != null) {
+                        union.or(entryStates);
+                    }
+                }
+                if (all || (enumerable && union.cardinality() == schema.stateCount())) {
+                    matched.add(block.getKey() + "#*");
+                    continue;
+                }
+                for (int i = 0; i < states.size(); i++) {
+                    BitSet entryStates = states.get(i);
+                    if (entryStates == null) {
+                        matched.add(block.getValue().get(i).canonical());
+                    } else {
+                        for (int state = entryStates.nextSetBit(0); state >= 0; state = entryStates.nextSetBit(state + 1)) {
+                            matched.add(block.getKey() + "#" + state);
+                        }
+                    }
+                }
+            }
+            return matched;
+        }
+    }
+
+    /**
+     * Finds the states of a block an entry's conditions match. States are numbered by their
+     * values in sorted property and value order.
+     *
+     * @return The matched states, or null if a condition names a property or value the block does not have
+     */
+    private static @Nullable BitSet matchingStates(PropertySchema schema, Map<String, ? extends Set<String>> conditions) {
+        for (Map.Entry<String, ? extends Set<String>> condition : conditions.entrySet()) {
+            Set<String> values = schema.properties().get(condition.getKey());
+            if (values == null || !values.containsAll(condition.getValue())) {
+                return null;
+            }
+        }
+
+        List<String> names = new ArrayList<>(new TreeSet<>(schema.properties().keySet()));
+        List<List<String>> values = new ArrayList<>(names.size());
+        for (String name : names) {
+            List<String> sorted = new ArrayList<>(new TreeSet<>(schema.properties().get(name)));
+            if (sorted.isEmpty()) {
+                return null;
+            }
+            values.add(sorted);
+        }
+
+        int stateCount = (int) schema.stateCount();
+        BitSet states = new BitSet(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            int rest = state;
+            boolean matches = true;
+            for (int i = 0; i < names.size() && matches; i++) {
+                List<String> propertyValues = values.get(i);
+                Set<String> allowed = conditions.get(names.get(i));
+                matches = allowed == null || allowed.contains(propertyValues.get(rest % propertyValues.size()));
+                rest /= propertyValues.size();
+            }
+            if (matches) {
+                states.set(state);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * One block entry, such as "minecraft:furnace:lit=true" or "oak_stairs:half=top,bottom"
+     */
+    private static final class Entry {
+        final String text;
+        // Block ID with namespace
+        final String block;
+        // Block name as written, with or without namespace
+        final String name;
+        // Allowed values of each property, in sorted order
+        final SortedMap<String, SortedSet<String>> conditions;
+
+        private Entry(String text, String block, String name, SortedMap<String, SortedSet<String>> conditions) {
+            this.text = text;
+            this.block = block;
+            this.name = name;
+            this.conditions = conditions;
+        }
+
+        /**
+         * @return The entry, or null for tags and anything that is not a block with optional properties
+         */
+        static @Nullable Entry parse(String text) {
+            if (text.startsWith("tags_")) {
+                return null;
+            }
+            String[] segments = text.split(":");
+            int nameEnd = 0;
+            while (nameEnd < segments.length && segments[nameEnd].indexOf('=') < 0) {
+                nameEnd++;
+            }
+            if (nameEnd == 0 || nameEnd > 2 || segments[0].isEmpty()) {
+                return null;
+            }
+
+            SortedMap<String, SortedSet<String>> conditions = new TreeMap<>();
+            for (int i = nameEnd; i < segments.length; i++) {
+                int equals = segments[i].indexOf('=');
+                if (equals <= 0 || conditions.containsKey(segments[i].substring(0, equals))) {
+                    return null;
+                }
+                SortedSet<String> values = new TreeSet<>();
+                for (String value : segments[i].substring(equals + 1).split(",")) {
+                    if (!value.isEmpty()) {
+                        values.add(value.toLowerCase(Locale.ROOT));
+                    }
+                }
+                if (values.isEmpty()) {
+                    return null;
+                }
+                conditions.put(segments[i].substring(0, equals), values);
+            }
+
+            String name = nameEnd == 1 ? segments[0] : segments[0] + ":" + segments[1];
+            String block = nameEnd == 1 ? "minecraft:" + segments[0] : name;
+            return new Entry(text, block, name, conditions);
+        }
+
+        String canonical() {
+            return block + conditions;
+        }
+    }
+}
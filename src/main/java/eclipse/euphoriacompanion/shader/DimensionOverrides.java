@@ -0,0 +1,134 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.report.BlockReporter;
+import eclipse.euphoriacompanion.report.DimensionCoverage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Compares the dimension overrides of a pack's block.properties, such as
+ * {@code shaders/world-1/block.properties} for the Nether, with its base file.
+ * <p>
+ * An override only adds or replaces its own block.N entries, so it is analyzed as a delta: the
+ * base is indexed once per pack, and each dimension only costs the entries its override maps
+ * and the base entries they replace.
+ */
+final class DimensionOverrides {
+    private static final String OVERRIDE_FILENAME = "block.properties";
+
+    // Base block IDs listed under each block.N key
+    private final Map<String, Set<String>> baseBlocksByKey = new HashMap<>();
+    // Number of base keys listing each block ID
+    private final Map<String, Integer> baseKeyCounts = new HashMap<>();
+
+    /**
+     * @param baseEntriesByKey Entries of the base block.properties under each block.N key
+     */
+    DimensionOverrides(Map<String, Set<String>> baseEntriesByKey) {
+        for (Map.Entry<String, Set<String>> entry : baseEntriesByKey.entrySet()) {
+            Set<String> blocks = BlockReporter.normalizeShaderBlocks(entry.getValue());
+            baseBlocksByKey.put(entry.getKey(), blocks);
+            for (String block : blocks) {
+                baseKeyCounts.merge(block, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Finds the folders under shaders that override block.properties
+     *
+     * @param source The pack
+     * @return The folder names, sorted, or an empty list if the pack has none
+     */
+    static List<String> find(PackSource source) {
+        Path shadersDir = source.resolve("shaders");
+        if (!Files.isDirectory(shadersDir)) {
+            return List.of();
+        }
+
+        List<String> dimensions = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(shadersDir, Files::isDirectory)) {
+            for (Path dir : stream) {
+                if (Files.isRegularFile(dir.resolve(OVERRIDE_FILENAME))) {
+                    // Directories listed from a ZIP keep their trailing slash
+                    String name = dir.getFileName().toString();
+                    dimensions.add(name.endsWith("/") ? name.substring(0, name.length() - 1) : name);
+                }
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.warn("Failed to list dimension overrides in {}", shadersDir, e);
+            return List.of();
+        }
+        Collections.sort(dimensions);
+        return dimensions;
+    }
+
+    /**
+     * Gets the path of a dimension's block.properties inside the pack
+     */
+    static String overridePath(String dimension) {
+        return "shaders/" + dimension + "/" + OVERRIDE_FILENAME;
+    }
+
+    /**
+     * Compares one dimension's override with the base
+     *
+     * @param dimension            The override's folder name
+     * @param overrideEntriesByKey Entries of the override under each block.N key
+     * @param gameBlocks           Every block in the game
+     * @return How the dimension's coverage differs from the base
+     */
+    DimensionCoverage compare(String dimension, Map<String, Set<String>> overrideEntriesByKey, Set<String> gameBlocks) {
+        Set<String> overrideBlocks = new HashSet<>();
+        // Number of replaced keys that listed each base block
+        Map<String, Integer> released = new HashMap<>();
+        int replacedIds = 0;
+        int addedIds = 0;
+
+        for (Map.Entry<String, Set<String>> entry : overrideEntriesByKey.entrySet()) {
+            Set<String> blocks = BlockReporter.normalizeShaderBlocks(entry.getValue());
+            overrideBlocks.addAll(blocks);
+
+            Set<String> baseBlocks = baseBlocksByKey.get(entry.getKey());
+            if (baseBlocks == null) {
+                addedIds++;
+                continue;
+            }
+            if (!baseBlocks.equals(blocks)) {
+                replacedIds++;
+            }
+            for (String block : baseBlocks) {
+                released.merge(block, 1, Integer::sum);
+            }
+        }
+
+        // A base block is lost if every key listing it was replaced and the override does not list it again
+        Set<String> noLongerCovered = new TreeSet<>();
+        for (Map.Entry<String, Integer> entry : released.entrySet()) {
+            String block = entry.getKey();
+            if (baseKeyCounts.get(block) - entry.getValue() == 0 && !overrideBlocks.contains(block) && gameBlocks.contains(block)) {
+                noLongerCovered.add(block);
+            }
+        }
+
+        Set<String> newlyCovered = new TreeSet<>();
+        Set<String> unknownBlocks = new TreeSet<>();
+        for (String block : overrideBlocks) {
+            if (baseKeyCounts.containsKey(block)) {
+                continue;
+            }
+            if (gameBlocks.contains(block)) {
+                newlyCovered.add(block);
+            } else {
+                unknownBlocks.add(block);
+            }
+        }
+
+        return new DimensionCoverage(dimension, replacedIds, addedIds, newlyCovered, noLongerCovered, unknownBlocks);
+    }
+}
@@ -0,0 +1,60 @@
+package eclipse.euphoriacompanion.shader;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The files of one shader pack, whether it is a directory or a ZIP. A ZIP is opened once, so
+ * every file the analysis needs from a pack is read through the same file system.
+ */
+final class PackSource implements Closeable {
+    static final String BLOCK_PROPERTIES = "shaders/block.properties";
+    static final String ITEM_PROPERTIES = "shaders/item.properties";
+    static final String ENTITY_PROPERTIES = "shaders/entity.properties";
+
+    private final Path root;
+    @Nullable
+    private final FileSystem zipFs;
+
+    private PackSource(Path root, @Nullable FileSystem zipFs) {
+        this.root = root;
+        this.zipFs = zipFs;
+    }
+
+    /**
+     * Opens a shader pack
+     *
+     * @param shaderpackPath The pack's directory or ZIP file
+     * @return The pack's files, to be closed when done
+     * @throws IOException If the ZIP cannot be opened
+     */
+    static PackSource open(Path shaderpackPath) throws IOException {
+        if (Files.isDirectory(shaderpackPath)) {
+            return new PackSource(shaderpackPath, null);
+        }
+        FileSystem zipFs = FileSystems.newFileSystem(shaderpackPath, (ClassLoader) null);
+        return new PackSource(zipFs.getPath("/"), zipFs);
+    }
+
+    /**
+     * Resolves a path inside the pack
+     *
+     * @param relativePath Path from the pack's root, e.g. "shaders/block.properties"
+     */
+    Path resolve(String relativePath) {
+        return root.resolve(relativePath);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (zipFs != null) {
+            zipFs.close();
+        }
+    }
+}
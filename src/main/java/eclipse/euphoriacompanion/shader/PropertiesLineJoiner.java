@@ -0,0 +1,59 @@
+package eclipse.euphoriacompanion.shader;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Joins the continued lines of a shader pack properties file into logical lines, the same way
+ * for the analysis and the minifier, so both see the same entries.
+ * <p>
+ * A line ending in a backslash continues on the next one. A blank line or a comment drops the
+ * line being continued, and so does a line the analysis skips for an inactive #if branch.
+ * {@code #if}, {@code #else} and {@code #endif} lines are evaluated by the caller and do not
+ * end a continued line.
+ */
+final class PropertiesLineJoiner {
+    private final StringBuilder currentLine = new StringBuilder();
+
+    /**
+     * Whether a trimmed line is an #if, #else or #endif directive, which the caller handles
+     * before passing lines on
+     */
+    static boolean isConditional(String line) {
+        return line.startsWith("#if ") || line.equals("#else") || line.equals("#endif");
+    }
+
+    /**
+     * Adds the next line of the file
+     *
+     * @param line The line, trimmed
+     * @return The complete logical line, trimmed, or null if the line is continued, blank or a comment
+     */
+    @Nullable String accept(String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            currentLine.setLength(0);
+            return null;
+        }
+        if (line.endsWith("\\")) {
+            currentLine.append(line, 0, line.length() - 1).append(' ');
+            return null;
+        }
+        currentLine.append(line);
+        String fullLine = currentLine.toString().trim();
+        currentLine.setLength(0);
+        return fullLine;
+    }
+
+    /**
+     * Drops the line being continued, if any
+     */
+    void discard() {
+        currentLine.setLength(0);
+    }
+
+    /**
+     * Whether a line is being continued
+     */
+    boolean isContinuing() {
+        return !currentLine.isEmpty();
+    }
+}
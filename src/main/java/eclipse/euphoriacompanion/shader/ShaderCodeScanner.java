@@ -0,0 +1,365 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.AnalysisCounters;
+import eclipse.euphoriacompanion.report.ShaderIdUsage;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Finds which block IDs a shader pack's code checks, to report IDs mapped in block.properties
+ * that no program branches on, and IDs the code compares against that have no blocks.
+ * <p>
+ * Every source file is tokenized in one streaming pass on the analysis pool. Integer literals
+ * are looked up in the set of declared IDs, comments are skipped, and the operator around each
+ * literal decides whether it is an equality check, a case label or the bound of a range check.
+ */
+public final class ShaderCodeScanner {
+    private static final List<String> SOURCE_EXTENSIONS = List.of(".glsl", ".vsh", ".fsh", ".gsh", ".csh");
+    // Wider ranges are category tests such as "any block ID", not checks of the IDs inside them
+    private static final int MAX_RANGE_WIDTH = 64;
+    private static final int BUFFER_SIZE = 8192;
+
+    private ShaderCodeScanner() {
+    }
+
+    /**
+     * Scans the shader sources of a pack
+     *
+     * @param packName    The shader pack's file or directory name
+     * @param shadersDir  The pack's shaders directory, on the default or a ZIP file system
+     * @param declaredIds Number of block entries mapped to each declared block.N ID
+     * @param otherIds    IDs declared in item.properties or entity.properties, never reported as unmapped
+     * @param executor    Runs the per-file scans
+     * @return How the code uses the declared IDs
+     * @throws IOException If the shaders directory cannot be listed
+     */
+    public static ShaderIdUsage scan(String packName, Path shadersDir, Map<Integer, Integer> declaredIds, Set<Integer> otherIds, Executor executor) throws IOException {
+        List<Path> sources;
+        try (Stream<Path> walk = Files.walk(shadersDir)) {
+            sources = walk.filter(ShaderCodeScanner::isShaderSource).sorted().toList();
+        }
+
+        Set<Integer> declared = declaredIds.keySet();
+        List<CompletableFuture<FileIds>> futures = new ArrayList<>(sources.size());
+        for (Path source : sources) {
+            futures.add(CompletableFuture.supplyAsync(() -> scanFile(source, declared), executor));
+        }
+
+        // Merge in source order so the report does not depend on scheduling
+        NavigableSet<Integer> sortedDeclared = new TreeSet<>(declared);
+        Set<Integer> used = new HashSet<>();
+        SortedMap<Integer, SortedSet<String>> compared = new TreeMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            FileIds ids = futures.get(i).join();
+            used.addAll(ids.matched);
+            for (int[] range : ids.ranges) {
+                used.addAll(sortedDeclared.subSet(range[0], true, range[1], true));
+            }
+            String file = shadersDir.relativize(sources.get(i)).toString().replace('\\', '/');
+            for (Integer id : ids.compared) {
+                compared.computeIfAbsent(id, k -> new TreeSet<>()).add(file);
+            }
+        }
+
+        SortedSet<Integer> deadIds = new TreeSet<>(sortedDeclared);
+        deadIds.removeAll(used);
+
+        // Only values in the span of the declared IDs; smaller ones are loop counters and flags
+        SortedMap<Integer, SortedSet<String>> unmappedIds = new TreeMap<>();
+        if (!sortedDeclared.isEmpty()) {
+            int min = sortedDeclared.first();
+            int max = sortedDeclared.last();
+            for (Map.Entry<Integer, SortedSet<String>> entry : compared.entrySet()) {
+                int id = entry.getKey();
+                if (id >= min && id <= max && !declared.contains(id) && !otherIds.contains(id)) {
+                    unmappedIds.put(id, entry.getValue());
+                }
+            }
+        }
+
+        return new ShaderIdUsage(packName, sources.size(), new TreeMap<>(declaredIds), deadIds, unmappedIds);
+    }
+
+    private static boolean isShaderSource(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null || !Files.isRegularFile(path)) {
+            return false;
+        }
+        String name = fileName.toString().toLowerCase(Locale.ROOT);
+        for (String extension : SOURCE_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static FileIds scanFile(Path source, Set<Integer> declared) {
+        Tokenizer tokenizer = new Tokenizer(declared);
+        long charsRead = 0;
+        // Latin-1 maps every byte to a char, so sources in any encoding are read without errors
+        try (Reader reader = new InputStreamReader(Files.newInputStream(source), StandardCharsets.ISO_8859_1)) {
+            char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    tokenizer.accept(buffer[i]);
+                }
+                charsRead += read;
+            }
+            tokenizer.accept('\n');
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.warn("Failed to read shader source {}", source, e);
+        }
+        AnalysisCounters.recordFileRead(charsRead);
+        return tokenizer.ids;
+    }
+
+    /**
+     * IDs found in one source file
+     */
+    private static final class FileIds {
+        // Declared IDs appearing anywhere in the code, including #define values
+        final Set<Integer> matched = new HashSet<>();
+        // Values compared with == or != or used as case labels
+        final Set<Integer> compared = new HashSet<>();
+        // Inclusive [low, high] bounds of range checks
+        final List<int[]> ranges = new ArrayList<>();
+    }
+
+    private enum Op {
+        NONE, OTHER, EQUALITY, CASE, LESS, LESS_EQUAL, GREATER, GREATER_EQUAL
+    }
+
+    /**
+     * Streaming GLSL tokenizer that only keeps track of what it needs around integer literals
+     */
+    private static final class Tokenizer {
+        private static final int CODE = 0;
+        private static final int IDENTIFIER = 1;
+        private static final int NUMBER = 2;
+        private static final int LINE_COMMENT = 3;
+        private static final int BLOCK_COMMENT = 4;
+
+        private final Set<Integer> declared;
+        private final FileIds ids = new FileIds();
+        private final StringBuilder token = new StringBuilder();
+        private int state = CODE;
+        // First character of a possible two-character operator or comment start
+        private char pending;
+        private boolean blockCommentStar;
+        private boolean lineStart = true;
+        private boolean inDirective;
+        // Operator before the current token
+        private Op previous = Op.NONE;
+        // Literal waiting for the operator after it, for checks written as "10001 == mat"
+        private boolean hasLiteral;
+        private int literal;
+        // Range bound waiting for its other end in the same statement
+        private boolean hasLower;
+        private int lower;
+        private boolean hasUpper;
+        private int upper;
+
+        Tokenizer(Set<Integer> declared) {
+            this.declared = declared;
+        }
+
+        void accept(char c) {
+            switch (state) {
+                case LINE_COMMENT -> {
+                    if (c == '\n') {
+                        state = CODE;
+                        endLine();
+                    }
+                    return;
+                }
+                case BLOCK_COMMENT -> {
+                    if (blockCommentStar && c == '/') {
+                        state = CODE;
+                    }
+                    blockCommentStar = c == '*';
+                    return;
+                }
+                case IDENTIFIER -> {
+                    if (isIdentifierPart(c)) {
+                        token.append(c);
+                        return;
+                    }
+                    endIdentifier();
+                    state = CODE;
+                }
+                case NUMBER -> {
+                    if (isIdentifierPart(c) || c == '.') {
+                        token.append(c);
+                        return;
+                    }
+                    endNumber();
+                    state = CODE;
+                }
+                default -> {
+                }
+            }
+
+            if (pending != 0) {
+                char first = pending;
+                pending = 0;
+                if (first == '/' && (c == '/' || c == '*')) {
+                    state = c == '/' ? LINE_COMMENT : BLOCK_COMMENT;
+                    blockCommentStar = false;
+                    return;
+                }
+                if (c == '=') {
+                    operator(switch (first) {
+                        case '=', '!' -> Op.EQUALITY;
+                        case '<' -> Op.LESS_EQUAL;
+                        case '>' -> Op.GREATER_EQUAL;
+                        default -> Op.OTHER;
+                    });
+                    return;
+                }
+                if ((first == '<' || first == '>') && c == first) {
+                    // Shift operator
+                    operator(Op.OTHER);
+                    return;
+                }
+                operator(first == '<' ? Op.LESS : first == '>' ? Op.GREATER : Op.OTHER);
+            }
+
+            if (c == '/' || c == '=' || c == '!' || c == '<' || c == '>') {
+                pending = c;
+                lineStart = false;
+            } else if (c == '\n') {
+                endLine();
+            } else if (Character.isWhitespace(c)) {
+                // Separates tokens without changing the context
+            } else if (isIdentifierPart(c)) {
+                state = c >= '0' && c <= '9' ? NUMBER : IDENTIFIER;
+                token.setLength(0);
+                token.append(c);
+                lineStart = false;
+            } else if (c == '#' && lineStart) {
+                inDirective = true;
+                lineStart = false;
+            } else if (c == ';' || c == '{' || c == '}') {
+                endStatement();
+                lineStart = false;
+            } else {
+                operator(Op.OTHER);
+                lineStart = false;
+            }
+        }
+
+        private static boolean isIdentifierPart(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+        }
+
+        private void endIdentifier() {
+            previous = token.toString().equals("case") ? Op.CASE : Op.NONE;
+            hasLiteral = false;
+        }
+
+        private void endNumber() {
+            int length = token.length();
+            if (length > 0 && (token.charAt(length - 1) == 'u' || token.charAt(length - 1) == 'U')) {
+                length--;
+            }
+            // Floats, hex and values too large for a block ID are not IDs
+            boolean integer = length > 0 && length <= 9 && (length == 1 || token.charAt(0) != '0');
+            for (int i = 0; integer && i < length; i++) {
+                char c = token.charAt(i);
+                integer = c >= '0' && c <= '9';
+            }
+            if (!integer) {
+                previous = Op.NONE;
+                hasLiteral = false;
+                return;
+            }
+
+            int value = Integer.parseInt(token, 0, length, 10);
+            if (declared.contains(value)) {
+                ids.matched.add(value);
+            }
+            switch (previous) {
+                case EQUALITY, CASE -> ids.compared.add(value);
+                case GREATER -> lowerBound(value + 1);
+                case GREATER_EQUAL -> lowerBound(value);
+                case LESS -> upperBound(value - 1);
+                case LESS_EQUAL -> upperBound(value);
+                default -> {
+                }
+            }
+            hasLiteral = true;
+            literal = value;
+            previous = Op.NONE;
+        }
+
+        private void operator(Op op) {
+            if (hasLiteral) {
+                switch (op) {
+                    case EQUALITY -> ids.compared.add(literal);
+                    case LESS -> lowerBound(literal + 1);
+                    case LESS_EQUAL -> lowerBound(literal);
+                    case GREATER -> upperBound(literal - 1);
+                    case GREATER_EQUAL -> upperBound(literal);
+                    default -> {
+                    }
+                }
+                hasLiteral = false;
+            }
+            previous = op;
+        }
+
+        private void lowerBound(int value) {
+            if (hasUpper) {
+                range(value, upper);
+            } else {
+                hasLower = true;
+                lower = value;
+            }
+        }
+
+        private void upperBound(int value) {
+            if (hasLower) {
+                range(lower, value);
+            } else {
+                hasUpper = true;
+                upper = value;
+            }
+        }
+
+        private void range(int low, int high) {
+            if (high >= low && high - low < MAX_RANGE_WIDTH) {
+                ids.ranges.add(new int[]{low, high});
+            }
+            hasLower = false;
+            hasUpper = false;
+        }
+
+        private void endLine() {
+            // A directive ends with its line, so its comparisons do not pair with the next line's
+            if (inDirective) {
+                endStatement();
+                inDirective = false;
+            }
+            lineStart = true;
+        }
+
+        private void endStatement() {
+            previous = Op.OTHER;
+            hasLiteral = false;
+            hasLower = false;
+            hasUpper = false;
+        }
+    }
+}
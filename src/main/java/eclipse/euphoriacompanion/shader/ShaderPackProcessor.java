@@ -1,43 +1,91 @@
 package eclipse.euphoriacompanion.shader;
 
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.history.CoverageHistory;
+import eclipse.euphoriacompanion.perf.AnalysisCounters;
+import eclipse.euphoriacompanion.perf.AnalysisEvents;
+import eclipse.euphoriacompanion.perf.PerformanceSummary;
+import eclipse.euphoriacompanion.perf.Phase;
+import eclipse.euphoriacompanion.perf.PhaseMetrics;
+import eclipse.euphoriacompanion.report.BlockCensus;
 import eclipse.euphoriacompanion.report.BlockReporter;
+import eclipse.euphoriacompanion.report.CoverageMatrix;
+import eclipse.euphoriacompanion.report.DimensionCoverage;
+import eclipse.euphoriacompanion.report.PackCoverage;
+import eclipse.euphoriacompanion.report.RegistryCoverage;
+import eclipse.euphoriacompanion.report.ReportContext;
+import eclipse.euphoriacompanion.report.ShaderIdUsage;
 import eclipse.euphoriacompanion.util.BlockPropertyExtractor;
 import eclipse.euphoriacompanion.util.BlockPropertyRegistry;
-import eclipse.euphoriacompanion.util.BlockRegistryHelper;
+import eclipse.euphoriacompanion.util.BlockRegistryCacheManager;
+import eclipse.euphoriacompanion.util.GamePropertyIndex;
 import eclipse.euphoriacompanion.util.MCVersionChecker;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+import eclipse.euphoriacompanion.util.WorldCensus;
 import net.minecraft.client.MinecraftClient;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
-import java.nio.file.FileSystem;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 public class ShaderPackProcessor {
-    private static final Path DEBUG_LOG_FILE = Paths.get("logs", "shader_blocks_debug.log");
+    private static final String DEBUG_LOG_FILENAME = "shader_blocks_debug.log";
+    private static final String AGGREGATE_PROPERTY_STATES_FILENAME = "missing_property_states.txt";
+    private static Path debugLogFile = Paths.get("logs", DEBUG_LOG_FILENAME);
     private static PrintWriter debugWriter;
     private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
         Thread thread = new Thread(r, "ShaderPackProcessorThread");
         thread.setDaemon(true);
         return thread;
     });
-
-    private static volatile boolean isProcessing = false;
+    // Worker pool for per-pack analysis that can run side by side
+    private static final ExecutorService ANALYSIS_EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "ShaderPackAnalysisThread-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    // Set -Deuphoriacompanion.aggregatePropertyStates=false to skip the combined missing_property_states.txt
+    private static final boolean WRITE_AGGREGATE_PROPERTY_STATES = Boolean.parseBoolean(System.getProperty("euphoriacompanion.aggregatePropertyStates", "true"));
+    // Set -Deuphoriacompanion.minify=true to write a minified copy of each pack's block.properties to logs/minified
+    private static final boolean MINIFY_BLOCK_PROPERTIES = Boolean.parseBoolean(System.getProperty("euphoriacompanion.minify", "false"));
+
+    // Guards currentRun and queuedRun
+    private static final Object RUN_LOCK = new Object();
+    // Result of the last analysis that finished, replaced as a whole
+    private static volatile List<PackCoverage> latestCoverages = List.of();
+    private static AnalysisHandle currentRun;
+    // At most one run waits behind the current one; later requests join or replace it
+    private static AnalysisHandle queuedRun;
+    // The registry cannot change while the game is running, so the snapshot is exported once per session
+    private static volatile boolean snapshotExported = false;
 
     // Initialize debug writer
     private static void initDebugWriter() {
         try {
             // Create logs directory if it doesn't exist
-            Files.createDirectories(DEBUG_LOG_FILE.getParent());
+            Files.createDirectories(debugLogFile.getParent());
 
             // Create or overwrite the debug log file with timestamp header
-            debugWriter = new PrintWriter(new BufferedWriter(new FileWriter(DEBUG_LOG_FILE.toFile())));
+            debugWriter = new PrintWriter(new BufferedWriter(new FileWriter(debugLogFile.toFile())));
             debugWriter.println("--- Shader Block Debug Log - " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " ---");
             debugWriter.flush();
         } catch (IOException e) {
@@ -66,33 +114,149 @@ public class ShaderPackProcessor {
         }
     }
 
-    // Use CompletableFuture to handle async processing
-    public static void processShaderPacksAsync(Path gameDir) {
-        if (isProcessing) {
-            EuphoriaCompanion.LOGGER.info("Shader pack processing already in progress, skipping request");
-            CompletableFuture.completedFuture(null);
-            return;
+    public static AnalysisHandle processShaderPacksAsync(Path gameDir) {
+        return processShaderPacksAsync(gameDir, null, null);
+    }
+
+    /**
+     * Requests an analysis in the background. A request during a run cancels that run, since it
+     * may have read files the player has saved since, and queues one re-run; further requests
+     * before the re-run starts share it, unless they ask for a pack it does not cover.
+     *
+     * @param gameDir  The game directory
+     * @param packName The only pack to analyze, or null for every pack
+     * @param listener Receives progress updates, or null
+     * @return The handle of the run that will answer this request
+     */
+    public static AnalysisHandle processShaderPacksAsync(Path gameDir, @Nullable String packName, @Nullable AnalysisHandle.ProgressListener listener) {
+        synchronized (RUN_LOCK) {
+            if (queuedRun != null) {
+                if (queuedRun.covers(packName)) {
+                    EuphoriaCompanion.LOGGER.info("Shader pack analysis already queued, joining it");
+                    return queuedRun;
+                }
+                // The queued run has not started, so it is replaced without doing any work
+                queuedRun.cancel();
+            }
+
+            AnalysisHandle handle = new AnalysisHandle(packName, listener);
+            if (currentRun != null) {
+                EuphoriaCompanion.LOGGER.info("Cancelling the running shader pack analysis and queueing a new one");
+                currentRun.cancel();
+                queuedRun = handle;
+            } else {
+                currentRun = handle;
+            }
+            EXECUTOR.execute(() -> runAnalysis(gameDir, handle));
+            return handle;
+        }
+    }
+
+    /**
+     * Gets the analysis that is running, or null if none is
+     */
+    public static @Nullable AnalysisHandle getCurrentRun() {
+        synchronized (RUN_LOCK) {
+            return currentRun;
         }
+    }
 
-        isProcessing = true;
-        CompletableFuture.runAsync(() -> {
-            try {
-                EuphoriaCompanion.LOGGER.info("Starting shader pack processing in background thread");
-                processShaderPacks(gameDir);
-                EuphoriaCompanion.LOGGER.info("Shader pack processing complete");
-            } finally {
-                isProcessing = false;
+    /**
+     * Gets each pack's coverage from the last analysis that finished
+     *
+     * @return The coverages, empty until an analysis has finished. A new list after every run.
+     */
+    public static List<PackCoverage> getLatestCoverages() {
+        return latestCoverages;
+    }
+
+    private static void runAnalysis(Path gameDir, AnalysisHandle handle) {
+        synchronized (RUN_LOCK) {
+            if (queuedRun == handle) {
+                queuedRun = null;
+            }
+            // Runs cancelled before they started, either replaced in the queue or superseded, do no work
+            if (handle.isCancelled()) {
+                handle.fail(new CancellationException("Shader pack analysis cancelled before it started"));
+                return;
             }
-        }, EXECUTOR);
+            currentRun = handle;
+        }
+
+        try {
+            EuphoriaCompanion.LOGGER.info("Starting shader pack processing in background thread");
+            List<PackCoverage> coverages = processShaderPacks(gameDir, handle);
+            latestCoverages = coverages;
+            handle.complete(coverages);
+            EuphoriaCompanion.LOGGER.info("Shader pack processing complete");
+        } catch (CancellationException e) {
+            EuphoriaCompanion.LOGGER.info("Shader pack processing cancelled");
+            handle.fail(e);
+        } catch (RuntimeException e) {
+            EuphoriaCompanion.LOGGER.error("Shader pack processing failed", e);
+            handle.fail(e);
+        } finally {
+            synchronized (RUN_LOCK) {
+                if (currentRun == handle) {
+                    currentRun = null;
+                }
+            }
+        }
     }
 
     public static void shutdown() {
         EXECUTOR.shutdown();
+        ANALYSIS_EXECUTOR.shutdown();
         closeDebugWriter();
     }
 
-    public static void processShaderPacks(Path gameDir) {
-        // Initialize debug writer
+    public static List<PackCoverage> processShaderPacks(Path gameDir, AnalysisHandle handle) {
+        Path logsDir = MinecraftClient.getInstance().runDirectory.toPath().resolve("logs");
+        // Started before the capture so registry cache lookups count towards the run
+        handle.getMetrics();
+
+        // Capture everything the analysis needs from the game, and keep a copy for headless runs
+        RegistrySnapshot snapshot = RegistrySnapshot.capture();
+        exportRegistrySnapshot(snapshot);
+
+        // Block counts of the loaded world, taken once so every pack is ranked against the same counts
+        BlockCensus census = WorldCensus.snapshot();
+
+        return analyzeShaderPacks(snapshot, gameDir, gameDir.resolve("shaderpacks"), logsDir, BlockRegistryCacheManager.getCacheDir(), census, handle);
+    }
+
+    /**
+     * Analyzes every shader pack in a directory against a registry snapshot and writes the reports.
+     * Uses no game classes, so it also runs outside Minecraft.
+     *
+     * @param snapshot       The registry snapshot to compare against
+     * @param gameDir        Directory for the shared block_properties.json
+     * @param shaderpacksDir Directory containing shader pack folders and ZIPs
+     * @param logsDir        Directory the reports are written to
+     * @param historyDir     Directory of the coverage history, or null to skip the history
+     * @return The coverage of each analyzed pack
+     */
+    public static List<PackCoverage> analyzeShaderPacks(RegistrySnapshot snapshot, Path gameDir, Path shaderpacksDir, Path logsDir, @Nullable Path historyDir) {
+        return analyzeShaderPacks(snapshot, gameDir, shaderpacksDir, logsDir, historyDir, null, new AnalysisHandle(null));
+    }
+
+    /**
+     * Analyzes the shader packs in a directory, reporting progress and stopping early if the
+     * handle is cancelled
+     *
+     * @param census Block counts of the loaded world or a saved one to rank each pack's missing
+     *               blocks against, or null to skip the census reports
+     * @param handle Selects the pack to analyze, receives progress and the cost of each phase, and
+     *               can cancel the analysis
+     * @throws CancellationException If the handle was cancelled
+     * @see #analyzeShaderPacks(RegistrySnapshot, Path, Path, Path, Path)
+     */
+    public static List<PackCoverage> analyzeShaderPacks(RegistrySnapshot snapshot, Path gameDir, Path shaderpacksDir, Path logsDir, @Nullable Path historyDir, @Nullable BlockCensus census, AnalysisHandle handle) {
+        List<PackCoverage> coverages = new ArrayList<>();
+        PhaseMetrics metrics = handle.getMetrics();
+
+        // Initialize debug writer next to the reports
+        debugLogFile = logsDir.resolve(DEBUG_LOG_FILENAME);
         initDebugWriter();
         writeDebug("Starting shader pack processing");
 
@@ -100,6 +264,7 @@ public class ShaderPackProcessor {
         BlockPropertyExtractor.clearCaches();
 
         // Reset the singleton instance of the registry completely to force a full reload
+        // (the game-side GamePropertyIndex is kept, it only changes with the block registry)
         BlockPropertyRegistry.resetInstance();
         BlockPropertyRegistry.getInstance(gameDir).clearAll();
         writeDebug("Cleared all property caches and reset registry instance");
@@ -107,8 +272,9 @@ public class ShaderPackProcessor {
         // Using our improved BlockPropertyRegistry for property comparison
         writeDebug("Using improved BlockPropertyRegistry for property detection");
 
+        // Every task started on the worker pool, so none outlives the run when it is cancelled
+        List<CompletableFuture<?>> workers = new ArrayList<>();
         try {
-            Path shaderpacksDir = gameDir.resolve("shaderpacks");
             boolean anyValidShaderpack;
 
             if (!Files.exists(shaderpacksDir)) {
@@ -118,18 +284,14 @@ public class ShaderPackProcessor {
                 } catch (IOException e) {
                     EuphoriaCompanion.LOGGER.error("Failed to create shaderpacks directory", e);
                     writeDebug("ERROR: Failed to create shaderpacks directory: " + e.getMessage());
-                    return;
+                    return coverages;
                 }
             }
 
-            // Load all blocks by mod
-            Map<String, List<String>> blocksByMod = new TreeMap<>();
-            Set<String> gameBlocks = BlockRegistryHelper.getGameBlocks(blocksByMod);
-            writeDebug("Loaded " + gameBlocks.size() + " game blocks from " + blocksByMod.size() + " mods");
-
-            // Block categories will be exported after world ready
+            // All blocks by mod come from the snapshot
+            Set<String> gameBlocks = snapshot.getGameBlocks();
+            writeDebug("Loaded " + gameBlocks.size() + " game blocks from " + snapshot.getBlocksByMod().size() + " mods");
 
-            Path logsDir = MinecraftClient.getInstance().runDirectory.toPath().resolve("logs");
             if (!Files.exists(logsDir)) {
                 try {
                     Files.createDirectories(logsDir);
@@ -137,7 +299,7 @@ public class ShaderPackProcessor {
                 } catch (IOException e) {
                     EuphoriaCompanion.LOGGER.error("Failed to create logs directory", e);
                     writeDebug("ERROR: Failed to create logs directory: " + e.getMessage());
-                    return;
+                    return coverages;
                 }
             }
 
@@ -147,92 +309,173 @@ public class ShaderPackProcessor {
             // Store data for each shader pack to avoid reading twice
             Map<Path, Set<String>> packBlocksMap = new HashMap<>();
             Map<Path, Set<String>> expandedBlocksMap = new HashMap<>();
-            Map<Path, Map<String, Set<BlockPropertyExtractor.BlockStateProperty>>> packPropertiesMap = new HashMap<>();
             Map<Path, String> packNamesMap = new HashMap<>();
-
-            // First scan for all shader blocks
-            try (DirectoryStream<Path> scanStream = Files.newDirectoryStream(shaderpacksDir)) {
+            Map<Path, Map<Integer, Integer>> declaredIdsMap = new HashMap<>();
+            // Item and entity IDs of each pack, keyed by registry name
+            Map<Path, Map<String, Set<String>>> registryEntriesMap = new HashMap<>();
+            Map<Path, Set<Integer>> otherIdsMap = new HashMap<>();
+            Map<Path, List<DimensionCoverage>> dimensionCoverageMap = new HashMap<>();
+
+            // First scan for all shader packs
+            List<Path> shaderpackPaths = new ArrayList<>();
+            handle.reportProgress(Phase.SCAN, 0, 1);
+            AnalysisEvents.PackDiscovery discoveryEvent = AnalysisEvents.PackDiscovery.start();
+            try (PhaseMetrics.Timer ignored = metrics.start(Phase.SCAN);
+                 DirectoryStream<Path> scanStream = Files.newDirectoryStream(shaderpacksDir)) {
                 for (Path shaderpackPath : scanStream) {
                     String shaderpackName = shaderpackPath.getFileName().toString();
                     packNamesMap.put(shaderpackPath, shaderpackName);
 
+                    if (handle.getPackName() != null && !handle.getPackName().equals(shaderpackName)) {
+                        continue;
+                    }
                     if (Files.isDirectory(shaderpackPath) || (Files.isRegularFile(shaderpackPath) && shaderpackName.toLowerCase().endsWith(".zip"))) {
-                        Set<String> packBlocks = readShaderBlockProperties(shaderpackPath);
-                        Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> blockPropertiesMap = new HashMap<>();
-
-                        // Get block properties from the properties file
-                        if (Files.isDirectory(shaderpackPath)) {
-                            Path blockPropertiesPath = shaderpackPath.resolve("shaders/block.properties");
-                            if (Files.exists(blockPropertiesPath)) {
-                                blockPropertiesMap = BlockPropertyExtractor.parsePropertiesFile(blockPropertiesPath);
-                            }
-                        } else {
-                            try (FileSystem zipFs = FileSystems.newFileSystem(shaderpackPath, (ClassLoader) null)) {
-                                Path blockPropertiesPath = zipFs.getPath("/shaders/block.properties");
-                                if (Files.exists(blockPropertiesPath)) {
-                                    blockPropertiesMap = BlockPropertyExtractor.parsePropertiesFile(blockPropertiesPath);
-                                }
-                            } catch (IOException e) {
-                                continue;
-                            }
-                        }
-
-                        // Store the data for this pack
-                        packBlocksMap.put(shaderpackPath, packBlocks);
-                        packPropertiesMap.put(shaderpackPath, blockPropertiesMap);
-
-                        // Process the blocks to expand any blockstates using the properties
-                        Set<String> expandedBlocks = new HashSet<>(packBlocks);
-                        ensureAllBlockstatesAdded(expandedBlocks, blockPropertiesMap);
-                        expandedBlocksMap.put(shaderpackPath, expandedBlocks);
-
-                        // Add both original and expanded blocks to the combined set
-                        allShaderBlocks.addAll(packBlocks);
-                        allShaderBlocks.addAll(expandedBlocks);
+                        shaderpackPaths.add(shaderpackPath);
                     }
                 }
             } catch (IOException e) {
                 EuphoriaCompanion.LOGGER.error("Failed to scan shaderpacks directory", e);
                 writeDebug("ERROR: Failed to scan shaderpacks directory: " + e.getMessage());
             }
+            discoveryEvent.finish(shaderpacksDir, shaderpackPaths.size());
+            if (handle.getPackName() != null && shaderpackPaths.isEmpty()) {
+                EuphoriaCompanion.LOGGER.warn("Selected shader pack {} not found in {}", handle.getPackName(), shaderpacksDir);
+                writeDebug("WARNING: Selected shader pack " + handle.getPackName() + " not found");
+            }
+            handle.reportProgress(Phase.SCAN, 1, 1);
+
+            // Then read the blocks of each pack
+            try (PhaseMetrics.Timer ignored = metrics.start(Phase.PARSE)) {
+                int parsed = 0;
+                for (Path shaderpackPath : shaderpackPaths) {
+                    handle.checkCancelled();
+                    handle.reportProgress(Phase.PARSE, parsed++, shaderpackPaths.size());
+                    String shaderpackName = packNamesMap.get(shaderpackPath);
+                    Map<Integer, Integer> declaredIds = new HashMap<>();
+                    Map<Integer, Integer> otherIds = new HashMap<>();
+                    Map<String, Set<String>> registryEntries = new LinkedHashMap<>();
+                    Set<String> packBlocks;
+                    Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> blockPropertiesMap = new HashMap<>();
+
+                    // Read every properties file the pack has while it is open
+                    try (PackSource source = PackSource.open(shaderpackPath)) {
+                        // Entries are only kept per key when dimension overrides need them
+                        List<String> dimensions = DimensionOverrides.find(source);
+                        Map<String, Set<String>> baseEntriesByKey = dimensions.isEmpty() ? null : new HashMap<>();
+                        packBlocks = readShaderBlockProperties(source, shaderpackName, snapshot.getMcVersion(), declaredIds, baseEntriesByKey);
+                        if (baseEntriesByKey != null) {
+                            dimensionCoverageMap.put(shaderpackPath, readDimensionOverrides(source, shaderpackName, snapshot.getMcVersion(), dimensions, baseEntriesByKey, declaredIds, gameBlocks));
+                        }
+
+                        // Get block properties from the properties file
+                        Path blockPropertiesPath = source.resolve(PackSource.BLOCK_PROPERTIES);
+                        if (Files.exists(blockPropertiesPath)) {
+                            blockPropertiesMap = BlockPropertyExtractor.parsePropertiesFile(blockPropertiesPath);
+                        }
 
-            // FIRST: Generate the missing property states file
-            BlockPropertyRegistry registry = BlockPropertyRegistry.getInstance(gameDir);
+                        if (MINIFY_BLOCK_PROPERTIES) {
+                            minifyBlockProperties(source, shaderpackName, dimensions, snapshot.getPropertyIndex(), logsDir);
+                        }
 
-            // Process all shader blocks to build the used properties registry
-            registry.processAllShaderBlocks(allShaderBlocks);
+                        readRegistryProperties(source, PackSource.ITEM_PROPERTIES, "item", shaderpackName, snapshot.getMcVersion(), registryEntries, otherIds);
+                        readRegistryProperties(source, PackSource.ENTITY_PROPERTIES, "entity", shaderpackName, snapshot.getMcVersion(), registryEntries, otherIds);
+                    } catch (IOException e) {
+                        EuphoriaCompanion.LOGGER.error("Failed to open shader pack: {}", shaderpackPath, e);
+                        writeDebug("ERROR: Failed to open shader pack: " + e.getMessage());
+                        continue;
+                    }
 
-            // Find missing property states using our improved registry
-            List<String> missingPropertyStates = registry.findAllMissingPropertyStates();
-            writeDebug("Found " + missingPropertyStates.size() + " missing property states using the improved registry");
+                    // Store the data for this pack
+                    packBlocksMap.put(shaderpackPath, packBlocks);
+                    declaredIdsMap.put(shaderpackPath, declaredIds);
+                    registryEntriesMap.put(shaderpackPath, registryEntries);
+                    otherIdsMap.put(shaderpackPath, otherIds.keySet());
 
-            // Write missing property states to a file
-            // Re-use the logs directory already created earlier
-            Path missingPropertiesPath = logsDir.resolve("missing_property_states.txt");
-            try (BufferedWriter writer = Files.newBufferedWriter(missingPropertiesPath)) {
-                writer.write("============ MISSING PROPERTY STATES ============\n");
-                writer.write("The following property states are missing from the shaders:\n\n");
+                    // Process the blocks to expand any blockstates using the properties
+                    Set<String> expandedBlocks = new HashSet<>(packBlocks);
+                    ensureAllBlockstatesAdded(expandedBlocks, blockPropertiesMap);
+                    expandedBlocksMap.put(shaderpackPath, expandedBlocks);
 
-                for (String missingState : missingPropertyStates) {
-                    writer.write(missingState + "\n");
+                    // Add both original and expanded blocks to the combined set
+                    allShaderBlocks.addAll(packBlocks);
+                    allShaderBlocks.addAll(expandedBlocks);
                 }
+                handle.reportProgress(Phase.PARSE, shaderpackPaths.size(), shaderpackPaths.size());
+            }
 
-                EuphoriaCompanion.LOGGER.debug("Wrote {} missing property states to {}", missingPropertyStates.size(), missingPropertiesPath);
+            if (census != null) {
+                BlockReporter.writeBlockStateFrequency(logsDir, census);
+            }
 
-                // Save the registry for future use
-                registry.saveRegistry();
-            } catch (IOException e) {
-                EuphoriaCompanion.LOGGER.error("Failed to write missing property states", e);
+            // The snapshot's property index is shared by every worker
+            GamePropertyIndex propertyIndex = snapshot.getPropertyIndex();
+
+            // Compute missing property states for each pack in parallel, against its own blocks only
+            Map<Path, CompletableFuture<List<String>>> missingStatesMap = new HashMap<>();
+            AtomicInteger statesDone = new AtomicInteger();
+            int packCount = expandedBlocksMap.size();
+            handle.reportProgress(Phase.PROPERTY_REGISTRY, 0, packCount);
+            for (Map.Entry<Path, Set<String>> entry : expandedBlocksMap.entrySet()) {
+                Set<String> expandedBlocks = entry.getValue();
+                String shaderpackName = packNamesMap.get(entry.getKey());
+                CompletableFuture<List<String>> statesFuture = CompletableFuture.supplyAsync(() -> {
+                    handle.checkCancelled();
+                    try (PhaseMetrics.Timer ignored = metrics.start(Phase.PROPERTY_REGISTRY)) {
+                        AnalysisEvents.MissingStates event = AnalysisEvents.MissingStates.start();
+                        List<String> missingStates = BlockPropertyRegistry.findMissingPropertyStates(expandedBlocks, propertyIndex);
+                        event.finish(shaderpackName, expandedBlocks.size(), missingStates.size());
+                        handle.reportProgress(Phase.PROPERTY_REGISTRY, statesDone.incrementAndGet(), packCount);
+                        return missingStates;
+                    }
+                }, ANALYSIS_EXECUTOR);
+                missingStatesMap.put(entry.getKey(), statesFuture);
+                workers.add(statesFuture);
+            }
+
+            // Meanwhile, check which declared block IDs each pack's shader code actually uses
+            try (PhaseMetrics.Timer ignored = metrics.start(Phase.SHADER_CODE)) {
+                int scanned = 0;
+                for (Path shaderpackPath : shaderpackPaths) {
+                    handle.checkCancelled();
+                    handle.reportProgress(Phase.SHADER_CODE, scanned++, shaderpackPaths.size());
+                    Map<Integer, Integer> declaredIds = declaredIdsMap.get(shaderpackPath);
+                    if (declaredIds != null && !declaredIds.isEmpty()) {
+                        scanShaderCode(shaderpackPath, packNamesMap.get(shaderpackPath), declaredIds, otherIdsMap.get(shaderpackPath), logsDir);
+                    }
+                }
+                handle.reportProgress(Phase.SHADER_CODE, shaderpackPaths.size(), shaderpackPaths.size());
+            }
+
+            // Optionally write the missing property states of all packs combined
+            if (WRITE_AGGREGATE_PROPERTY_STATES) {
+                handle.checkCancelled();
+                try (PhaseMetrics.Timer ignored = metrics.start(Phase.PROPERTY_REGISTRY)) {
+                    writeAggregatePropertyStates(gameDir, logsDir, allShaderBlocks, propertyIndex);
+                }
             }
 
-            // SECOND: Now process each shader pack for reports - after missing_property_states.txt has been created
+            // Resolve registry-derived data once and share it across every pack report
+            ReportContext reportContext = ReportContext.create(snapshot);
+
+            // The full block list is the same for every pack, so it goes into one shared file
+            CompletableFuture<Void> inventoryFuture = CompletableFuture.runAsync(() -> {
+                try (PhaseMetrics.Timer ignored = metrics.start(Phase.REPORTS)) {
+                    BlockReporter.writeBlockInventory(logsDir, reportContext);
+                }
+            }, ANALYSIS_EXECUTOR);
+            workers.add(inventoryFuture);
+            Map<Path, CompletableFuture<PackCoverage>> reportFutures = new LinkedHashMap<>();
+
             anyValidShaderpack = false;
+            AtomicInteger reportsDone = new AtomicInteger();
+            handle.reportProgress(Phase.REPORTS, 0, packCount);
 
-            // Process each shader pack using the data we've already loaded
+            // Process each shader pack using the data we've already loaded, writing reports concurrently
             for (Path shaderpackPath : packBlocksMap.keySet()) {
                 String shaderpackName = packNamesMap.get(shaderpackPath);
                 Set<String> expandedShaderBlocks = expandedBlocksMap.get(shaderpackPath);
-                Map<String, Set<BlockPropertyExtractor.BlockStateProperty>> blockPropertiesMap = packPropertiesMap.get(shaderpackPath);
+                Map<String, Set<String>> registryEntries = registryEntriesMap.get(shaderpackPath);
+                List<DimensionCoverage> dimensionCoverages = dimensionCoverageMap.get(shaderpackPath);
 
                 if (Files.isDirectory(shaderpackPath)) {
                     EuphoriaCompanion.LOGGER.info("Processing shaderpack (Directory): {}", shaderpackName);
@@ -247,130 +490,446 @@ public class ShaderPackProcessor {
                     writeDebug("No blocks found in " + shaderpackName);
                 }
 
-                // Generate the block comparison report
-                BlockReporter.processShaderBlocks(shaderpackName, expandedShaderBlocks, gameBlocks, logsDir, blocksByMod, blockPropertiesMap);
+                // Generate the block comparison report once this pack's property states are known
+                CompletableFuture<PackCoverage> reportFuture = missingStatesMap.get(shaderpackPath).thenApplyAsync(missingPropertyStates -> {
+                    handle.checkCancelled();
+                    try (PhaseMetrics.Timer ignored = metrics.start(Phase.REPORTS)) {
+                        PackCoverage coverage = BlockReporter.processShaderBlocks(shaderpackName, expandedShaderBlocks, reportContext, logsDir, missingPropertyStates);
+                        writeRegistryCoverage(logsDir, shaderpackName, registryEntries, snapshot);
+                        if (dimensionCoverages != null && !dimensionCoverages.isEmpty()) {
+                            BlockReporter.writeDimensionCoverage(logsDir, shaderpackName, coverage.missingBlocks().size(), dimensionCoverages);
+                        }
+                        if (census != null) {
+                            BlockReporter.writeWorldCensus(logsDir, shaderpackName, coverage.missingBlocks(), missingPropertyStates, census);
+                        }
+                        handle.reportProgress(Phase.REPORTS, reportsDone.incrementAndGet(), packCount);
+                        return coverage;
+                    }
+                }, ANALYSIS_EXECUTOR);
+                reportFutures.put(shaderpackPath, reportFuture);
+                workers.add(reportFuture);
             }
 
+            // Wait for every report before finishing the run
+            Map<String, Set<String>> packEntries = new HashMap<>();
+            for (Map.Entry<Path, CompletableFuture<PackCoverage>> entry : reportFutures.entrySet()) {
+                try {
+                    PackCoverage coverage = entry.getValue().join();
+                    coverages.add(coverage);
+                    packEntries.put(coverage.packName(), packBlocksMap.get(entry.getKey()));
+                } catch (CompletionException | CancellationException e) {
+                    // A cancelled run fails the whole analysis rather than one pack
+                    handle.checkCancelled();
+                    EuphoriaCompanion.LOGGER.error("Failed to write shader pack report", e.getCause());
+                    writeDebug("ERROR: Failed to write shader pack report: " + e.getCause().getMessage());
+                }
+            }
+            inventoryFuture.join();
+            handle.checkCancelled();
+
+            try (PhaseMetrics.Timer ignored = metrics.start(Phase.REPORTS)) {
+                // Compare every pack against each other in one report
+                if (coverages.size() > 1) {
+                    BlockReporter.writeCoverageMatrix(logsDir, CoverageMatrix.create(reportContext, coverages));
+                }
+
+                // Keep a history of each pack's coverage and report what changed since the last run
+                if (historyDir != null) {
+                    recordCoverageHistory(historyDir, logsDir, snapshot, coverages, packEntries);
+                }
+            }
+
+            // Append what the run cost to every report it wrote, and keep a copy for collection
+            List<Path> reports = new ArrayList<>();
+            for (PackCoverage coverage : coverages) {
+                reports.add(BlockReporter.comparisonReportPath(logsDir, coverage.packName()));
+            }
+            if (WRITE_AGGREGATE_PROPERTY_STATES) {
+                reports.add(logsDir.resolve(AGGREGATE_PROPERTY_STATES_FILENAME));
+            }
+            writePerformanceSummary(logsDir, metrics.summarize(), reports);
+
             if (!anyValidShaderpack) {
                 EuphoriaCompanion.LOGGER.error("No valid shaderpacks found!");
                 writeDebug("ERROR: No valid shaderpacks found!");
             }
         } finally {
+            // A cancelled run leaves here early, its workers must stop writing before the next run starts
+            awaitWorkers(workers);
             writeDebug("Completed shader pack processing");
             closeDebugWriter();
         }
+        return coverages;
     }
 
-    private static Set<String> readShaderBlockProperties(Path shaderpackPath) {
-        Set<String> shaderBlocks = new HashSet<>();
-        
-        // Handle differently based on whether it's a directory or zip file
-        if (Files.isDirectory(shaderpackPath)) {
-            // For directory-based shader packs
-            Path blockPropertiesPath = shaderpackPath.resolve("shaders/block.properties");
-            if (!Files.exists(blockPropertiesPath)) {
-                EuphoriaCompanion.LOGGER.warn("No block.properties found in directory {}", shaderpackPath);
-                writeDebug("No block.properties found in directory " + shaderpackPath);
-                return shaderBlocks;
+    /**
+     * Waits until every worker task has finished, ignoring how. Their failures are reported where
+     * their results are used.
+     */
+    private static void awaitWorkers(List<CompletableFuture<?>> workers) {
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException | CancellationException ignored) {
+            // Already reported, or the run was cancelled
+        }
+    }
+
+    private static void writeRegistryCoverage(Path logsDir, String shaderpackName, Map<String, Set<String>> registryEntries, RegistrySnapshot snapshot) {
+        List<RegistryCoverage> coverages = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : registryEntries.entrySet()) {
+            Set<String> gameIds = entry.getKey().equals("item") ? snapshot.getGameItems() : snapshot.getGameEntities();
+            // Without the registry every listed ID would look unused, so the file is skipped
+            if (gameIds.isEmpty()) {
+                writeDebug("No " + entry.getKey() + " registry in the snapshot, skipping " + entry.getKey() + ".properties of " + shaderpackName);
+                continue;
+            }
+            coverages.add(RegistryCoverage.create(entry.getKey(), gameIds, entry.getValue()));
+        }
+        if (!coverages.isEmpty()) {
+            BlockReporter.writeRegistryCoverage(logsDir, shaderpackName, coverages);
+        }
+    }
+
+    private static void scanShaderCode(Path shaderpackPath, String shaderpackName, Map<Integer, Integer> declaredIds, Set<Integer> otherIds, Path logsDir) {
+        ShaderIdUsage usage;
+        // The ZIP stays open until every file has been scanned
+        try (PackSource source = PackSource.open(shaderpackPath)) {
+            Path shadersDir = source.resolve("shaders");
+            if (!Files.isDirectory(shadersDir)) {
+                return;
+            }
+            usage = ShaderCodeScanner.scan(shaderpackName, shadersDir, declaredIds, otherIds, ANALYSIS_EXECUTOR);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to scan shader code of {}", shaderpackName, e);
+            writeDebug("ERROR: Failed to scan shader code of " + shaderpackName + ": " + e.getMessage());
+            return;
+        }
+
+        if (usage.filesScanned() > 0) {
+            writeDebug("Scanned " + usage.filesScanned() + " shader files of " + shaderpackName + ": " + usage.deadIds().size() + " dead IDs, " + usage.unmappedIds().size() + " unmapped IDs");
+            BlockReporter.writeShaderIdUsage(logsDir, usage);
+        }
+    }
+
+    private static void writePerformanceSummary(Path logsDir, PerformanceSummary summary, List<Path> reports) {
+        for (Path report : reports) {
+            if (!Files.exists(report)) {
+                continue;
             }
-            
             try {
-                shaderBlocks = readPropertiesFile(blockPropertiesPath);
+                summary.appendTo(report);
             } catch (IOException e) {
-                EuphoriaCompanion.LOGGER.error("Failed to read block.properties file from directory", e);
-                writeDebug("ERROR: Failed to read block.properties file from directory: " + e.getMessage());
+                EuphoriaCompanion.LOGGER.error("Failed to append performance summary to {}", report, e);
             }
-        } else {
-            // For ZIP-based shader packs
-            try (FileSystem zipFs = FileSystems.newFileSystem(shaderpackPath, (ClassLoader) null)) {
-                Path blockPropertiesPath = zipFs.getPath("/shaders/block.properties");
-                if (!Files.exists(blockPropertiesPath)) {
-                    EuphoriaCompanion.LOGGER.warn("No block.properties found in ZIP {}", shaderpackPath);
-                    writeDebug("No block.properties found in ZIP " + shaderpackPath);
-                    return shaderBlocks;
-                }
-                
-                try {
-                    shaderBlocks = readPropertiesFile(blockPropertiesPath);
-                } catch (IOException e) {
-                    EuphoriaCompanion.LOGGER.error("Failed to read block.properties file from ZIP", e);
-                    writeDebug("ERROR: Failed to read block.properties file from ZIP: " + e.getMessage());
+        }
+
+        Path sidecar = logsDir.resolve(PerformanceSummary.SIDECAR_FILENAME);
+        try {
+            summary.writeJson(sidecar);
+            writeDebug("Wrote performance summary to " + sidecar);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write performance summary", e);
+        }
+    }
+
+    // Saves the snapshot to the cache directory so it can be copied to a build machine
+    private static void exportRegistrySnapshot(RegistrySnapshot snapshot) {
+        if (snapshotExported) {
+            return;
+        }
+
+        Path snapshotFile = BlockRegistryCacheManager.getCacheDir().resolve(RegistrySnapshot.SNAPSHOT_FILENAME);
+        try {
+            snapshot.save(snapshotFile);
+            snapshotExported = true;
+            EuphoriaCompanion.LOGGER.info("Registry snapshot exported to {}", snapshotFile);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to export registry snapshot", e);
+        }
+    }
+
+    /**
+     * Appends this run's coverage of every pack to the history store in the given directory
+     * and writes a coverage_changes report for each pack that was analyzed before.
+     */
+    private static void recordCoverageHistory(Path historyDir, Path logsDir, RegistrySnapshot snapshot, List<PackCoverage> coverages, Map<String, Set<String>> packEntries) {
+        if (coverages.isEmpty()) {
+            return;
+        }
+
+        Path historyFile = historyDir.resolve(CoverageHistory.HISTORY_FILENAME);
+        try {
+            CoverageHistory history = CoverageHistory.open(historyFile);
+            int runId = history.nextRunId();
+            String modHash = snapshot.getModHash();
+
+            for (PackCoverage coverage : coverages) {
+                List<CoverageHistory.RunInfo> previousRuns = history.getRuns(coverage.packName());
+                history.append(runId, coverage.packName(), hashEntries(packEntries.get(coverage.packName())), modHash, snapshot.getGameBlocks(), coverage.missingBlocks(), coverage.missingPropertyStates());
+
+                if (!previousRuns.isEmpty()) {
+                    int previousRunId = previousRuns.get(previousRuns.size() - 1).runId();
+                    BlockReporter.writeCoverageChanges(logsDir, history.diff(coverage.packName(), previousRunId, runId));
                 }
+            }
+            writeDebug("Recorded run " + runId + " for " + coverages.size() + " packs in " + historyFile);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to update coverage history", e);
+            writeDebug("ERROR: Failed to update coverage history: " + e.getMessage());
+        }
+    }
+
+    // Hashes a pack's block entries so the history can tell when the pack itself changed
+    private static String hashEntries(Set<String> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String entry : new TreeSet<>(entries)) {
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Writes the missing property states of all shader packs combined to missing_property_states.txt.
+     * Per-pack reports do not depend on this file.
+     */
+    private static void writeAggregatePropertyStates(Path gameDir, Path logsDir, Set<String> allShaderBlocks, GamePropertyIndex propertyIndex) {
+        BlockPropertyRegistry registry = BlockPropertyRegistry.getInstance(gameDir);
+
+        // Process all shader blocks to build the used properties registry
+        AnalysisEvents.PropertyRegistryBuild buildEvent = AnalysisEvents.PropertyRegistryBuild.start();
+        registry.processAllShaderBlocks(allShaderBlocks);
+        buildEvent.finish(AnalysisEvents.ALL_PACKS, allShaderBlocks.size());
+
+        AnalysisEvents.MissingStates missingEvent = AnalysisEvents.MissingStates.start();
+        List<String> missingPropertyStates = registry.findAllMissingPropertyStates(propertyIndex);
+        missingEvent.finish(AnalysisEvents.ALL_PACKS, allShaderBlocks.size(), missingPropertyStates.size());
+        writeDebug("Found " + missingPropertyStates.size() + " missing property states across all packs");
+
+        Path missingPropertiesPath = logsDir.resolve(AGGREGATE_PROPERTY_STATES_FILENAME);
+        AnalysisEvents.ReportWrite reportEvent = AnalysisEvents.ReportWrite.start();
+        try (BufferedWriter writer = Files.newBufferedWriter(missingPropertiesPath)) {
+            writer.write("============ MISSING PROPERTY STATES ============\n");
+            writer.write("The following property states are missing from the shaders:\n\n");
+
+            for (String missingState : missingPropertyStates) {
+                writer.write(missingState + "\n");
+            }
+
+            EuphoriaCompanion.LOGGER.debug("Wrote {} missing property states to {}", missingPropertyStates.size(), missingPropertiesPath);
+
+            // Save the registry for future use
+            registry.saveRegistry();
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to write missing property states", e);
+        }
+        reportEvent.finish(AnalysisEvents.ALL_PACKS, missingPropertiesPath, missingPropertyStates.size());
+    }
+
+    private static Set<String> readShaderBlockProperties(PackSource source, String shaderpackName, int mcVersion, Map<Integer, Integer> declaredIds, @Nullable Map<String, Set<String>> entriesByKey) {
+        Path blockPropertiesPath = source.resolve(PackSource.BLOCK_PROPERTIES);
+        if (!Files.exists(blockPropertiesPath)) {
+            EuphoriaCompanion.LOGGER.warn("No block.properties found in {}", shaderpackName);
+            writeDebug("No block.properties found in " + shaderpackName);
+            return new HashSet<>();
+        }
+
+        try {
+            return readPropertiesFile(blockPropertiesPath, shaderpackName, mcVersion, declaredIds, entriesByKey);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to read block.properties file from {}", shaderpackName, e);
+            writeDebug("ERROR: Failed to read block.properties file from " + shaderpackName + ": " + e.getMessage());
+            return new HashSet<>();
+        }
+    }
+
+    // Parses each dimension's override against the shared base entries
+    private static List<DimensionCoverage> readDimensionOverrides(PackSource source, String shaderpackName, int mcVersion, List<String> dimensions, Map<String, Set<String>> baseEntriesByKey, Map<Integer, Integer> declaredIds, Set<String> gameBlocks) {
+        DimensionOverrides overrides = new DimensionOverrides(baseEntriesByKey);
+        List<DimensionCoverage> coverages = new ArrayList<>();
+        for (String dimension : dimensions) {
+            Map<String, Set<String>> overrideEntriesByKey = new HashMap<>();
+            try {
+                readPropertiesFile(source.resolve(DimensionOverrides.overridePath(dimension)), shaderpackName + "/" + dimension, mcVersion, declaredIds, overrideEntriesByKey);
+            } catch (IOException e) {
+                EuphoriaCompanion.LOGGER.error("Failed to read {} block.properties from {}", dimension, shaderpackName, e);
+                writeDebug("ERROR: Failed to read " + dimension + " block.properties from " + shaderpackName + ": " + e.getMessage());
+                continue;
+            }
+            DimensionCoverage coverage = overrides.compare(dimension, overrideEntriesByKey, gameBlocks);
+            writeDebug("Dimension " + dimension + " of " + shaderpackName + ": " + coverage.replacedIds() + " replaced IDs, " + coverage.addedIds() + " added IDs");
+            coverages.add(coverage);
+        }
+        return coverages;
+    }
+
+    /**
+     * Writes minified copies of a pack's block.properties and its dimension overrides to
+     * logs/minified/[shaderpack]/, laid out as in the pack
+     */
+    private static void minifyBlockProperties(PackSource source, String shaderpackName, List<String> dimensions, GamePropertyIndex propertyIndex, Path logsDir) {
+        List<String> relativePaths = new ArrayList<>();
+        relativePaths.add(PackSource.BLOCK_PROPERTIES);
+        for (String dimension : dimensions) {
+            relativePaths.add(DimensionOverrides.overridePath(dimension));
+        }
+
+        Path outputDir = logsDir.resolve("minified").resolve(BlockReporter.safeFileName(shaderpackName));
+        for (String relativePath : relativePaths) {
+            Path propertiesPath = source.resolve(relativePath);
+            if (!Files.exists(propertiesPath)) {
+                continue;
+            }
+            try {
+                BlockPropertiesMinifier.Result result = BlockPropertiesMinifier.minify(propertiesPath, propertyIndex);
+                Path outputPath = outputDir.resolve(relativePath);
+                Files.createDirectories(outputPath.getParent());
+                Files.write(outputPath, result.lines(), StandardCharsets.UTF_8);
+                EuphoriaCompanion.LOGGER.info("Minified {} of {}: {} -> {} entries, {} -> {} bytes", relativePath, shaderpackName, result.entriesBefore(), result.entriesAfter(), Files.size(propertiesPath), Files.size(outputPath));
+                writeDebug("Minified " + relativePath + " of " + shaderpackName + ": " + result.blocksCollapsed() + " blocks collapsed, " + result.linesKept() + " lines kept as written because the minified form did not verify");
             } catch (IOException e) {
-                EuphoriaCompanion.LOGGER.error("Failed to open ZIP file: {}", shaderpackPath, e);
-                writeDebug("ERROR: Failed to open ZIP file: " + e.getMessage());
+                EuphoriaCompanion.LOGGER.error("Failed to minify {} of {}", relativePath, shaderpackName, e);
+                writeDebug("ERROR: Failed to minify " + relativePath + " of " + shaderpackName + ": " + e.getMessage());
             }
         }
-        
-        return shaderBlocks;
     }
-    
-    private static Set<String> readPropertiesFile(Path blockPropertiesPath) throws IOException {
-        Set<String> shaderBlocks = new HashSet<>();
-        writeDebug("Reading block.properties from " + blockPropertiesPath);
-        int mcVersion = MCVersionChecker.getMCVersion();
+
+    /**
+     * Reads item.properties or entity.properties with the same parser as block.properties
+     *
+     * @param registry        Registry name the file maps, "item" or "entity", also its key prefix
+     * @param registryEntries Receives the file's normalized IDs under the registry name, if the pack has the file
+     * @param declaredIds     Receives the file's numeric IDs
+     */
+    private static void readRegistryProperties(PackSource source, String relativePath, String registry, String shaderpackName, int mcVersion, Map<String, Set<String>> registryEntries, Map<Integer, Integer> declaredIds) {
+        Path propertiesPath = source.resolve(relativePath);
+        if (!Files.exists(propertiesPath)) {
+            return;
+        }
+
+        String prefix = registry + ".";
+        try {
+            registryEntries.put(registry, readPropertiesEntries(propertiesPath, shaderpackName, mcVersion, (fullLine, entries) -> {
+                processRegistryLine(fullLine, prefix, entries);
+                recordDeclaredId(fullLine, prefix, declaredIds);
+            }));
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to read {} from {}", relativePath, shaderpackName, e);
+            writeDebug("ERROR: Failed to read " + relativePath + " from " + shaderpackName + ": " + e.getMessage());
+        }
+    }
+
+    // Package-private for the benchmarks
+    static Set<String> readPropertiesFile(Path blockPropertiesPath, String shaderpackName, int mcVersion) throws IOException {
+        return readPropertiesFile(blockPropertiesPath, shaderpackName, mcVersion, null, null);
+    }
+
+    private static Set<String> readPropertiesFile(Path blockPropertiesPath, String shaderpackName, int mcVersion, @Nullable Map<Integer, Integer> declaredIds, @Nullable Map<String, Set<String>> entriesByKey) throws IOException {
+        return readPropertiesEntries(blockPropertiesPath, shaderpackName, mcVersion, (fullLine, shaderBlocks) -> {
+            if (entriesByKey != null) {
+                // Keep which key listed each entry, so an override's keys can replace them
+                Set<String> lineBlocks = new HashSet<>();
+                processBlockLine(fullLine, lineBlocks);
+                shaderBlocks.addAll(lineBlocks);
+                int equals = fullLine.indexOf('=');
+                if (equals > 0) {
+                    entriesByKey.computeIfAbsent(fullLine.substring(0, equals).trim(), k -> new HashSet<>()).addAll(lineBlocks);
+                }
+            } else {
+                processBlockLine(fullLine, shaderBlocks);
+            }
+            if (declaredIds != null) {
+                recordDeclaredId(fullLine, "block.", declaredIds);
+            }
+        });
+    }
+
+    /**
+     * Reads a block, item or entity properties file, evaluating #if directives and joining
+     * continued lines
+     *
+     * @param lineHandler Adds the entries of each complete line to the set
+     * @return The entries read
+     */
+    private static Set<String> readPropertiesEntries(Path propertiesPath, String shaderpackName, int mcVersion, BiConsumer<String, Set<String>> lineHandler) throws IOException {
+        Set<String> entries = new HashSet<>();
+        writeDebug("Reading " + propertiesPath.getFileName() + " from " + propertiesPath);
         Deque<Boolean> conditionStack = new ArrayDeque<>();
 
-        try (BufferedReader reader = Files.newBufferedReader(blockPropertiesPath)) {
-            StringBuilder currentLine = new StringBuilder();
+        AnalysisEvents.PackParse parseEvent = AnalysisEvents.PackParse.start();
+        AnalysisEvents.Preprocessor preprocessorEvent = AnalysisEvents.Preprocessor.start();
+        // Directive timing is only worth the nanoTime calls while it is being recorded
+        boolean timeDirectives = preprocessorEvent.isEnabled();
+        long directiveNanos = 0;
+        int directives = 0;
+        int skippedLines = 0;
+        long charsRead = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(propertiesPath)) {
+            PropertiesLineJoiner joiner = new PropertiesLineJoiner();
             String line;
             int lineNumber = 0;
 
             while ((line = reader.readLine()) != null) {
                 lineNumber++;
+                charsRead += line.length() + 1;
                 line = line.trim();
 
                 // Handle preprocessor directives
-                if (line.startsWith("#if ")) {
-                    String condition = line.substring(4).trim();
-                    boolean conditionMet = MCVersionChecker.evaluateCondition(condition, mcVersion);
-                    boolean currentActive = isActive(conditionStack);
-                    conditionStack.push(currentActive && conditionMet);
-                    writeDebug("Line " + lineNumber + ": Preprocessor #if " + condition + " -> " + (currentActive && conditionMet));
-                    continue;
-                } else if (line.equals("#else")) {
-                    if (!conditionStack.isEmpty()) {
-                        boolean top = conditionStack.pop();
-                        conditionStack.push(!top);
-                        writeDebug("Line " + lineNumber + ": Preprocessor #else -> " + (!top));
-                    }
-                    continue;
-                } else if (line.equals("#endif")) {
-                    if (!conditionStack.isEmpty()) {
+                if (PropertiesLineJoiner.isConditional(line)) {
+                    long directiveStart = timeDirectives ? System.nanoTime() : 0;
+                    directives++;
+                    if (line.startsWith("#if ")) {
+                        String condition = line.substring(4).trim();
+                        boolean conditionMet = MCVersionChecker.evaluateCondition(condition, mcVersion);
+                        boolean currentActive = isActive(conditionStack);
+                        conditionStack.push(currentActive && conditionMet);
+                        writeDebug("Line " + lineNumber + ": Preprocessor #if " + condition + " -> " + (currentActive && conditionMet));
+                    } else if (line.equals("#else")) {
+                        if (!conditionStack.isEmpty()) {
+                            boolean top = conditionStack.pop();
+                            conditionStack.push(!top);
+                            writeDebug("Line " + lineNumber + ": Preprocessor #else -> " + (!top));
+                        }
+                    } else if (!conditionStack.isEmpty()) {
                         conditionStack.pop();
                         writeDebug("Line " + lineNumber + ": Preprocessor #endif");
                     }
+                    if (timeDirectives) {
+                        directiveNanos += System.nanoTime() - directiveStart;
+                    }
                     continue;
                 }
 
                 boolean skipProcessing = !isActive(conditionStack);
 
                 if (skipProcessing) {
-                    currentLine.setLength(0); // Discard any accumulated line
+                    skippedLines++;
+                    joiner.discard(); // Discard any accumulated line
                     writeDebug("Line " + lineNumber + ": Skipped due to preprocessor condition");
                     continue;
                 }
 
-                if (line.isEmpty() || line.startsWith("#")) {
-                    currentLine.setLength(0);
-                    continue;
-                }
-
-                if (line.endsWith("\\")) {
-                    currentLine.append(line, 0, line.length() - 1).append(" ");
-                    writeDebug("Line " + lineNumber + ": Continuation line detected");
-                } else {
-                    currentLine.append(line);
-                    String fullLine = currentLine.toString().trim();
+                String fullLine = joiner.accept(line);
+                if (fullLine != null) {
                     writeDebug("Line " + lineNumber + ": Processing complete line: " + fullLine);
-                    processBlockLine(fullLine, shaderBlocks);
-                    currentLine.setLength(0);
+                    lineHandler.accept(fullLine, entries);
+                } else if (joiner.isContinuing()) {
+                    writeDebug("Line " + lineNumber + ": Continuation line detected");
                 }
             }
             // Log total blocks count to debug only
-            writeDebug("Total blocks read from shader properties: " + shaderBlocks.size());
+            writeDebug("Total entries read from " + propertiesPath.getFileName() + ": " + entries.size());
+
+            AnalysisCounters.recordFileRead(charsRead);
+            preprocessorEvent.finish(shaderpackName, directives, skippedLines, directiveNanos);
+            parseEvent.finish(shaderpackName, parseEvent.isEnabled() ? Files.size(propertiesPath) : 0, lineNumber, entries.size());
         }
-        return shaderBlocks;
+        return entries;
     }
 
     private static boolean isActive(Deque<Boolean> conditionStack) {
@@ -382,7 +941,50 @@ public class ShaderPackProcessor {
         return true;
     }
 
-    private static void processBlockLine(String fullLine, Set<String> shaderBlocks) {
+    // Counts the entries mapped to a block.N, item.N or entity.N ID, tags included, for the shader code scan
+    private static void recordDeclaredId(String fullLine, String prefix, Map<Integer, Integer> declaredIds) {
+        int equals = fullLine.indexOf('=');
+        if (equals < 0) {
+            return;
+        }
+        String key = fullLine.substring(0, equals).trim();
+        if (!key.startsWith(prefix)) {
+            return;
+        }
+        int id;
+        try {
+            id = Integer.parseInt(key.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        // Count the whitespace-separated values without splitting the line
+        int entries = 0;
+        boolean inValue = false;
+        for (int i = equals + 1; i < fullLine.length(); i++) {
+            boolean whitespace = Character.isWhitespace(fullLine.charAt(i));
+            if (!whitespace && !inValue) {
+                entries++;
+            }
+            inValue = !whitespace;
+        }
+        declaredIds.merge(id, entries, Integer::sum);
+    }
+
+    // Adds the IDs of an item.N or entity.N line, which never carry properties
+    private static void processRegistryLine(String fullLine, String prefix, Set<String> entries) {
+        int equals = fullLine.indexOf('=');
+        if (equals < 0 || !fullLine.substring(0, equals).trim().startsWith(prefix)) {
+            return;
+        }
+        for (String value : fullLine.substring(equals + 1).trim().split("\\s+")) {
+            if (value.isEmpty() || value.startsWith("tags_")) {
+                continue;
+            }
+            entries.add(value.contains(":") ? value : "minecraft:" + value);
+        }
+    }
+
+    static void processBlockLine(String fullLine, Set<String> shaderBlocks) {
         if (!fullLine.contains("=")) {
             writeDebug("  Skipping line - no '=' character");
             return;
@@ -1,6 +1,7 @@
 package eclipse.euphoriacompanion.util;
 
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.AnalysisCounters;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.registry.Registries;
@@ -22,11 +23,6 @@ public class BlockPropertyExtractor {
     // Cache for parsed properties from files
     private static final Map<Path, Map<String, Set<BlockStateProperty>>> filePropertyCache = new ConcurrentHashMap<>();
 
-    // Cache for extracted properties from in-game blocks
-    private static final Map<Block, Set<BlockStateProperty>> blockPropertyCache = new ConcurrentHashMap<>();
-
-    // Cache for all possible property values for a block's property
-    private static final Map<Block, Map<String, Set<String>>> blockPropertyValuesCache = new ConcurrentHashMap<>();
 
     /**
      * Parses a block.properties file and extracts block properties
@@ -35,12 +31,21 @@ public class BlockPropertyExtractor {
      * @return A map of block identifiers to their properties
      */
     public static Map<String, Set<BlockStateProperty>> parsePropertiesFile(Path propertiesFile) {
+        Map<String, Set<BlockStateProperty>> cached = filePropertyCache.get(propertiesFile);
+        if (cached != null) {
+            AnalysisCounters.FILE_PROPERTY_CACHE.hit();
+            return cached;
+        }
+        AnalysisCounters.FILE_PROPERTY_CACHE.miss();
+
         Map<String, Set<BlockStateProperty>> result = new HashMap<>();
         EuphoriaCompanion.LOGGER.debug("Parsing properties file: {}", propertiesFile);
 
+        long charsRead = 0;
         try (BufferedReader reader = Files.newBufferedReader(propertiesFile, StandardCharsets.UTF_8)) {
             String line;
             while ((line = reader.readLine()) != null) {
+                charsRead += line.length() + 1;
                 // Skip comments and empty lines
                 if (line.trim().isEmpty() || line.trim().startsWith("#")) {
                     continue;
@@ -75,6 +80,7 @@ public class BlockPropertyExtractor {
         } catch (IOException e) {
             EuphoriaCompanion.LOGGER.error("Error parsing properties file: {}", propertiesFile, e);
         }
+        AnalysisCounters.recordFileRead(charsRead);
 
         // We'll still cache the result, but the cache is cleared at the start of each processing session
         // to ensure we always get fresh data when the user edits block.properties
@@ -146,45 +152,14 @@ public class BlockPropertyExtractor {
     }
 
     /**
-     * Extracts all possible state properties for a block
+     * Extracts all possible state properties for a block.
+     * The result is shared by every block with the same property schema.
      *
      * @param block The block to extract properties from
-     * @return A set of all possible BlockStateProperty combinations
+     * @return A read-only set of all name=value pairs across the block's states
      */
     public static Set<BlockStateProperty> extractBlockProperties(Block block) {
-        // Check cache first
-        if (blockPropertyCache.containsKey(block)) {
-            return blockPropertyCache.get(block);
-        }
-
-        Set<BlockStateProperty> properties = new HashSet<>();
-
-        try {
-            // Get all possible block states
-            Collection<BlockState> states = block.getStateManager().getStates();
-            EuphoriaCompanion.LOGGER.debug("Block {} has {} possible states", Registries.BLOCK.getId(block), states.size());
-
-            // Extract properties from each possible state
-            for (BlockState state : states) {
-                // Get properties for this state
-                Collection<Property<?>> stateProperties = state.getProperties();
-
-                for (Property<?> property : stateProperties) {
-                    String name = property.getName();
-                    Comparable<?> valueObj = state.get(property);
-                    String value = valueObj.toString().toLowerCase(); // Normalize to lowercase for consistent matching
-
-                    // Add property to set
-                    properties.add(new BlockStateProperty(name, value));
-                }
-            }
-        } catch (Exception e) {
-            EuphoriaCompanion.LOGGER.debug("Error extracting properties for block {}: {}", Registries.BLOCK.getId(block), e.getMessage());
-        }
-
-        // Cache the result
-        blockPropertyCache.put(block, properties);
-        return properties;
+        return GamePropertyIndex.get().getSchema(block).stateProperties();
     }
 
     /**
@@ -200,33 +175,15 @@ public class BlockPropertyExtractor {
             return true;
         }
 
-        Set<BlockStateProperty> blockProperties = extractBlockProperties(block);
-
-        // Check if the block supports all required properties
-        for (BlockStateProperty fileProperty : fileProperties) {
-            boolean found = false;
-            for (BlockStateProperty blockProperty : blockProperties) {
-                // Case-insensitive comparison for property values
-                if (blockProperty.name().equals(fileProperty.name()) && blockProperty.value().equalsIgnoreCase(fileProperty.value())) {
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                return false;
-            }
-        }
-
-        return true;
+        return GamePropertyIndex.get().getSchema(block).supportsAll(fileProperties);
     }
 
     /**
-     * Clears all caches
+     * Clears all per-run caches.
+     * Game block properties live in {@link GamePropertyIndex} and are not affected.
      */
     public static void clearCaches() {
         filePropertyCache.clear();
-        blockPropertyCache.clear();
-        blockPropertyValuesCache.clear();
     }
 
     /**
@@ -313,7 +270,7 @@ public class BlockPropertyExtractor {
                                 if (p.getName().equals(propertyName)) {
                                     Comparable<?> value = state.get(p);
                                     // Store the normalized lowercase value
-                                    values.add(value.toString().toLowerCase());
+                                    values.add(value.toString().toLowerCase(Locale.ROOT));
                                 }
                             }
                         } catch (Exception e) {
@@ -4,10 +4,6 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import eclipse.euphoriacompanion.EuphoriaCompanion;
-import net.minecraft.block.Block;
-import net.minecraft.registry.Registries;
-import net.minecraft.state.property.Property;
-import net.minecraft.util.Identifier;
 
 import java.io.File;
 import java.io.FileReader;
@@ -30,10 +26,6 @@ public class BlockPropertyRegistry {
     // Key: Normalized block ID (e.g., "minecraft:oak_fence")
     // Value: Map of property name to set of used values from block.properties
     private final Map<String, Map<String, Set<String>>> usedBlockProperties = new ConcurrentHashMap<>();
-    // Cache for property values from the game
-    // Key: Normalized block ID (e.g., "minecraft:oak_fence")
-    // Value: Map of property name to all possible values from the game
-    private final Map<String, Map<String, Set<String>>> gameBlockProperties = new ConcurrentHashMap<>();
     private final Path gameDir;
     private final Gson gson;
 
@@ -104,11 +96,11 @@ public class BlockPropertyRegistry {
     }
 
     /**
-     * Clears all caches and data
+     * Clears all data collected from shader packs.
+     * The game's property index is shared across runs and is not affected.
      */
     public void clearAll() {
         usedBlockProperties.clear();
-        gameBlockProperties.clear();
         EuphoriaCompanion.LOGGER.debug("Cleared all property registry data");
     }
 
@@ -190,61 +182,10 @@ public class BlockPropertyRegistry {
      * Gets all possible property values for a block from the game
      *
      * @param blockId The normalized block identifier
-     * @return Map of property names to all possible values
+     * @return Read-only map of property names to all possible values
      */
     public Map<String, Set<String>> getAllGamePropertyValues(String blockId) {
-        // Ensure block ID has namespace
-        if (!blockId.contains(":")) {
-            blockId = "minecraft:" + blockId;
-        }
-
-        // Check cache first
-        if (gameBlockProperties.containsKey(blockId)) {
-            return new HashMap<>(gameBlockProperties.get(blockId));
-        }
-
-        // Load from game
-        Map<String, Set<String>> result = new HashMap<>();
-
-        // Get block from registry
-        String[] parts = blockId.split(":", 2);
-        if (parts.length != 2) {
-            return result;
-        }
-
-        Optional<Block> blockOptional = Registries.BLOCK.getOrEmpty(Identifier.of(parts[0], parts[1]));
-        if (blockOptional.isEmpty()) {
-            EuphoriaCompanion.LOGGER.debug("Block not found in registry: {}", blockId);
-            return result;
-        }
-
-        Block block = blockOptional.get();
-
-        try {
-            // Extract all properties from block's state manager
-            for (Property<?> property : block.getStateManager().getProperties()) {
-                String propertyName = property.getName();
-                Set<String> values = new HashSet<>();
-
-                // Get all possible values
-                Collection<? extends Comparable<?>> possibleValues = BlockPropertyExtractor.getPropertyValuesViaReflection(property);
-
-                for (Comparable<?> value : possibleValues) {
-                    // Normalize to lowercase for consistent matching
-                    values.add(value.toString().toLowerCase());
-                }
-
-                result.put(propertyName, values);
-            }
-
-            // Cache the result
-            gameBlockProperties.put(blockId, result);
-
-        } catch (Exception e) {
-            EuphoriaCompanion.LOGGER.error("Error getting properties for block {}: {}", blockId, e.getMessage());
-        }
-
-        return result;
+        return GamePropertyIndex.get().getProperties(blockId);
     }
 
     /**
@@ -257,24 +198,7 @@ public class BlockPropertyRegistry {
      * @return true if this is a valid property state
      */
     public boolean isValidPropertyState(String blockId, String propertyName, String propertyValue) {
-        // Ensure block ID has namespace
-        if (!blockId.contains(":")) {
-            blockId = "minecraft:" + blockId;
-        }
-
-        // Normalize property value to lowercase
-        String normalizedValue = propertyValue.toLowerCase();
-
-        // Get all properties for this block
-        Map<String, Set<String>> allProps = getAllGamePropertyValues(blockId);
-
-        // Check if property exists
-        if (!allProps.containsKey(propertyName)) {
-            return false;
-        }
-
-        // Check if value is valid
-        return allProps.get(propertyName).contains(normalizedValue);
+        return GamePropertyIndex.get().getValues(blockId, propertyName).contains(propertyValue.toLowerCase());
     }
 
     /**
@@ -283,15 +207,67 @@ public class BlockPropertyRegistry {
      * @return List of missing property states in the format "blockId:propertyName=propertyValue"
      */
     public List<String> findAllMissingPropertyStates() {
+        return findAllMissingPropertyStates(GamePropertyIndex.get());
+    }
+
+    /**
+     * Finds all missing property values for all registered blocks against a given property index
+     *
+     * @param index The game property index to compare against
+     * @return List of missing property states in the format "blockId:propertyName=propertyValue"
+     */
+    public List<String> findAllMissingPropertyStates(GamePropertyIndex index) {
+        List<String> missingStates = findMissingPropertyStates(usedBlockProperties, index);
+        EuphoriaCompanion.LOGGER.info("Found {} missing property states in total", missingStates.size());
+        return missingStates;
+    }
+
+    /**
+     * Finds missing property values for a single shader pack without touching the shared registry.
+     * Safe to call from several threads at once.
+     *
+     * @param shaderBlocks Block identifiers from the pack, including property-qualified entries
+     * @param index        The game property index to compare against
+     * @return Sorted list of missing property states in the format "blockId:propertyName=propertyValue"
+     */
+    public static List<String> findMissingPropertyStates(Collection<String> shaderBlocks, GamePropertyIndex index) {
+        Map<String, Map<String, Set<String>>> usedProperties = new HashMap<>();
+
+        for (String blockIdWithProperties : shaderBlocks) {
+            // Skip blocks without properties
+            if (!blockIdWithProperties.contains("=")) {
+                continue;
+            }
+
+            BlockPropertyExtractor.ParsedBlockIdentifier parsed = BlockPropertyExtractor.parseBlockIdentifier(blockIdWithProperties);
+            if (parsed.properties().isEmpty()) {
+                continue;
+            }
+
+            String blockId = parsed.blockName();
+            if (!blockId.contains(":")) {
+                blockId = "minecraft:" + blockId;
+            }
+
+            Map<String, Set<String>> blockProps = usedProperties.computeIfAbsent(blockId, k -> new HashMap<>());
+            for (BlockPropertyExtractor.BlockStateProperty property : parsed.properties()) {
+                blockProps.computeIfAbsent(property.name(), k -> new HashSet<>()).add(property.value().toLowerCase());
+            }
+        }
+
+        return findMissingPropertyStates(usedProperties, index);
+    }
+
+    private static List<String> findMissingPropertyStates(Map<String, Map<String, Set<String>>> usedProperties, GamePropertyIndex index) {
         List<String> missingStates = new ArrayList<>();
 
         // For each block with used properties
-        for (Map.Entry<String, Map<String, Set<String>>> entry : usedBlockProperties.entrySet()) {
+        for (Map.Entry<String, Map<String, Set<String>>> entry : usedProperties.entrySet()) {
             String blockId = entry.getKey();
             Map<String, Set<String>> usedProps = entry.getValue();
 
             // Get all possible property values from the game
-            Map<String, Set<String>> allProps = getAllGamePropertyValues(blockId);
+            Map<String, Set<String>> allProps = index.getProperties(blockId);
 
             // Skip if block not found in game
             if (allProps.isEmpty()) {
@@ -299,36 +275,23 @@ public class BlockPropertyRegistry {
                 continue;
             }
 
-            EuphoriaCompanion.LOGGER.debug("Finding missing properties for {}", blockId);
-
             // For each property used in block.properties
             for (Map.Entry<String, Set<String>> propEntry : usedProps.entrySet()) {
                 String propName = propEntry.getKey();
                 Set<String> usedValues = propEntry.getValue();
 
                 // Skip if property not found in game
-                if (!allProps.containsKey(propName)) {
+                Set<String> allValues = allProps.get(propName);
+                if (allValues == null) {
                     EuphoriaCompanion.LOGGER.debug("Property {} not found on block {}", propName, blockId);
                     continue;
                 }
 
-                // Get all possible values for this property
-                Set<String> allValues = allProps.get(propName);
-
-                // Find missing values (values in game but not in block.properties)
-                Set<String> missingValues = new HashSet<>(allValues);
-                missingValues.removeAll(usedValues);
-
-                // Add missing states to the list
-                for (String missingValue : missingValues) {
-                    String missingState = blockId + ":" + propName + "=" + missingValue;
-
-                    // Verify this is actually a valid state (some properties may have constraints)
-                    if (isValidPropertyState(blockId, propName, missingValue)) {
-                        missingStates.add(missingState);
-                        EuphoriaCompanion.LOGGER.debug("Found missing property state: {}", missingState);
-                    } else {
-                        EuphoriaCompanion.LOGGER.debug("Skipping invalid property state: {}", missingState);
+                // Values in game but not in block.properties; these come straight from the game's
+                // state definition, so they are valid by construction
+                for (String value : allValues) {
+                    if (!usedValues.contains(value)) {
+                        missingStates.add(blockId + ":" + propName + "=" + value);
                     }
                 }
             }
@@ -336,8 +299,6 @@ public class BlockPropertyRegistry {
 
         // Sort the list for consistent output
         Collections.sort(missingStates);
-
-        EuphoriaCompanion.LOGGER.info("Found {} missing property states in total", missingStates.size());
         return missingStates;
     }
 
@@ -6,6 +6,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.AnalysisCounters;
 import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.ModContainer;
 import net.fabricmc.loader.api.metadata.ModMetadata;
@@ -29,7 +30,10 @@ public class BlockRegistryCacheManager {
     private static final Type BLOCK_CACHE_TYPE = new TypeToken<Map<String, List<String>>>() {
     }.getType();
 
-    private static Path getCacheDir() {
+    // The mod list cannot change while the game is running, so the hash is computed once
+    private static volatile String cachedModHash;
+
+    public static Path getCacheDir() {
         Path modsDir = FabricLoader.getInstance().getGameDir().resolve("mods");
         Path cacheDir = modsDir.resolve(EuphoriaCompanion.MODID);
         try {
@@ -47,6 +51,20 @@ public class BlockRegistryCacheManager {
         return getCacheDir().resolve(CACHE_FILENAME);
     }
 
+    /**
+     * Gets the hash of the current mod list, computing it on first use
+     *
+     * @return Hex-encoded SHA-256 of the sorted mod list and Minecraft version
+     */
+    public static String getModHash() {
+        String modHash = cachedModHash;
+        if (modHash == null) {
+            modHash = generateModHash();
+            cachedModHash = modHash;
+        }
+        return modHash;
+    }
+
     /**
      * Generates a hash of the current mod list to detect when mods have been added or removed
      */
@@ -82,9 +100,12 @@ public class BlockRegistryCacheManager {
         EuphoriaCompanion.LOGGER.info("Caching block registry data...");
 
         // Generate a hash of the current mods
-        String modHash = generateModHash();
+        String modHash = getModHash();
         EuphoriaCompanion.LOGGER.debug("Generated mod hash: {}", modHash);
 
+        // The registry snapshot is being replaced, so derived indexes must be rebuilt
+        GamePropertyIndex.invalidate();
+
         // Collect block data
         Map<String, List<String>> blocksByMod = new HashMap<>();
 
@@ -124,6 +145,7 @@ public class BlockRegistryCacheManager {
         Path cacheFile = getCacheFile();
         if (!Files.exists(cacheFile)) {
             EuphoriaCompanion.LOGGER.info("Block registry cache not found at {}", cacheFile);
+            AnalysisCounters.REGISTRY_CACHE.miss();
             return null;
         }
 
@@ -133,11 +155,12 @@ public class BlockRegistryCacheManager {
 
             // Check if mod hash matches
             String cachedModHash = cacheRoot.get("modHash").getAsString();
-            String currentModHash = generateModHash();
+            String currentModHash = getModHash();
 
             if (!currentModHash.equals(cachedModHash)) {
                 EuphoriaCompanion.LOGGER.info("Block registry cache is stale (mod list has changed)");
                 EuphoriaCompanion.LOGGER.debug("Current hash: {}, Cached hash: {}", currentModHash, cachedModHash);
+                AnalysisCounters.REGISTRY_CACHE.miss();
                 return null;
             }
 
@@ -146,9 +169,11 @@ public class BlockRegistryCacheManager {
             Map<String, List<String>> blocksByMod = GSON.fromJson(blocksElement, BLOCK_CACHE_TYPE);
 
             EuphoriaCompanion.LOGGER.info("Loaded {} blocks from {} mods from cache", getBlockCount(blocksByMod), blocksByMod.size());
+            AnalysisCounters.REGISTRY_CACHE.hit();
             return blocksByMod;
         } catch (IOException | com.google.gson.JsonSyntaxException e) {
             EuphoriaCompanion.LOGGER.error("Failed to read block registry cache", e);
+            AnalysisCounters.REGISTRY_CACHE.miss();
             return null;
         }
     }
@@ -1,6 +1,7 @@
 package eclipse.euphoriacompanion.util;
 
 import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.AnalysisCounters;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
@@ -262,9 +263,12 @@ public class BlockRenderHelper {
      */
     public static Set<BlockRenderCategory> getCategories(Block block) {
         // Check cache first
-        if (blockCategoriesCache.containsKey(block)) {
-            return blockCategoriesCache.get(block);
+        Set<BlockRenderCategory> cached = blockCategoriesCache.get(block);
+        if (cached != null) {
+            AnalysisCounters.BLOCK_CATEGORIES_CACHE.hit();
+            return cached;
         }
+        AnalysisCounters.BLOCK_CATEGORIES_CACHE.miss();
 
         Set<BlockRenderCategory> categories = new HashSet<>();
 
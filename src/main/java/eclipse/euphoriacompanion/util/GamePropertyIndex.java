@@ -0,0 +1,228 @@
+package eclipse.euphoriacompanion.util;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.AnalysisCounters;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import net.minecraft.state.property.Property;
+
+import java.util.*;
+
+/**
+ * Immutable index of every block's properties and their allowed values, as reported by the game.
+ * The index is built once per registry snapshot and shared by every analysis run; it is only
+ * rebuilt when the block registry is re-cached or the mod hash changes.
+ * <p>
+ * Property schemas are hash-consed: blocks with identical property sets point to one shared
+ * {@link PropertySchema}, so value enumeration and state math run once per schema, not per block.
+ */
+public final class GamePropertyIndex {
+    // Current snapshot, replaced atomically when the registry changes
+    private static volatile GamePropertyIndex current;
+
+    // Shared schema table, indexed by schema ID (ID 0 is the empty schema)
+    private final List<PropertySchema> schemas;
+    // Key: Normalized block ID (e.g., "minecraft:oak_fence")
+    // Value: ID of the block's schema
+    private final Map<String, Integer> schemaIds;
+    private final Map<Block, Integer> blockSchemaIds;
+    private final String modHash;
+
+    private GamePropertyIndex(List<PropertySchema> schemas, Map<String, Integer> schemaIds, Map<Block, Integer> blockSchemaIds, String modHash) {
+        this.schemas = schemas;
+        this.schemaIds = schemaIds;
+        this.blockSchemaIds = blockSchemaIds;
+        this.modHash = modHash;
+    }
+
+    /**
+     * Gets the index for the current registry snapshot, building it if needed
+     *
+     * @return The shared game property index
+     */
+    public static GamePropertyIndex get() {
+        String modHash = BlockRegistryCacheManager.getModHash();
+        GamePropertyIndex index = current;
+        if (index != null && index.modHash.equals(modHash)) {
+            AnalysisCounters.GAME_PROPERTY_INDEX.hit();
+            return index;
+        }
+
+        synchronized (GamePropertyIndex.class) {
+            index = current;
+            if (index == null || !index.modHash.equals(modHash)) {
+                AnalysisCounters.GAME_PROPERTY_INDEX.miss();
+                index = build(modHash);
+                current = index;
+            } else {
+                AnalysisCounters.GAME_PROPERTY_INDEX.hit();
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Drops the current snapshot so the next lookup rebuilds it.
+     * Should be called when the block registry changes.
+     */
+    public static void invalidate() {
+        current = null;
+        EuphoriaCompanion.LOGGER.debug("Invalidated game property index");
+    }
+
+    private static GamePropertyIndex build(String modHash) {
+        long start = System.nanoTime();
+        List<PropertySchema> schemas = new ArrayList<>();
+        schemas.add(PropertySchema.EMPTY);
+
+        // Blocks usually share the same Property instances, so intern on those first to skip value
+        // enumeration entirely, then on the canonical name -> values form to merge look-alikes
+        Map<List<Property<?>>, PropertySchema> byPropertyList = new HashMap<>();
+        Map<Map<String, Set<String>>, PropertySchema> byCanonicalForm = new HashMap<>();
+        Map<String, Integer> schemaIds = new HashMap<>();
+        Map<Block, Integer> blockSchemaIds = new HashMap<>();
+
+        for (Block block : Registries.BLOCK) {
+            String blockId = Registries.BLOCK.getId(block).toString();
+            try {
+                List<Property<?>> blockProperties = List.copyOf(block.getStateManager().getProperties());
+                PropertySchema schema = blockProperties.isEmpty() ? PropertySchema.EMPTY : byPropertyList.get(blockProperties);
+
+                if (schema == null) {
+                    Map<String, Set<String>> propertyValues = new HashMap<>();
+                    for (Property<?> property : blockProperties) {
+                        Set<String> values = new HashSet<>();
+                        for (Comparable<?> value : BlockPropertyExtractor.getPropertyValuesViaReflection(property)) {
+                            // Normalize to lowercase for consistent matching
+                            values.add(value.toString().toLowerCase(Locale.ROOT));
+                        }
+                        propertyValues.put(property.getName(), values);
+                    }
+
+                    schema = intern(propertyValues, schemas, byCanonicalForm);
+                    byPropertyList.put(blockProperties, schema);
+                }
+
+                schemaIds.put(blockId, schema.id());
+                blockSchemaIds.put(block, schema.id());
+            } catch (Exception e) {
+                EuphoriaCompanion.LOGGER.error("Error getting properties for block {}: {}", blockId, e.getMessage());
+            }
+        }
+
+        EuphoriaCompanion.LOGGER.debug("Built game property index for {} blocks with {} distinct schemas in {} ms", schemaIds.size(), schemas.size(), (System.nanoTime() - start) / 1_000_000);
+        return new GamePropertyIndex(List.copyOf(schemas), Map.copyOf(schemaIds), Map.copyOf(blockSchemaIds), modHash);
+    }
+
+    /**
+     * Builds an index from block property values that were captured earlier, for example from a
+     * {@link RegistrySnapshot}. Does not touch the game registry.
+     *
+     * @param blockProperties Map of full block ID to property name to lowercase values
+     * @param modHash         Hash of the mod list the properties were captured with
+     * @return The new index
+     */
+    public static GamePropertyIndex create(Map<String, Map<String, Set<String>>> blockProperties, String modHash) {
+        List<PropertySchema> schemas = new ArrayList<>();
+        schemas.add(PropertySchema.EMPTY);
+        Map<Map<String, Set<String>>, PropertySchema> byCanonicalForm = new HashMap<>();
+        Map<String, Integer> schemaIds = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, Set<String>>> entry : blockProperties.entrySet()) {
+            PropertySchema schema = entry.getValue().isEmpty() ? PropertySchema.EMPTY : intern(entry.getValue(), schemas, byCanonicalForm);
+            schemaIds.put(entry.getKey(), schema.id());
+        }
+
+        return new GamePropertyIndex(List.copyOf(schemas), Map.copyOf(schemaIds), Map.of(), modHash);
+    }
+
+    // Returns the shared schema for a canonical name -> values map, adding it to the table if new
+    private static PropertySchema intern(Map<String, Set<String>> propertyValues, List<PropertySchema> schemas, Map<Map<String, Set<String>>, PropertySchema> byCanonicalForm) {
+        PropertySchema schema = byCanonicalForm.get(propertyValues);
+        if (schema == null) {
+            schema = PropertySchema.create(schemas.size(), propertyValues);
+            schemas.add(schema);
+            byCanonicalForm.put(propertyValues, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Gets the schema of a block
+     *
+     * @param blockId The block identifier, with or without namespace
+     * @return The block's schema, or null if the block is unknown
+     */
+    public PropertySchema getSchema(String blockId) {
+        Integer id = schemaIds.get(blockId);
+        if (id == null && !blockId.contains(":")) {
+            id = schemaIds.get("minecraft:" + blockId);
+        }
+        return id != null ? schemas.get(id) : null;
+    }
+
+    /**
+     * Gets the schema of a block
+     *
+     * @param block The block
+     * @return The block's schema, or the empty schema if the block is unknown
+     */
+    public PropertySchema getSchema(Block block) {
+        Integer id = blockSchemaIds.get(block);
+        return id != null ? schemas.get(id) : PropertySchema.EMPTY;
+    }
+
+    /**
+     * Gets the shared schema table, indexed by schema ID
+     */
+    public List<PropertySchema> getSchemas() {
+        return schemas;
+    }
+
+    /**
+     * Gets all properties of a block and their possible values
+     *
+     * @param blockId The block identifier, with or without namespace
+     * @return Read-only map of property names to possible values, empty if the block is unknown
+     */
+    public Map<String, Set<String>> getProperties(String blockId) {
+        PropertySchema schema = getSchema(blockId);
+        return schema != null ? schema.properties() : Map.of();
+    }
+
+    /**
+     * Gets the possible values of a single block property
+     *
+     * @param blockId      The block identifier, with or without namespace
+     * @param propertyName The property name
+     * @return Read-only set of lowercase values, empty if the block or property is unknown
+     */
+    public Set<String> getValues(String blockId, String propertyName) {
+        Set<String> values = getProperties(blockId).get(propertyName);
+        return values != null ? values : Set.of();
+    }
+
+    /**
+     * Checks if the block exists in this snapshot
+     *
+     * @param blockId The normalized block identifier
+     * @return true if the block is registered
+     */
+    public boolean containsBlock(String blockId) {
+        return schemaIds.containsKey(blockId);
+    }
+
+    /**
+     * Gets the hash of the mod list this index was built for
+     */
+    public String getModHash() {
+        return modHash;
+    }
+
+    /**
+     * Gets the number of blocks in this snapshot
+     */
+    public int size() {
+        return schemaIds.size();
+    }
+}
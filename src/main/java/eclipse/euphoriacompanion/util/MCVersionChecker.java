@@ -21,44 +21,52 @@ public class MCVersionChecker {
 
         Optional<ModContainer> minecraftContainer = FabricLoader.getInstance().getModContainer("minecraft");
         if (minecraftContainer.isPresent()) {
-            String version = minecraftContainer.get().getMetadata().getVersion().getFriendlyString();
+            cachedVersion = parseVersion(minecraftContainer.get().getMetadata().getVersion().getFriendlyString());
+            return cachedVersion;
+        } else {
+            throw new RuntimeException("Could not get Minecraft version");
+        }
+    }
 
-            try {
-                String[] parts = version.split("\\.");
-                int major = Integer.parseInt(parts[0]);
-                int minor = Integer.parseInt(parts[1]);
+    /**
+     * Parses a Minecraft version string into the integer form used by version checks
+     *
+     * @param version The version string (e.g., "1.20.1")
+     * @return The version as an integer (e.g., 12001), or 99999 if it cannot be parsed
+     */
+    public static int parseVersion(String version) {
+        try {
+            String[] parts = version.split("\\.");
+            int major = Integer.parseInt(parts[0]);
+            int minor = Integer.parseInt(parts[1]);
 
-                // Handle patch version with potential pre-release suffix
-                int patch = 0;
-                if (parts.length > 2) {
-                    // Extract just the numeric part by splitting at first non-digit character
-                    String patchStr = parts[2];
-                    if (patchStr.contains("-")) {
-                        // If there's a pre-release suffix (like "5-rc"), take just the number part
-                        String[] patchParts = patchStr.split("-", 2);
-                        patchStr = patchParts[0];
+            // Handle patch version with potential pre-release suffix
+            int patch = 0;
+            if (parts.length > 2) {
+                // Extract just the numeric part by splitting at first non-digit character
+                String patchStr = parts[2];
+                if (patchStr.contains("-")) {
+                    // If there's a pre-release suffix (like "5-rc"), take just the number part
+                    String[] patchParts = patchStr.split("-", 2);
+                    patchStr = patchParts[0];
 
-                        // Log error if we detect a snapshot/pre-release
-                        if (patchParts.length > 1) {
-                            EuphoriaCompanion.LOGGER.error("Detected snapshot/pre-release version: {}. Using only the numeric part.", version);
-                        }
-                    }
-                    try {
-                        patch = Integer.parseInt(patchStr);
-                    } catch (NumberFormatException e) {
-                        EuphoriaCompanion.LOGGER.error("Couldn't parse patch version from {}, using 0", patchStr);
+                    // Log error if we detect a snapshot/pre-release
+                    if (patchParts.length > 1) {
+                        EuphoriaCompanion.LOGGER.error("Detected snapshot/pre-release version: {}. Using only the numeric part.", version);
                     }
                 }
-
-                cachedVersion = major * 10000 + minor * 100 + patch;
-                return cachedVersion;
-            } catch (Exception e) {
-                EuphoriaCompanion.LOGGER.error("Failed to parse Minecraft version: {}. Assuming latest version.", version, e);
-                // Return very high version number to assume it's the latest version
-                return 99999; // This will pass any version check
+                try {
+                    patch = Integer.parseInt(patchStr);
+                } catch (NumberFormatException e) {
+                    EuphoriaCompanion.LOGGER.error("Couldn't parse patch version from {}, using 0", patchStr);
+                }
             }
-        } else {
-            throw new RuntimeException("Could not get Minecraft version");
+
+            return major * 10000 + minor * 100 + patch;
+        } catch (Exception e) {
+            EuphoriaCompanion.LOGGER.error("Failed to parse Minecraft version: {}. Assuming latest version.", version, e);
+            // Return very high version number to assume it's the latest version
+            return 99999; // This will pass any version check
         }
     }
 
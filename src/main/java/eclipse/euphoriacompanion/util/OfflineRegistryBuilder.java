@@ -0,0 +1,323 @@
+package eclipse.euphoriacompanion.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reconstructs an approximate registry snapshot from the blockstate definitions in mod jars and
+ * the vanilla client jar, without launching the game.
+ * <p>
+ * Every {@code assets/<namespace>/blockstates/<block>.json} entry becomes a block, with properties
+ * collected from variant keys and multipart conditions. This is an approximation: blocks without a
+ * blockstate file are missed, multipart definitions may not mention every value (boolean properties
+ * are completed to true/false), and render categories are unknown, so every block is reported as
+ * solid.
+ */
+public class OfflineRegistryBuilder {
+    public static final String CACHE_FILENAME = "offline_registry_snapshot.json";
+    private static final String ASSETS_DIR = "assets/";
+    private static final String BLOCKSTATES_DIR = "blockstates/";
+    // Fabric bundles jar-in-jar dependencies here, and some mods ship their blocks in them
+    private static final String NESTED_JARS_DIR = "META-INF/jars/";
+    private static final Set<String> BOOLEAN_VALUES = Set.of("true", "false");
+
+    /**
+     * Builds a snapshot from every jar in a mods directory and the vanilla client jar, reusing the
+     * cached result if none of the jars changed.
+     *
+     * @param modsDir      Directory containing mod jars, or null to only scan the client jar
+     * @param minecraftJar The vanilla client jar, or null if unavailable
+     * @param cacheDir     Directory for the cached snapshot
+     * @return The reconstructed snapshot
+     * @throws IOException If the mods directory cannot be listed
+     */
+    public static RegistrySnapshot build(@Nullable Path modsDir, @Nullable Path minecraftJar, Path cacheDir) throws IOException {
+        List<Path> jars = listJars(modsDir);
+        if (minecraftJar != null) {
+            jars.add(0, minecraftJar);
+        }
+        String modHash = hashJars(jars);
+
+        // Reuse the previous result while the jar set is unchanged
+        Path cacheFile = cacheDir.resolve(CACHE_FILENAME);
+        if (Files.exists(cacheFile)) {
+            try {
+                RegistrySnapshot cached = RegistrySnapshot.load(cacheFile);
+                if (cached.getModHash().equals(modHash)) {
+                    EuphoriaCompanion.LOGGER.info("Using cached offline registry from {}", cacheFile);
+                    return cached;
+                }
+                EuphoriaCompanion.LOGGER.info("Offline registry cache is stale (mod jars have changed)");
+            } catch (IOException e) {
+                EuphoriaCompanion.LOGGER.warn("Failed to read offline registry cache: {}", e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        int mcVersion = minecraftJar != null ? readMinecraftVersion(minecraftJar) : 99999;
+        Map<String, Map<String, Set<String>>> blockProperties = scanJars(jars);
+
+        // Multipart definitions often only mention one side of a boolean
+        for (Map<String, Set<String>> properties : blockProperties.values()) {
+            for (Set<String> values : properties.values()) {
+                if (BOOLEAN_VALUES.containsAll(values)) {
+                    values.addAll(BOOLEAN_VALUES);
+                }
+            }
+        }
+
+        Map<String, BlockRenderCategory> categories = new HashMap<>();
+        for (String blockId : blockProperties.keySet()) {
+            categories.put(blockId, BlockRenderCategory.SOLID);
+        }
+
+        RegistrySnapshot snapshot = RegistrySnapshot.create(mcVersion, modHash, blockProperties, categories);
+        EuphoriaCompanion.LOGGER.info("Reconstructed {} blocks from {} jars in {} ms", blockProperties.size(), jars.size(), (System.nanoTime() - start) / 1_000_000);
+
+        try {
+            Files.createDirectories(cacheDir);
+            snapshot.save(cacheFile);
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.warn("Failed to write offline registry cache: {}", e.getMessage());
+        }
+        return snapshot;
+    }
+
+    private static List<Path> listJars(@Nullable Path modsDir) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        if (modsDir == null || !Files.isDirectory(modsDir)) {
+            return jars;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(modsDir, "*.jar")) {
+            for (Path jar : stream) {
+                jars.add(jar);
+            }
+        }
+        Collections.sort(jars);
+        return jars;
+    }
+
+    // Identifies the jar set by name, size and modification time, so unchanged jars are never opened
+    private static String hashJars(List<Path> jars) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Path jar : jars) {
+                String key = jar.getFileName() + ":" + Files.size(jar) + ":" + Files.getLastModifiedTime(jar).toMillis() + ";";
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to hash mod jars", e);
+            return "unknown-" + System.currentTimeMillis();
+        }
+    }
+
+    private static Map<String, Map<String, Set<String>>> scanJars(List<Path> jars) {
+        Map<String, Map<String, Set<String>>> merged = new HashMap<>();
+        if (jars.isEmpty()) {
+            return merged;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(jars.size(), Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "OfflineRegistryThread-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            List<CompletableFuture<Map<String, Map<String, Set<String>>>>> futures = new ArrayList<>();
+            for (Path jar : jars) {
+                futures.add(CompletableFuture.supplyAsync(() -> scanJar(jar), executor));
+            }
+
+            // Merge in jar order, combining the values of blocks defined by more than one jar
+            for (CompletableFuture<Map<String, Map<String, Set<String>>>> future : futures) {
+                for (Map.Entry<String, Map<String, Set<String>>> block : future.join().entrySet()) {
+                    Map<String, Set<String>> properties = merged.computeIfAbsent(block.getKey(), k -> new HashMap<>());
+                    for (Map.Entry<String, Set<String>> property : block.getValue().entrySet()) {
+                        properties.computeIfAbsent(property.getKey(), k -> new HashSet<>()).addAll(property.getValue());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return merged;
+    }
+
+    /**
+     * Reads the blockstate definitions of a single jar.
+     * Entries are looked up through the jar's central directory, so only blockstate files are read.
+     */
+    private static Map<String, Map<String, Set<String>>> scanJar(Path jar) {
+        Map<String, Map<String, Set<String>>> blocks = new HashMap<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String blockId = getBlockId(entry.getName());
+                if (blockId != null) {
+                    try (Reader reader = new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8)) {
+                        readBlockstate(blockId, reader, blocks);
+                    }
+                } else if (entry.getName().startsWith(NESTED_JARS_DIR) && entry.getName().endsWith(".jar")) {
+                    try (ZipInputStream nested = new ZipInputStream(zip.getInputStream(entry))) {
+                        scanNestedJar(nested, blocks);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to read jar {}", jar, e);
+        }
+        return blocks;
+    }
+
+    // Nested jars have no random access, so their entries are streamed
+    private static void scanNestedJar(ZipInputStream nested, Map<String, Map<String, Set<String>>> blocks) throws IOException {
+        ZipEntry entry;
+        while ((entry = nested.getNextEntry()) != null) {
+            String blockId = getBlockId(entry.getName());
+            if (blockId != null) {
+                // Not closed, closing would end the outer stream; reads stop at the end of the entry
+                readBlockstate(blockId, new InputStreamReader(nested, StandardCharsets.UTF_8), blocks);
+            }
+        }
+    }
+
+    /**
+     * Converts a jar entry name into a block ID
+     *
+     * @param entryName Entry name such as "assets/minecraft/blockstates/oak_log.json"
+     * @return The block ID (e.g., "minecraft:oak_log"), or null if the entry is not a blockstate file
+     */
+    private static @Nullable String getBlockId(String entryName) {
+        if (!entryName.startsWith(ASSETS_DIR) || !entryName.endsWith(".json")) {
+            return null;
+        }
+        int namespaceEnd = entryName.indexOf('/', ASSETS_DIR.length());
+        if (namespaceEnd < 0 || !entryName.startsWith(BLOCKSTATES_DIR, namespaceEnd + 1)) {
+            return null;
+        }
+        String namespace = entryName.substring(ASSETS_DIR.length(), namespaceEnd);
+        String path = entryName.substring(namespaceEnd + 1 + BLOCKSTATES_DIR.length(), entryName.length() - ".json".length());
+        return path.isEmpty() ? null : namespace + ":" + path;
+    }
+
+    private static void readBlockstate(String blockId, Reader reader, Map<String, Map<String, Set<String>>> blocks) {
+        JsonElement root;
+        try {
+            root = JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            EuphoriaCompanion.LOGGER.warn("Skipping invalid blockstate file for {}: {}", blockId, e.getMessage());
+            return;
+        }
+        if (!root.isJsonObject()) {
+            return;
+        }
+
+        Map<String, Set<String>> properties = blocks.computeIfAbsent(blockId, k -> new HashMap<>());
+        JsonObject definition = root.getAsJsonObject();
+
+        // Variant keys look like "facing=north,half=top"; "" and "normal" mean no properties
+        JsonElement variants = definition.get("variants");
+        if (variants != null && variants.isJsonObject()) {
+            for (String key : variants.getAsJsonObject().keySet()) {
+                for (String pair : key.split(",")) {
+                    int equals = pair.indexOf('=');
+                    if (equals > 0) {
+                        addValue(properties, pair.substring(0, equals), pair.substring(equals + 1));
+                    }
+                }
+            }
+        }
+
+        JsonElement multipart = definition.get("multipart");
+        if (multipart != null && multipart.isJsonArray()) {
+            for (JsonElement part : multipart.getAsJsonArray()) {
+                if (part.isJsonObject() && part.getAsJsonObject().has("when")) {
+                    readCondition(part.getAsJsonObject().get("when"), properties);
+                }
+            }
+        }
+    }
+
+    // Multipart conditions map properties to "a|b" value lists, possibly nested in OR/AND arrays
+    private static void readCondition(JsonElement condition, Map<String, Set<String>> properties) {
+        if (condition.isJsonArray()) {
+            for (JsonElement element : condition.getAsJsonArray()) {
+                readCondition(element, properties);
+            }
+            return;
+        }
+        if (!condition.isJsonObject()) {
+            return;
+        }
+
+        for (Map.Entry<String, JsonElement> entry : condition.getAsJsonObject().entrySet()) {
+            if (entry.getKey().equals("OR") || entry.getKey().equals("AND")) {
+                readCondition(entry.getValue(), properties);
+            } else if (entry.getValue().isJsonPrimitive()) {
+                for (String value : entry.getValue().getAsString().split("\\|")) {
+                    addValue(properties, entry.getKey(), value);
+                }
+            }
+        }
+    }
+
+    private static void addValue(Map<String, Set<String>> properties, String name, String value) {
+        String trimmed = value.trim();
+        if (!trimmed.isEmpty()) {
+            // Normalize to lowercase for consistent matching
+            properties.computeIfAbsent(name.trim(), k -> new HashSet<>()).add(trimmed.toLowerCase());
+        }
+    }
+
+    // The client jar's version.json names the game version, e.g. {"id": "1.20.1", ...}
+    private static int readMinecraftVersion(Path minecraftJar) {
+        try (ZipFile zip = new ZipFile(minecraftJar.toFile())) {
+            ZipEntry entry = zip.getEntry("version.json");
+            if (entry != null) {
+                try (InputStream in = zip.getInputStream(entry)) {
+                    JsonObject version = JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)).getAsJsonObject();
+                    JsonElement id = version.has("id") ? version.get("id") : version.get("name");
+                    if (id != null) {
+                        return MCVersionChecker.parseVersion(id.getAsString());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            EuphoriaCompanion.LOGGER.error("Failed to read the Minecraft version from {}", minecraftJar, e);
+        }
+        EuphoriaCompanion.LOGGER.warn("Minecraft version unknown, assuming the latest version");
+        return 99999;
+    }
+}
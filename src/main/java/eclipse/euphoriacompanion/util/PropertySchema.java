@@ -0,0 +1,66 @@
+package eclipse.euphoriacompanion.util;
+
+import java.util.*;
+
+/**
+ * A canonical block property schema, shared by every block with the same property names and values.
+ * For example, all stairs share one schema for facing/half/shape/waterlogged.
+ *
+ * @param id              Index of this schema in the {@link GamePropertyIndex} schema table
+ * @param properties      Read-only map of property name to all possible lowercase values
+ * @param stateProperties Every name=value pair that occurs in at least one state
+ * @param stateCount      Number of block states described by this schema
+ */
+public record PropertySchema(int id, Map<String, Set<String>> properties, Set<BlockPropertyExtractor.BlockStateProperty> stateProperties, long stateCount) {
+    public static final PropertySchema EMPTY = new PropertySchema(0, Map.of(), Set.of(), 1);
+
+    /**
+     * Creates a schema from a property name to values map, computing the derived data once
+     *
+     * @param id         The schema ID
+     * @param properties Map of property name to lowercase values
+     * @return The new schema
+     */
+    static PropertySchema create(int id, Map<String, Set<String>> properties) {
+        Map<String, Set<String>> copy = new HashMap<>();
+        Set<BlockPropertyExtractor.BlockStateProperty> stateProperties = new HashSet<>();
+        long stateCount = 1;
+
+        for (Map.Entry<String, Set<String>> entry : properties.entrySet()) {
+            copy.put(entry.getKey(), Set.copyOf(entry.getValue()));
+            for (String value : entry.getValue()) {
+                stateProperties.add(new BlockPropertyExtractor.BlockStateProperty(entry.getKey(), value));
+            }
+            stateCount *= Math.max(1, entry.getValue().size());
+        }
+
+        return new PropertySchema(id, Map.copyOf(copy), Set.copyOf(stateProperties), stateCount);
+    }
+
+    /**
+     * Checks if a property value is possible under this schema
+     *
+     * @param name  The property name
+     * @param value The property value, compared case-insensitively
+     * @return true if some state has this property value
+     */
+    public boolean supports(String name, String value) {
+        Set<String> values = properties.get(name);
+        return values != null && values.contains(value.toLowerCase());
+    }
+
+    /**
+     * Checks if every given property value is possible under this schema
+     *
+     * @param required The property values to check
+     * @return true if all values are supported
+     */
+    public boolean supportsAll(Set<BlockPropertyExtractor.BlockStateProperty> required) {
+        for (BlockPropertyExtractor.BlockStateProperty property : required) {
+            if (!supports(property.name(), property.value())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,425 @@
+package eclipse.euphoriacompanion.util;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.report.BlockCensus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Counts the block states in a saved world's region files, without launching the game, so
+ * missing blocks can be ranked by how often they occur in a world that was never explored
+ * in game.
+ * <p>
+ * Every {@code r.<x>.<z>.mca} file under the world's region folders, including the Nether, the
+ * End and datapack dimensions, is scanned on its own thread. The region header's offset table
+ * locates each chunk, which is read through a file channel and decompressed on its own. Chunk NBT is
+ * streamed rather than loaded: only the {@code block_states} palette and packed indices of each
+ * section are read and everything else is skipped, so memory stays at one chunk per thread.
+ * Chunks saved before 1.18, which have no {@code block_states}, are not counted.
+ */
+public final class RegionScanner {
+    private static final int SECTOR_SIZE = 4096;
+    private static final int CHUNKS_PER_REGION = 1024;
+    private static final int BLOCKS_PER_SECTION = 4096;
+    // Compression types of the chunk header; 128 is added when the chunk is stored in a .mcc file
+    private static final int GZIP = 1;
+    private static final int ZLIB = 2;
+    private static final int UNCOMPRESSED = 3;
+    private static final int EXTERNAL = 128;
+    // r.<regionX>.<regionZ>.mca; copies and backups with other names are not scanned
+    private static final Pattern REGION_FILE_NAME = Pattern.compile("r\\.(-?\\d{1,7})\\.(-?\\d{1,7})\\.mca");
+    private static final Set<String> AIR_BLOCKS = Set.of("minecraft:air", "minecraft:cave_air", "minecraft:void_air");
+
+    // NBT tag types
+    private static final int TAG_END = 0;
+    private static final int TAG_STRING = 8;
+    private static final int TAG_LIST = 9;
+    private static final int TAG_COMPOUND = 10;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    private RegionScanner() {
+    }
+
+    /**
+     * Scans every region file of a saved world
+     *
+     * @param worldDir The world's save directory, e.g. saves/My World
+     * @return How often each block state occurs in the world
+     * @throws IOException If the world directory cannot be listed
+     */
+    public static BlockCensus scan(Path worldDir) throws IOException {
+        List<Path> regionFiles;
+        try (Stream<Path> walk = Files.walk(worldDir, 5)) {
+            regionFiles = walk.filter(RegionScanner::isRegionFile).sorted().toList();
+        }
+        EuphoriaCompanion.LOGGER.info("Scanning {} region files in {}", regionFiles.size(), worldDir);
+
+        Map<String, LongAdder> stateCounts = new ConcurrentHashMap<>();
+        AtomicLong chunks = new AtomicLong();
+        AtomicLong chunkNanos = new AtomicLong();
+        AtomicLong maxChunkNanos = new AtomicLong();
+        long start = System.nanoTime();
+
+        if (!regionFiles.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(regionFiles.size(), Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "RegionScanThread-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+            try {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (Path regionFile : regionFiles) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        RegionCounts counts = scanRegion(regionFile);
+                        // Merge once per region so threads rarely contend on the shared map
+                        for (Map.Entry<String, long[]> entry : counts.states.entrySet()) {
+                            stateCounts.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue()[0]);
+                        }
+                        chunks.addAndGet(counts.chunks);
+                        chunkNanos.addAndGet(counts.nanos);
+                        maxChunkNanos.accumulateAndGet(counts.maxNanos, Math::max);
+                    }, executor));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        Map<String, Long> totals = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : stateCounts.entrySet()) {
+            totals.put(entry.getKey(), entry.getValue().sum());
+        }
+        long chunkCount = chunks.get();
+        EuphoriaCompanion.LOGGER.info("Scanned {} chunks with {} distinct block states in {} ms", chunkCount, totals.size(), (System.nanoTime() - start) / 1_000_000);
+        return BlockCensus.create(worldDir.toString(), chunkCount, totals, chunkCount > 0 ? chunkNanos.get() / 1000.0 / chunkCount : 0, maxChunkNanos.get() / 1000.0);
+    }
+
+    private static boolean isRegionFile(Path path) {
+        Path parent = path.getParent();
+        String name = path.getFileName().toString();
+        if (parent == null || parent.getFileName() == null || !parent.getFileName().toString().equals("region") || !name.endsWith(".mca")) {
+            return false;
+        }
+        if (!REGION_FILE_NAME.matcher(name).matches()) {
+            EuphoriaCompanion.LOGGER.warn("Skipping {}, region files are named r.<x>.<z>.mca", path);
+            return false;
+        }
+        return Files.isRegularFile(path);
+    }
+
+    /**
+     * Block state counts of one region file
+     */
+    private static final class RegionCounts {
+        // Single-element arrays so counts are updated without boxing
+        final Map<String, long[]> states = new HashMap<>();
+        long chunks;
+        long nanos;
+        long maxNanos;
+    }
+
+    private static RegionCounts scanRegion(Path regionFile) {
+        RegionCounts counts = new RegionCounts();
+        try (FileChannel channel = FileChannel.open(regionFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SECTOR_SIZE);
+            if (readFully(channel, header, 0) < SECTOR_SIZE) {
+                return counts;
+            }
+
+            // Visit chunks in file order so reads move forward through the file
+            List<long[]> locations = new ArrayList<>();
+            for (int index = 0; index < CHUNKS_PER_REGION; index++) {
+                int location = header.getInt(index * 4);
+                int sector = location >>> 8;
+                if (sector >= 2 && (location & 0xFF) > 0) {
+                    locations.add(new long[]{sector, index, location & 0xFF});
+                }
+            }
+            locations.sort(Comparator.comparingLong(location -> location[0]));
+
+            ByteBuffer chunkHeader = ByteBuffer.allocate(5);
+            ByteBuffer data = ByteBuffer.allocate(SECTOR_SIZE);
+            for (long[] location : locations) {
+                long chunkStart = System.nanoTime();
+                long position = location[0] * SECTOR_SIZE;
+                chunkHeader.clear();
+                if (readFully(channel, chunkHeader, position) < 5) {
+                    continue;
+                }
+                // The length counts the compression byte; a corrupt one must not size the buffer
+                int storedLength = chunkHeader.getInt(0);
+                if (storedLength < 1 || storedLength + 4L > location[2] * SECTOR_SIZE) {
+                    EuphoriaCompanion.LOGGER.debug("Skipping chunk {} in {}: length {} does not fit its {} sectors", location[1], regionFile, storedLength, location[2]);
+                    continue;
+                }
+                int length = storedLength - 1;
+                int compression = chunkHeader.get(4) & 0xFF;
+
+                byte[] bytes;
+                int size;
+                if ((compression & EXTERNAL) != 0) {
+                    // Chunks over 1 MB are stored next to the region file as c.<x>.<z>.mcc
+                    bytes = Files.readAllBytes(externalChunkFile(regionFile, (int) location[1]));
+                    size = bytes.length;
+                    compression &= ~EXTERNAL;
+                } else {
+                    if (data.capacity() < length) {
+                        data = ByteBuffer.allocate(length);
+                    }
+                    data.clear().limit(length);
+                    size = readFully(channel, data, position + 5);
+                    bytes = data.array();
+                }
+
+                try (InputStream stream = decompress(new ByteArrayInputStream(bytes, 0, size), compression)) {
+                    if (stream == null) {
+                        continue;
+                    }
+                    countChunk(new DataInputStream(new BufferedInputStream(stream)), counts.states);
+                    counts.chunks++;
+                } catch (IOException e) {
+                    EuphoriaCompanion.LOGGER.debug("Skipping unreadable chunk {} in {}: {}", location[1], regionFile, e.getMessage());
+                }
+                long elapsed = System.nanoTime() - chunkStart;
+                counts.nanos += elapsed;
+                counts.maxNanos = Math.max(counts.maxNanos, elapsed);
+            }
+        } catch (IOException e) {
+            EuphoriaCompanion.LOGGER.warn("Failed to read region file {}", regionFile, e);
+        }
+        return counts;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static Path externalChunkFile(Path regionFile, int index) throws IOException {
+        Matcher name = REGION_FILE_NAME.matcher(regionFile.getFileName().toString());
+        if (!name.matches()) {
+            throw new IOException("Unexpected region file name " + regionFile.getFileName());
+        }
+        int chunkX = Integer.parseInt(name.group(1)) * 32 + (index & 31);
+        int chunkZ = Integer.parseInt(name.group(2)) * 32 + (index >> 5);
+        return regionFile.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+    }
+
+    private static InputStream decompress(InputStream stream, int compression) throws IOException {
+        return switch (compression) {
+            case GZIP -> new GZIPInputStream(stream);
+            case ZLIB -> new InflaterInputStream(stream);
+            case UNCOMPRESSED -> stream;
+            // LZ4 and custom compression need libraries the mod does not ship
+            default -> null;
+        };
+    }
+
+    /**
+     * Reads a chunk's root compound, descending only into its sections
+     */
+    private static void countChunk(DataInputStream in, Map<String, long[]> states) throws IOException {
+        if (in.readByte() != TAG_COMPOUND) {
+            return;
+        }
+        skipString(in);
+        int type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_LIST && name.equals("sections")) {
+                int elementType = in.readByte();
+                int length = in.readInt();
+                for (int i = 0; i < length; i++) {
+                    if (elementType == TAG_COMPOUND) {
+                        countSection(in, states);
+                    } else {
+                        skipPayload(in, elementType);
+                    }
+                }
+            } else {
+                skipPayload(in, type);
+            }
+        }
+    }
+
+    private static void countSection(DataInputStream in, Map<String, long[]> states) throws IOException {
+        int type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_COMPOUND && name.equals("block_states")) {
+                countBlockStates(in, states);
+            } else {
+                skipPayload(in, type);
+            }
+        }
+    }
+
+    private static void countBlockStates(DataInputStream in, Map<String, long[]> states) throws IOException {
+        List<String> palette = List.of();
+        long[] data = null;
+        int type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_LIST && name.equals("palette")) {
+                int elementType = in.readByte();
+                int length = in.readInt();
+                List<String> entries = new ArrayList<>(Math.min(length, BLOCKS_PER_SECTION));
+                for (int i = 0; i < length; i++) {
+                    if (elementType == TAG_COMPOUND) {
+                        entries.add(readPaletteEntry(in));
+                    } else {
+                        skipPayload(in, elementType);
+                    }
+                }
+                palette = entries;
+            } else if (type == TAG_LONG_ARRAY && name.equals("data")) {
+                int length = in.readInt();
+                // A section never needs more than one long per block, more means it is corrupt
+                if (length < 0 || length > BLOCKS_PER_SECTION) {
+                    throw new IOException("Invalid block state data length " + length);
+                }
+                data = new long[length];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = in.readLong();
+                }
+            } else {
+                skipPayload(in, type);
+            }
+        }
+
+        // Without indices, which of several states each block has is unknown
+        if (palette.isEmpty() || (palette.size() > 1 && data == null)) {
+            return;
+        }
+        long[] paletteCounts = new long[palette.size()];
+        if (palette.size() == 1) {
+            // A single-state section stores no indices
+            paletteCounts[0] = BLOCKS_PER_SECTION;
+        } else {
+            // Indices are packed low bits first and never span two longs
+            int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(palette.size() - 1));
+            int perLong = 64 / bits;
+            long mask = (1L << bits) - 1;
+            for (int i = 0; i < BLOCKS_PER_SECTION; i++) {
+                int word = i / perLong;
+                if (word >= data.length) {
+                    break;
+                }
+                int index = (int) ((data[word] >>> ((i % perLong) * bits)) & mask);
+                if (index < paletteCounts.length) {
+                    paletteCounts[index]++;
+                }
+            }
+        }
+
+        for (int i = 0; i < paletteCounts.length; i++) {
+            String state = palette.get(i);
+            if (paletteCounts[i] > 0 && state != null) {
+                states.computeIfAbsent(state, k -> new long[1])[0] += paletteCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Reads one palette compound into a census key
+     *
+     * @return The key, or null for air
+     */
+    private static @Nullable String readPaletteEntry(DataInputStream in) throws IOException {
+        String blockId = null;
+        SortedMap<String, String> properties = new TreeMap<>();
+        int type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_STRING && name.equals("Name")) {
+                blockId = in.readUTF();
+            } else if (type == TAG_COMPOUND && name.equals("Properties")) {
+                int propertyType;
+                while ((propertyType = in.readByte()) != TAG_END) {
+                    String property = in.readUTF();
+                    if (propertyType == TAG_STRING) {
+                        properties.put(property, in.readUTF().toLowerCase(Locale.ROOT));
+                    } else {
+                        skipPayload(in, propertyType);
+                    }
+                }
+            } else {
+                skipPayload(in, type);
+            }
+        }
+        if (blockId == null || AIR_BLOCKS.contains(blockId)) {
+            return null;
+        }
+        return BlockCensus.stateKey(blockId.contains(":") ? blockId : "minecraft:" + blockId, properties);
+    }
+
+    private static void skipString(DataInputStream in) throws IOException {
+        in.skipNBytes(in.readUnsignedShort());
+    }
+
+    private static void skipPayload(DataInputStream in, int type) throws IOException {
+        switch (type) {
+            case 1 -> in.skipNBytes(1);
+            case 2 -> in.skipNBytes(2);
+            case 3, 5 -> in.skipNBytes(4);
+            case 4, 6 -> in.skipNBytes(8);
+            case 7 -> in.skipNBytes(in.readInt());
+            case TAG_STRING -> skipString(in);
+            case TAG_LIST -> {
+                int elementType = in.readByte();
+                int length = in.readInt();
+                for (int i = 0; i < length; i++) {
+                    skipPayload(in, elementType);
+                }
+            }
+            case TAG_COMPOUND -> {
+                int elementType;
+                while ((elementType = in.readByte()) != TAG_END) {
+                    skipString(in);
+                    skipPayload(in, elementType);
+                }
+            }
+            case 11 -> in.skipNBytes(4L * in.readInt());
+            case TAG_LONG_ARRAY -> in.skipNBytes(8L * in.readInt());
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package eclipse.euphoriacompanion.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.perf.AnalysisEvents;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Self-contained copy of everything the analysis needs from the game: block IDs by mod, the
+ * property values of every block, render categories, item and entity IDs and the Minecraft
+ * version.
+ * <p>
+ * In game a snapshot is captured from the live registry. Saved to JSON it lets the same analysis
+ * run without Minecraft, see {@link eclipse.euphoriacompanion.cli.HeadlessAnalyzer}. Only
+ * {@link #capture()} touches game classes.
+ */
+public final class RegistrySnapshot {
+    public static final String SNAPSHOT_FILENAME = "registry_snapshot.json";
+    private static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private final int mcVersion;
+    private final String modHash;
+    private final Map<String, List<String>> blocksByMod;
+    private final Set<String> gameBlocks;
+    private final GamePropertyIndex propertyIndex;
+    // Key: Full block ID (e.g., "minecraft:oak_fence")
+    private final Map<String, BlockRenderCategory> categories;
+    // Empty when the source of the snapshot had no item or entity registry
+    private final Set<String> gameItems;
+    private final Set<String> gameEntities;
+
+    // The item and entity registries are frozen at startup, so they are indexed once per session
+    private static volatile Set<String> sessionItems;
+    private static volatile Set<String> sessionEntities;
+
+    private RegistrySnapshot(int mcVersion, String modHash, Map<String, List<String>> blocksByMod, Set<String> gameBlocks, GamePropertyIndex propertyIndex, Map<String, BlockRenderCategory> categories, Set<String> gameItems, Set<String> gameEntities) {
+        this.mcVersion = mcVersion;
+        this.modHash = modHash;
+        this.blocksByMod = blocksByMod;
+        this.gameBlocks = gameBlocks;
+        this.propertyIndex = propertyIndex;
+        this.categories = categories;
+        this.gameItems = gameItems;
+        this.gameEntities = gameEntities;
+    }
+
+    /**
+     * Captures a snapshot of the running game's block registry
+     *
+     * @return The snapshot
+     */
+    public static RegistrySnapshot capture() {
+        Map<String, List<String>> blocksByMod = new TreeMap<>();
+        Set<String> gameBlocks = BlockRegistryHelper.getGameBlocks(blocksByMod);
+
+        // Ensure blocks are categorized
+        AnalysisEvents.Categorization categorizationEvent = AnalysisEvents.Categorization.start();
+        if (BlockRenderHelper.getBlocksInCategory(BlockRenderCategory.SOLID).isEmpty()) {
+            BlockRenderHelper.categorizeAllBlocks();
+        }
+
+        Map<String, BlockRenderCategory> categories = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : blocksByMod.entrySet()) {
+            String modId = entry.getKey();
+            for (String blockPath : entry.getValue()) {
+                // Use getOrEmpty for 1.21.4 compatibility
+                Optional<Block> blockOptional = Registries.BLOCK.getOrEmpty(Identifier.of(modId, blockPath));
+                blockOptional.ifPresent(block -> categories.put(modId + ":" + blockPath, BlockRenderHelper.getRenderCategory(block)));
+            }
+        }
+        // The render categories are shared by every pack's reports
+        categorizationEvent.finish(AnalysisEvents.ALL_PACKS, categories.size());
+
+        if (sessionItems == null) {
+            sessionItems = indexIds(Registries.ITEM.getIds());
+            sessionEntities = indexIds(Registries.ENTITY_TYPE.getIds());
+        }
+
+        return new RegistrySnapshot(MCVersionChecker.getMCVersion(), BlockRegistryCacheManager.getModHash(), freeze(blocksByMod), Collections.unmodifiableSet(gameBlocks), GamePropertyIndex.get(), Map.copyOf(categories), sessionItems, sessionEntities);
+    }
+
+    private static Set<String> indexIds(Set<Identifier> ids) {
+        Set<String> result = new HashSet<>(ids.size() * 2);
+        for (Identifier id : ids) {
+            result.add(id.toString());
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Creates a snapshot from block data gathered outside the game
+     *
+     * @param mcVersion       The Minecraft version as an integer
+     * @param modHash         Hash identifying the mod set the data came from
+     * @param blockProperties Map of full block ID to property name to lowercase values
+     * @param categories      Render category of each block
+     * @return The snapshot
+     */
+    public static RegistrySnapshot create(int mcVersion, String modHash, Map<String, Map<String, Set<String>>> blockProperties, Map<String, BlockRenderCategory> categories) {
+        Map<String, List<String>> blocksByMod = new TreeMap<>();
+        for (String blockId : blockProperties.keySet()) {
+            int separator = blockId.indexOf(':');
+            blocksByMod.computeIfAbsent(blockId.substring(0, separator), k -> new ArrayList<>()).add(blockId.substring(separator + 1));
+        }
+        return new RegistrySnapshot(mcVersion, modHash, freeze(blocksByMod), Set.copyOf(blockProperties.keySet()), GamePropertyIndex.create(blockProperties, modHash), Map.copyOf(categories), Set.of(), Set.of());
+    }
+
+    /**
+     * Loads a snapshot saved by {@link #save(Path)}
+     *
+     * @param snapshotFile The snapshot file
+     * @return The snapshot
+     * @throws IOException If the file cannot be read or is not a valid snapshot
+     */
+    public static RegistrySnapshot load(Path snapshotFile) throws IOException {
+        SnapshotData data;
+        try (Reader reader = Files.newBufferedReader(snapshotFile)) {
+            data = GSON.fromJson(reader, SnapshotData.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid registry snapshot " + snapshotFile, e);
+        }
+        if (data == null || data.blocks == null || data.schemas == null) {
+            throw new IOException("Invalid registry snapshot " + snapshotFile);
+        }
+        if (data.formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported registry snapshot format " + data.formatVersion + " in " + snapshotFile);
+        }
+
+        Map<String, BlockRenderCategory> categoriesByName = new HashMap<>();
+        for (BlockRenderCategory category : BlockRenderCategory.values()) {
+            categoriesByName.put(category.name(), category);
+        }
+
+        Map<String, List<String>> blocksByMod = new TreeMap<>();
+        Set<String> gameBlocks = new HashSet<>();
+        Map<String, Map<String, Set<String>>> blockProperties = new HashMap<>();
+        Map<String, BlockRenderCategory> categories = new HashMap<>();
+
+        for (Map.Entry<String, List<BlockData>> entry : data.blocks.entrySet()) {
+            String modId = entry.getKey();
+            List<String> paths = new ArrayList<>();
+            for (BlockData block : entry.getValue()) {
+                String fullId = modId + ":" + block.path;
+                paths.add(block.path);
+                gameBlocks.add(fullId);
+
+                if (block.schema != null && block.schema >= 0 && block.schema < data.schemas.size()) {
+                    Map<String, Set<String>> properties = new HashMap<>();
+                    for (Map.Entry<String, List<String>> property : data.schemas.get(block.schema).entrySet()) {
+                        properties.put(property.getKey(), new HashSet<>(property.getValue()));
+                    }
+                    blockProperties.put(fullId, properties);
+                }
+
+                BlockRenderCategory category = block.category != null ? categoriesByName.get(block.category) : null;
+                if (category != null) {
+                    categories.put(fullId, category);
+                }
+            }
+            blocksByMod.put(modId, paths);
+        }
+
+        // Snapshots exported before items and entities were added have neither
+        Set<String> gameItems = joinIds(data.items);
+        Set<String> gameEntities = joinIds(data.entities);
+
+        EuphoriaCompanion.LOGGER.info("Loaded registry snapshot with {} blocks from {} mods, {} items and {} entities", gameBlocks.size(), blocksByMod.size(), gameItems.size(), gameEntities.size());
+        String modHash = data.modHash != null ? data.modHash : "unknown";
+        return new RegistrySnapshot(data.mcVersion, modHash, freeze(blocksByMod), Collections.unmodifiableSet(gameBlocks), GamePropertyIndex.create(blockProperties, modHash), Map.copyOf(categories), gameItems, gameEntities);
+    }
+
+    private static Set<String> joinIds(Map<String, List<String>> idsByNamespace) {
+        if (idsByNamespace == null) {
+            return Set.of();
+        }
+        Set<String> ids = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : idsByNamespace.entrySet()) {
+            for (String path : entry.getValue()) {
+                ids.add(entry.getKey() + ":" + path);
+            }
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+
+    private static Map<String, List<String>> splitIds(Set<String> ids) {
+        Map<String, List<String>> idsByNamespace = new TreeMap<>();
+        for (String id : ids) {
+            int separator = id.indexOf(':');
+            idsByNamespace.computeIfAbsent(id.substring(0, separator), k -> new ArrayList<>()).add(id.substring(separator + 1));
+        }
+        for (List<String> paths : idsByNamespace.values()) {
+            Collections.sort(paths);
+        }
+        return idsByNamespace;
+    }
+
+    /**
+     * Saves this snapshot as JSON
+     *
+     * @param snapshotFile The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public void save(Path snapshotFile) throws IOException {
+        SnapshotData data = new SnapshotData();
+        data.formatVersion = FORMAT_VERSION;
+        data.mcVersion = mcVersion;
+        data.modHash = modHash;
+        data.schemas = new ArrayList<>();
+        data.blocks = new TreeMap<>();
+
+        // Property schemas are shared, so each is written once and blocks refer to it by ID
+        for (PropertySchema schema : propertyIndex.getSchemas()) {
+            Map<String, List<String>> properties = new TreeMap<>();
+            for (Map.Entry<String, Set<String>> property : schema.properties().entrySet()) {
+                List<String> values = new ArrayList<>(property.getValue());
+                Collections.sort(values);
+                properties.put(property.getKey(), values);
+            }
+            data.schemas.add(properties);
+        }
+
+        for (Map.Entry<String, List<String>> entry : blocksByMod.entrySet()) {
+            List<BlockData> blocks = new ArrayList<>(entry.getValue().size());
+            for (String blockPath : entry.getValue()) {
+                String fullId = entry.getKey() + ":" + blockPath;
+                BlockData block = new BlockData();
+                block.path = blockPath;
+                PropertySchema schema = propertyIndex.getSchema(fullId);
+                block.schema = schema != null ? schema.id() : null;
+                BlockRenderCategory category = categories.get(fullId);
+                block.category = category != null ? category.name() : null;
+                blocks.add(block);
+            }
+            data.blocks.put(entry.getKey(), blocks);
+        }
+        data.items = splitIds(gameItems);
+        data.entities = splitIds(gameEntities);
+
+        try (Writer writer = Files.newBufferedWriter(snapshotFile)) {
+            GSON.toJson(data, writer);
+        }
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, List<String>> blocksByMod) {
+        Map<String, List<String>> frozen = new TreeMap<>();
+        for (Map.Entry<String, List<String>> entry : blocksByMod.entrySet()) {
+            List<String> sorted = new ArrayList<>(entry.getValue());
+            Collections.sort(sorted);
+            frozen.put(entry.getKey(), Collections.unmodifiableList(sorted));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /**
+     * Gets the Minecraft version as an integer (e.g., 12001 for 1.20.1)
+     */
+    public int getMcVersion() {
+        return mcVersion;
+    }
+
+    /**
+     * Gets the hash of the mod list the snapshot was captured with
+     */
+    public String getModHash() {
+        return modHash;
+    }
+
+    /**
+     * Gets sorted block paths organized by mod
+     */
+    public Map<String, List<String>> getBlocksByMod() {
+        return blocksByMod;
+    }
+
+    /**
+     * Gets all block identifiers in the game
+     */
+    public Set<String> getGameBlocks() {
+        return gameBlocks;
+    }
+
+    /**
+     * Gets all item identifiers in the game, or an empty set if the snapshot has none
+     */
+    public Set<String> getGameItems() {
+        return gameItems;
+    }
+
+    /**
+     * Gets all entity type identifiers in the game, or an empty set if the snapshot has none
+     */
+    public Set<String> getGameEntities() {
+        return gameEntities;
+    }
+
+    /**
+     * Gets the index of every block's properties and their values
+     */
+    public GamePropertyIndex getPropertyIndex() {
+        return propertyIndex;
+    }
+
+    /**
+     * Gets the primary render category of a block
+     *
+     * @param blockId Full block ID (e.g., "minecraft:oak_fence")
+     * @return The category, or null if the block was not categorized
+     */
+    public BlockRenderCategory getCategory(String blockId) {
+        return categories.get(blockId);
+    }
+
+    // JSON layout of a saved snapshot
+    private static final class SnapshotData {
+        int formatVersion;
+        int mcVersion;
+        String modHash;
+        List<Map<String, List<String>>> schemas;
+        // Key: Mod namespace
+        Map<String, List<BlockData>> blocks;
+        // Key: Mod namespace, value: sorted paths
+        Map<String, List<String>> items;
+        Map<String, List<String>> entities;
+    }
+
+    private static final class BlockData {
+        String path;
+        // Index into the schema list, or null if the block's properties are unknown
+        Integer schema;
+        String category;
+    }
+}
@@ -0,0 +1,168 @@
+package eclipse.euphoriacompanion.util;
+
+import eclipse.euphoriacompanion.EuphoriaCompanion;
+import eclipse.euphoriacompanion.report.BlockCensus;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.Registries;
+import net.minecraft.state.property.Property;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Counts the block states in the chunks the client has loaded, so reports can rank missing
+ * blocks and property states by how often they appear in the world being played.
+ * <p>
+ * Enabled with -Deuphoriacompanion.census=true. Counting runs on the client thread when a
+ * chunk loads and reads each section's palette counts instead of its 4096 positions; sections
+ * with a single state, such as all stone, cost one palette lookup. Each chunk's counts are kept
+ * so they can be subtracted again when it unloads.
+ */
+public final class WorldCensus {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("euphoriacompanion.census", "false"));
+    private static final Object LOCK = new Object();
+
+    // Key: Packed chunk position, Value: the chunk's non-air state counts
+    private static final Map<Long, Map<BlockState, Integer>> chunkCounts = new HashMap<>();
+    // Running totals over every loaded chunk
+    private static final Map<BlockState, Long> stateCounts = new HashMap<>();
+    // The world the counts belong to, so switching dimensions or servers starts over
+    private static @Nullable ClientWorld countedWorld;
+    private static long chunksCounted;
+    private static long countNanos;
+    private static long maxCountNanos;
+    private static boolean initialized;
+
+    private WorldCensus() {
+    }
+
+    /**
+     * Registers the chunk listeners if the census is enabled
+     */
+    public static void initialize() {
+        if (!ENABLED || initialized) {
+            return;
+        }
+        ClientChunkEvents.CHUNK_LOAD.register(WorldCensus::onChunkLoad);
+        ClientChunkEvents.CHUNK_UNLOAD.register(WorldCensus::onChunkUnload);
+        // Leaving the server releases its world and the counts taken in it
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            synchronized (LOCK) {
+                clear();
+                countedWorld = null;
+            }
+        });
+        initialized = true;
+        EuphoriaCompanion.LOGGER.info("World census enabled");
+    }
+
+    private static void onChunkLoad(ClientWorld world, WorldChunk chunk) {
+        long start = System.nanoTime();
+        Map<BlockState, Integer> counts = new HashMap<>();
+        for (ChunkSection section : chunk.getSectionArray()) {
+            // Sections holding only air are empty
+            if (section == null || section.isEmpty()) {
+                continue;
+            }
+            section.getBlockStateContainer().count((state, count) -> {
+                if (!state.isAir()) {
+                    counts.merge(state, count, Integer::sum);
+                }
+            });
+        }
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (LOCK) {
+            if (world != countedWorld) {
+                clear();
+                countedWorld = world;
+            }
+            // The server can resend a loaded chunk, replace its counts rather than adding them twice
+            Map<BlockState, Integer> previous = chunkCounts.put(chunk.getPos().toLong(), counts);
+            if (previous != null) {
+                subtract(previous);
+            }
+            for (Map.Entry<BlockState, Integer> entry : counts.entrySet()) {
+                stateCounts.merge(entry.getKey(), (long) entry.getValue(), Long::sum);
+            }
+            chunksCounted++;
+            countNanos += elapsed;
+            maxCountNanos = Math.max(maxCountNanos, elapsed);
+        }
+    }
+
+    private static void onChunkUnload(ClientWorld world, WorldChunk chunk) {
+        synchronized (LOCK) {
+            if (world != countedWorld) {
+                return;
+            }
+            Map<BlockState, Integer> counts = chunkCounts.remove(chunk.getPos().toLong());
+            if (counts != null) {
+                subtract(counts);
+            }
+        }
+    }
+
+    private static void subtract(Map<BlockState, Integer> counts) {
+        for (Map.Entry<BlockState, Integer> entry : counts.entrySet()) {
+            stateCounts.computeIfPresent(entry.getKey(), (state, total) -> total > entry.getValue() ? total - entry.getValue() : null);
+        }
+    }
+
+    private static void clear() {
+        chunkCounts.clear();
+        stateCounts.clear();
+        chunksCounted = 0;
+        countNanos = 0;
+        maxCountNanos = 0;
+    }
+
+    /**
+     * Takes a copy of the current counts
+     *
+     * @return The census of the loaded chunks, or null if the census is disabled or no chunk is loaded
+     */
+    public static @Nullable BlockCensus snapshot() {
+        if (!ENABLED) {
+            return null;
+        }
+
+        Map<BlockState, Long> states;
+        int loadedChunks;
+        long counted;
+        long nanos;
+        long maxNanos;
+        synchronized (LOCK) {
+            if (chunkCounts.isEmpty()) {
+                return null;
+            }
+            states = new HashMap<>(stateCounts);
+            loadedChunks = chunkCounts.size();
+            counted = chunksCounted;
+            nanos = countNanos;
+            maxNanos = maxCountNanos;
+        }
+
+        Map<String, Long> stateKeys = new HashMap<>();
+        for (Map.Entry<BlockState, Long> entry : states.entrySet()) {
+            BlockState state = entry.getKey();
+            SortedMap<String, String> properties = new TreeMap<>();
+            for (Map.Entry<Property<?>, Comparable<?>> property : state.getEntries().entrySet()) {
+                // Values lowercase like GamePropertyIndex, so keys match the missing property states
+                properties.put(property.getKey().getName(), property.getValue().toString().toLowerCase(Locale.ROOT));
+            }
+            stateKeys.merge(BlockCensus.stateKey(Registries.BLOCK.getId(state.getBlock()).toString(), properties), entry.getValue(), Long::sum);
+        }
+
+        return BlockCensus.create("loaded world", loadedChunks, stateKeys, counted > 0 ? nanos / 1000.0 / counted : 0, maxNanos / 1000.0);
+    }
+}
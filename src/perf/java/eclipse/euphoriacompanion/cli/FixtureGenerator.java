@@ -0,0 +1,337 @@
+package eclipse.euphoriacompanion.cli;
+
+import eclipse.euphoriacompanion.util.BlockRenderCategory;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates synthetic block registries and shader packs at the scale of large modpacks, so
+ * performance problems can be reproduced without the modpack. Everything is derived from a seed,
+ * so the same arguments always produce the same files.
+ * <p>
+ * The output directory holds a {@code registry_snapshot.json} and a {@code shaderpacks} directory
+ * that can be passed straight to {@link HeadlessAnalyzer}:
+ * <pre>
+ * java -cp ... eclipse.euphoriacompanion.cli.FixtureGenerator --output fixtures --blocks 30000 --packs 40
+ * java -cp ... eclipse.euphoriacompanion.cli.HeadlessAnalyzer \
+ *     --snapshot fixtures/registry_snapshot.json --shaderpacks fixtures/shaderpacks --output reports
+ * </pre>
+ */
+public final class FixtureGenerator {
+    private static final String USAGE = "Usage: FixtureGenerator --output <dir> [--blocks <count>] [--mods <count>] [--packs <count>] [--format dir|zip|mixed] [--lines <count>] [--continuation <entries>] [--if-depth <depth>] [--property-ratio <0-1>] [--tag-ratio <0-1>] [--coverage <0-1>] [--seed <seed>]";
+    private static final int MC_VERSION = 12001;
+    private static final int MAX_BLOCKS = 100_000;
+    private static final int VANILLA_BLOCKS = 1000;
+    // Lines between the #if blocks of a generated block.properties
+    private static final int SECTION_LINES = 25;
+
+    // Block name suffix and property schema pairs seen in vanilla and modded blocks, weighted roughly by how common they are
+    private static final List<Map.Entry<String, Map<String, List<String>>>> SCHEMAS = List.of(
+            Map.entry("block", Map.of()),
+            Map.entry("bricks", Map.of()),
+            Map.entry("ore", Map.of()),
+            Map.entry("planks", Map.of()),
+            Map.entry("log", Map.of("axis", List.of("x", "y", "z"))),
+            Map.entry("stairs", Map.of("facing", List.of("north", "south", "west", "east"), "half", List.of("top", "bottom"), "shape", List.of("straight", "inner_left", "inner_right", "outer_left", "outer_right"), "waterlogged", List.of("true", "false"))),
+            Map.entry("slab", Map.of("type", List.of("top", "bottom", "double"), "waterlogged", List.of("true", "false"))),
+            Map.entry("fence", Map.of("north", List.of("true", "false"), "east", List.of("true", "false"), "south", List.of("true", "false"), "west", List.of("true", "false"), "waterlogged", List.of("true", "false"))),
+            Map.entry("lamp", Map.of("lit", List.of("true", "false"))),
+            Map.entry("crop", Map.of("age", List.of("0", "1", "2", "3", "4", "5", "6", "7"))),
+            Map.entry("door", Map.of("facing", List.of("north", "south", "west", "east"), "half", List.of("upper", "lower"), "hinge", List.of("left", "right"), "open", List.of("true", "false"), "powered", List.of("true", "false"))),
+            Map.entry("leaves", Map.of("distance", List.of("1", "2", "3", "4", "5", "6", "7"), "persistent", List.of("true", "false"), "waterlogged", List.of("true", "false"))));
+
+    private static final List<String> MATERIALS = List.of("oak", "spruce", "birch", "stone", "granite", "copper", "marble", "basalt", "crystal", "mossy", "ash", "jade");
+
+    /**
+     * Shape of a generated block.properties file
+     *
+     * @param lineCount        Number of block.N entries
+     * @param continuationEvery Block IDs per physical line before a {@code \} continuation, or 0 for none
+     * @param ifDepth          Nesting depth of the {@code #if} blocks around each section, or 0 for none
+     * @param propertyRatio    Fraction of block IDs qualified with a property, e.g. {@code :facing=north}
+     * @param tagRatio         Fraction of entries that also reference a tag
+     * @param coverage         Fraction of the registry's blocks the pack maps
+     */
+    public record PackOptions(int lineCount, int continuationEvery, int ifDepth, double propertyRatio, double tagRatio, double coverage) {
+        /**
+         * Options resembling a large hand-written pack
+         *
+         * @param lineCount Number of block.N entries
+         */
+        public static PackOptions defaults(int lineCount) {
+            return new PackOptions(lineCount, 5, 2, 0.25, 0.05, 0.8);
+        }
+    }
+
+    private FixtureGenerator() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the generator
+     *
+     * @param args Command-line arguments
+     * @return The process exit code
+     */
+    public static int run(String[] args) {
+        Path outputDir = null;
+        int blockCount = 30_000;
+        int modCount = 40;
+        int packCount = 1;
+        String format = "mixed";
+        PackOptions defaults = PackOptions.defaults(2000);
+        int lineCount = defaults.lineCount();
+        int continuationEvery = defaults.continuationEvery();
+        int ifDepth = defaults.ifDepth();
+        double propertyRatio = defaults.propertyRatio();
+        double tagRatio = defaults.tagRatio();
+        double coverage = defaults.coverage();
+        long seed = 42;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 >= args.length) {
+                    System.err.println("Missing value for " + arg);
+                    System.err.println(USAGE);
+                    return 1;
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--output" -> outputDir = Paths.get(value);
+                    case "--blocks" -> blockCount = Integer.parseInt(value);
+                    case "--mods" -> modCount = Integer.parseInt(value);
+                    case "--packs" -> packCount = Integer.parseInt(value);
+                    case "--format" -> format = value;
+                    case "--lines" -> lineCount = Integer.parseInt(value);
+                    case "--continuation" -> continuationEvery = Integer.parseInt(value);
+                    case "--if-depth" -> ifDepth = Integer.parseInt(value);
+                    case "--property-ratio" -> propertyRatio = Double.parseDouble(value);
+                    case "--tag-ratio" -> tagRatio = Double.parseDouble(value);
+                    case "--coverage" -> coverage = Double.parseDouble(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    default -> {
+                        System.err.println("Unknown argument: " + arg);
+                        System.err.println(USAGE);
+                        return 1;
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            return 1;
+        }
+
+        if (outputDir == null || !List.of("dir", "zip", "mixed").contains(format)) {
+            System.err.println(USAGE);
+            return 1;
+        }
+        if (blockCount < 1 || blockCount > MAX_BLOCKS || modCount < 1 || packCount < 0 || lineCount < 1) {
+            System.err.println("Block count must be 1-" + MAX_BLOCKS + ", and mod, pack and line counts positive");
+            return 1;
+        }
+
+        PackOptions options = new PackOptions(lineCount, continuationEvery, ifDepth, propertyRatio, tagRatio, coverage);
+        try {
+            generate(outputDir, blockCount, modCount, packCount, format, options, seed);
+        } catch (IOException e) {
+            System.err.println("Failed to write fixtures: " + e.getMessage());
+            return 1;
+        }
+        System.out.println("Generated " + blockCount + " blocks and " + packCount + " shader packs in " + outputDir.toAbsolutePath());
+        return 0;
+    }
+
+    /**
+     * Writes a registry snapshot and a directory of shader packs referencing it
+     *
+     * @param outputDir  Directory to write {@code registry_snapshot.json} and {@code shaderpacks} to
+     * @param blockCount Number of blocks in the registry
+     * @param modCount   Number of mod namespaces besides minecraft
+     * @param packCount  Number of shader packs
+     * @param format     "dir", "zip" or "mixed" (alternating) pack layout
+     * @param options    Shape of each pack's block.properties
+     * @param seed       Seed for the registry; pack N uses {@code seed + N}
+     * @return The generated registry
+     * @throws IOException If a file cannot be written
+     */
+    public static RegistrySnapshot generate(Path outputDir, int blockCount, int modCount, int packCount, String format, PackOptions options, long seed) throws IOException {
+        RegistrySnapshot registry = registry(blockCount, modCount, seed);
+        Path shaderpacksDir = outputDir.resolve("shaderpacks");
+        Files.createDirectories(shaderpacksDir);
+        registry.save(outputDir.resolve(RegistrySnapshot.SNAPSHOT_FILENAME));
+
+        for (int pack = 1; pack <= packCount; pack++) {
+            List<String> lines = blockPropertiesLines(registry, options, seed + pack);
+            String packName = String.format("Synthetic_%03d", pack);
+            boolean zip = format.equals("zip") || (format.equals("mixed") && pack % 2 == 0);
+            if (zip) {
+                writePackZip(shaderpacksDir.resolve(packName + ".zip"), lines);
+            } else {
+                writePackDirectory(shaderpacksDir.resolve(packName), lines);
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Creates a mock registry. The first blocks are vanilla, and the rest are spread over the mod
+     * namespaces with a few large mods and a long tail of small ones.
+     *
+     * @param blockCount Number of blocks
+     * @param modCount   Number of mod namespaces besides minecraft
+     * @param seed       Random seed
+     * @return The registry
+     */
+    public static RegistrySnapshot registry(int blockCount, int modCount, long seed) {
+        Random random = new Random(seed);
+        Map<String, Map<String, Set<String>>> blockProperties = new HashMap<>();
+        Map<String, BlockRenderCategory> categories = new HashMap<>();
+        List<BlockRenderCategory> allCategories = BlockRenderCategory.values();
+
+        for (int i = 0; i < blockCount; i++) {
+            String namespace;
+            if (i < VANILLA_BLOCKS) {
+                namespace = "minecraft";
+            } else {
+                // Squaring skews the distribution towards the low mod numbers
+                double r = random.nextDouble();
+                namespace = "mod" + (int) (r * r * modCount);
+            }
+            Map.Entry<String, Map<String, List<String>>> schema = SCHEMAS.get(random.nextInt(SCHEMAS.size()));
+            String blockId = namespace + ":" + MATERIALS.get(random.nextInt(MATERIALS.size())) + "_" + schema.getKey() + "_" + i;
+
+            Map<String, Set<String>> properties = new HashMap<>();
+            for (Map.Entry<String, List<String>> property : schema.getValue().entrySet()) {
+                properties.put(property.getKey(), new HashSet<>(property.getValue()));
+            }
+            blockProperties.put(blockId, properties);
+            categories.put(blockId, allCategories.get(random.nextInt(allCategories.size())));
+        }
+
+        return RegistrySnapshot.create(MC_VERSION, "synthetic-" + seed, blockProperties, categories);
+    }
+
+    /**
+     * Creates block.properties lines mapping part of a registry
+     *
+     * @param registry The registry to reference
+     * @param options  Shape of the file
+     * @param seed     Random seed
+     * @return The lines of the file
+     */
+    public static List<String> blockPropertiesLines(RegistrySnapshot registry, PackOptions options, long seed) {
+        Random random = new Random(seed);
+        List<String> blocks = new ArrayList<>(registry.getGameBlocks());
+        Collections.sort(blocks);
+        Collections.shuffle(blocks, random);
+        int covered = Math.max(1, (int) (blocks.size() * Math.min(1.0, Math.max(0.0, options.coverage()))));
+        int perLine = Math.max(1, (covered + options.lineCount() - 1) / options.lineCount());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Synthetic block.properties, seed " + seed);
+        int next = 0;
+        for (int line = 0; line < options.lineCount(); line++) {
+            if (line % SECTION_LINES == 0) {
+                openSection(lines, options.ifDepth(), registry.getMcVersion(), line / SECTION_LINES);
+            }
+
+            StringBuilder entry = new StringBuilder("block.").append(10000 + line).append(" =");
+            int onPhysicalLine = 0;
+            for (int i = 0; i < perLine; i++) {
+                String blockId = blocks.get(next++ % covered);
+                entry.append(' ').append(blockId);
+                Map<String, Set<String>> properties = registry.getPropertyIndex().getProperties(blockId);
+                if (!properties.isEmpty() && random.nextDouble() < options.propertyRatio()) {
+                    List<String> names = new ArrayList<>(properties.keySet());
+                    Collections.sort(names);
+                    String name = names.get(random.nextInt(names.size()));
+                    List<String> values = new ArrayList<>(properties.get(name));
+                    Collections.sort(values);
+                    entry.append(':').append(name).append('=').append(values.get(random.nextInt(values.size())));
+                }
+                // Break long entries into continuation lines like hand-written packs do
+                if (options.continuationEvery() > 0 && ++onPhysicalLine == options.continuationEvery() && i < perLine - 1) {
+                    entry.append(" \\");
+                    lines.add(entry.toString());
+                    entry.setLength(0);
+                    onPhysicalLine = 0;
+                }
+            }
+            if (random.nextDouble() < options.tagRatio()) {
+                entry.append(" tags_").append(random.nextInt(64));
+            }
+            lines.add(entry.toString());
+
+            if (line % SECTION_LINES == SECTION_LINES - 1 || line == options.lineCount() - 1) {
+                closeSection(lines, options.ifDepth(), line);
+            }
+        }
+        return lines;
+    }
+
+    // Opens nested version conditions that all hold for the registry's version
+    private static void openSection(List<String> lines, int depth, int mcVersion, int section) {
+        lines.add("# Section " + section);
+        for (int level = 0; level < depth; level++) {
+            lines.add("#if MC_VERSION >= " + Math.max(10000, mcVersion - (depth - level) * 100));
+        }
+    }
+
+    // Closes the conditions, giving the innermost one a legacy #else branch that is never active
+    private static void closeSection(List<String> lines, int depth, int line) {
+        if (depth == 0) {
+            return;
+        }
+        lines.add("#else");
+        lines.add("block." + (10000 + line) + " = minecraft:legacy_block_" + line + ":0");
+        for (int level = 0; level < depth; level++) {
+            lines.add("#endif");
+        }
+    }
+
+    /**
+     * Writes a directory shader pack containing the given block.properties lines
+     *
+     * @return The path of the written block.properties file
+     */
+    public static Path writePackDirectory(Path packDir, List<String> lines) throws IOException {
+        Path blockProperties = packDir.resolve("shaders/block.properties");
+        Files.createDirectories(blockProperties.getParent());
+        Files.write(blockProperties, lines, StandardCharsets.UTF_8);
+        return blockProperties;
+    }
+
+    /**
+     * Writes a zipped shader pack containing the given block.properties lines
+     */
+    public static void writePackZip(Path zipFile, List<String> lines) throws IOException {
+        Files.createDirectories(zipFile.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(zipFile);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("shaders/block.properties"));
+            // Not closed, since that would close the zip stream
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+            zip.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package eclipse.euphoriacompanion.cli;
+
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs {@link HeadlessAnalyzer} on small generated fixtures with the classpath the README
+ * documents: the mod, gson, slf4j and fabric-loader, without the Minecraft runtime. Fails if a
+ * game class is reachable, since the check would then prove nothing, if the analyzer does not
+ * exit cleanly, or if a pack's report is missing.
+ * <p>
+ * Usage: {@code HeadlessSmokeTest <work dir>}. Exit codes: 0 on success, 1 on failure.
+ */
+public final class HeadlessSmokeTest {
+    private static final int PACKS = 2;
+
+    private HeadlessSmokeTest() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode = run(args);
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs the smoke test
+     *
+     * @param args The work directory
+     * @return The process exit code
+     */
+    public static int run(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: HeadlessSmokeTest <work dir>");
+            return 1;
+        }
+        try {
+            Class.forName("net.minecraft.block.Block", false, HeadlessSmokeTest.class.getClassLoader());
+            System.err.println("Minecraft classes are on the classpath, the headless path is not isolated");
+            return 1;
+        } catch (ClassNotFoundException expected) {
+            // The headless path must not need them
+        }
+
+        Path workDir = Paths.get(args[0]);
+        Path fixturesDir = workDir.resolve("fixtures");
+        Path outputDir = workDir.resolve("reports");
+        try {
+            FixtureGenerator.generate(fixturesDir, 500, 5, PACKS, "mixed", FixtureGenerator.PackOptions.defaults(100), 42);
+        } catch (IOException e) {
+            System.err.println("Failed to generate fixtures: " + e.getMessage());
+            return 1;
+        }
+
+        int exitCode = HeadlessAnalyzer.run(new String[]{
+                "--snapshot", fixturesDir.resolve(RegistrySnapshot.SNAPSHOT_FILENAME).toString(),
+                "--shaderpacks", fixturesDir.resolve("shaderpacks").toString(),
+                "--output", outputDir.toString()});
+        if (exitCode != 0) {
+            System.err.println("HeadlessAnalyzer exited with " + exitCode);
+            return 1;
+        }
+
+        int reports = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(outputDir, "block_comparison_*.txt")) {
+            for (Path ignored : stream) {
+                reports++;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to list reports: " + e.getMessage());
+            return 1;
+        }
+        if (reports != PACKS) {
+            System.err.println("Expected " + PACKS + " block comparison reports, found " + reports);
+            return 1;
+        }
+        System.out.println("Headless analysis ran without Minecraft and wrote " + reports + " reports");
+        return 0;
+    }
+}
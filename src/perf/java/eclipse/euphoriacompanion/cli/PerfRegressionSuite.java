@@ -0,0 +1,292 @@
+package eclipse.euphoriacompanion.cli;
+
+import eclipse.euphoriacompanion.perf.PerformanceSummary;
+import eclipse.euphoriacompanion.perf.Phase;
+import eclipse.euphoriacompanion.perf.PhaseMetrics;
+import eclipse.euphoriacompanion.shader.AnalysisHandle;
+import eclipse.euphoriacompanion.shader.ShaderPackProcessor;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * End-to-end performance regression suite. Generates fixture packs and a fixture registry snapshot
+ * with {@link FixtureGenerator}, runs the full analysis on them and checks two things:
+ * <ul>
+ *     <li>the wall time and allocated bytes of each {@link Phase} against the budgets file</li>
+ *     <li>the SHA-256 of every report against the golden file, so a change that alters report
+ *     contents is caught along with its cost</li>
+ * </ul>
+ * The budgets file also holds the fixture parameters. Keys are {@code fixture.blocks},
+ * {@code fixture.mods}, {@code fixture.packs}, {@code fixture.lines}, {@code fixture.seed}, and
+ * {@code <phase>.wallMillis} and {@code <phase>.allocatedMegabytes} for each phase; a missing
+ * budget is not enforced.
+ * <p>
+ * Exit codes: 0 if everything is within budget and matches, 1 on invalid arguments or IO errors,
+ * 2 on a budget overrun or golden mismatch.
+ */
+public final class PerfRegressionSuite {
+    private static final String USAGE = "Usage: PerfRegressionSuite --budgets <file> --golden <file> [--work <dir>] [--warmup <runs>] [--update-golden]";
+    // Reports compared with the golden file; the debug log and block_properties.json are not stable
+    private static final List<String> GOLDEN_PREFIXES = List.of("block_comparison_", "block_inventory", "coverage_matrix", "missing_property_states");
+
+    private PerfRegressionSuite() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode = run(args);
+        ShaderPackProcessor.shutdown();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs the suite
+     *
+     * @param args Command-line arguments
+     * @return The process exit code
+     */
+    public static int run(String[] args) {
+        Path budgetsFile = null;
+        Path goldenFile = null;
+        Path workDir = Paths.get("build", "perf");
+        int warmupRuns = 1;
+        boolean updateGolden = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--update-golden")) {
+                    updateGolden = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    System.err.println("Missing value for " + arg);
+                    System.err.println(USAGE);
+                    return 1;
+                }
+                switch (arg) {
+                    case "--budgets" -> budgetsFile = Paths.get(args[++i]);
+                    case "--golden" -> goldenFile = Paths.get(args[++i]);
+                    case "--work" -> workDir = Paths.get(args[++i]);
+                    case "--warmup" -> warmupRuns = Integer.parseInt(args[++i]);
+                    default -> {
+                        System.err.println("Unknown argument: " + arg);
+                        System.err.println(USAGE);
+                        return 1;
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            return 1;
+        }
+
+        if (budgetsFile == null || goldenFile == null) {
+            System.err.println(USAGE);
+            return 1;
+        }
+
+        Properties budgets = new Properties();
+        Map<String, String> digests;
+        boolean failed;
+        try {
+            try (Reader reader = Files.newBufferedReader(budgetsFile)) {
+                budgets.load(reader);
+            }
+
+            // Fixtures are regenerated every run, they are fully determined by the parameters
+            deleteRecursively(workDir);
+            Path fixturesDir = workDir.resolve("fixtures");
+            FixtureGenerator.generate(fixturesDir,
+                    intProperty(budgets, "fixture.blocks", 30_000),
+                    intProperty(budgets, "fixture.mods", 40),
+                    intProperty(budgets, "fixture.packs", 8),
+                    "mixed",
+                    FixtureGenerator.PackOptions.defaults(intProperty(budgets, "fixture.lines", 2000)),
+                    Long.parseLong(budgets.getProperty("fixture.seed", "42")));
+            RegistrySnapshot snapshot = RegistrySnapshot.load(fixturesDir.resolve(RegistrySnapshot.SNAPSHOT_FILENAME));
+            Path shaderpacksDir = fixturesDir.resolve("shaderpacks");
+
+            // Warm-up runs let the JIT settle so the measured run is comparable between machines
+            Path outputDir = workDir.resolve("reports");
+            PhaseMetrics metrics = null;
+            for (int run = 0; run <= warmupRuns; run++) {
+                deleteRecursively(outputDir);
+                Files.createDirectories(outputDir);
+                AnalysisHandle handle = new AnalysisHandle(null);
+                ShaderPackProcessor.analyzeShaderPacks(snapshot, outputDir, shaderpacksDir, outputDir, null, null, handle);
+                metrics = handle.getMetrics();
+            }
+
+            digests = digestReports(outputDir);
+            failed = checkBudgets(metrics, budgets);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Failed to run the performance suite: " + e.getMessage());
+            return 1;
+        }
+
+        if (updateGolden) {
+            try {
+                writeGolden(goldenFile, digests);
+                System.out.println("Golden output updated: " + goldenFile.toAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("Failed to write golden file: " + e.getMessage());
+                return 1;
+            }
+        } else {
+            try {
+                failed |= checkGolden(goldenFile, digests);
+            } catch (IOException e) {
+                System.err.println("Failed to read golden file: " + e.getMessage());
+                return 1;
+            }
+        }
+
+        System.out.println(failed ? "Performance suite FAILED" : "Performance suite passed");
+        return failed ? 2 : 0;
+    }
+
+    // Prints every phase and returns whether any exceeded its budget
+    private static boolean checkBudgets(PhaseMetrics metrics, Properties budgets) {
+        boolean failed = false;
+        if (!PhaseMetrics.isAllocationSupported()) {
+            System.out.println("Allocated bytes are not measured on this JVM, allocation budgets are skipped");
+        }
+
+        System.out.printf("%-18s %10s %10s %12s %16s%n", "phase", "wall ms", "busy ms", "alloc MB", "budget");
+        for (Phase phase : Phase.values()) {
+            PhaseMetrics.PhaseStats stats = metrics.get(phase);
+            long wallBudget = longProperty(budgets, phase.getId() + ".wallMillis");
+            long allocBudget = longProperty(budgets, phase.getId() + ".allocatedMegabytes");
+            System.out.printf("%-18s %10d %10d %12d %16s%n", phase.getId(), stats.wallMillis(), stats.busyNanos() / 1_000_000, stats.allocatedMegabytes(),
+                    (wallBudget >= 0 ? wallBudget + "ms" : "-") + " / " + (allocBudget >= 0 ? allocBudget + "MB" : "-"));
+
+            if (wallBudget >= 0 && stats.wallMillis() > wallBudget) {
+                System.out.println("  " + phase.getId() + " took " + stats.wallMillis() + " ms, budget is " + wallBudget + " ms");
+                failed = true;
+            }
+            if (allocBudget >= 0 && PhaseMetrics.isAllocationSupported() && stats.allocatedMegabytes() > allocBudget) {
+                System.out.println("  " + phase.getId() + " allocated " + stats.allocatedMegabytes() + " MB, budget is " + allocBudget + " MB");
+                failed = true;
+            }
+        }
+        return failed;
+    }
+
+    // Compares the report digests with the golden file and returns whether they differ
+    private static boolean checkGolden(Path goldenFile, Map<String, String> digests) throws IOException {
+        Map<String, String> expected = new TreeMap<>();
+        for (String line : Files.readAllLines(goldenFile, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+", 2);
+            if (parts.length == 2) {
+                expected.put(parts[1], parts[0]);
+            }
+        }
+
+        boolean failed = false;
+        Set<String> files = new TreeSet<>(expected.keySet());
+        files.addAll(digests.keySet());
+        for (String file : files) {
+            String expectedDigest = expected.get(file);
+            String actualDigest = digests.get(file);
+            if (expectedDigest == null) {
+                System.out.println("  Unexpected report " + file);
+                failed = true;
+            } else if (actualDigest == null) {
+                System.out.println("  Missing report " + file);
+                failed = true;
+            } else if (!expectedDigest.equals(actualDigest)) {
+                System.out.println("  Report differs from golden output: " + file);
+                failed = true;
+            }
+        }
+        if (!failed) {
+            System.out.println("All " + digests.size() + " reports match the golden output");
+        }
+        return failed;
+    }
+
+    private static void writeGolden(Path goldenFile, Map<String, String> digests) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# SHA-256 of each report of the performance suite, regenerate with --update-golden");
+        for (Map.Entry<String, String> entry : digests.entrySet()) {
+            lines.add(entry.getValue() + "  " + entry.getKey());
+        }
+        Path parent = goldenFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(goldenFile, lines, StandardCharsets.UTF_8);
+    }
+
+    // SHA-256 of every compared report, by file name
+    private static Map<String, String> digestReports(Path outputDir) throws IOException {
+        Map<String, String> digests = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(outputDir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (Files.isRegularFile(file) && GOLDEN_PREFIXES.stream().anyMatch(name::startsWith)) {
+                    digests.put(name, digest(file));
+                }
+            }
+        }
+        return digests;
+    }
+
+    // Digest of a report without its performance summary, which differs between runs
+    private static String digest(Path file) throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        int summaryStart = content.startsWith(PerformanceSummary.SECTION_HEADER) ? 0 : content.indexOf("\n" + PerformanceSummary.SECTION_HEADER);
+        if (summaryStart > 0) {
+            // Keep the newline that ends the last report line
+            summaryStart++;
+        }
+        if (summaryStart >= 0) {
+            content = content.substring(0, summaryStart);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    // Budget in the properties, or -1 if there is none
+    private static long longProperty(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        return value != null ? Long.parseLong(value.trim()) : -1;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        try (var stream = Files.walk(dir)) {
+            stream.forEach(paths::add);
+        }
+        Collections.reverse(paths);
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package eclipse.euphoriacompanion.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockReporterTest {
+    @TempDir
+    Path tempDir;
+
+    private static BlockCensus census() {
+        return BlockCensus.create("test", 2, Map.of(
+                "minecraft:furnace[facing=north,lit=true]", 5L,
+                "minecraft:furnace[facing=south,lit=true]", 3L,
+                "minecraft:furnace[facing=south,lit=false]", 4L,
+                "minecraft:stone", 7L,
+                "minecraft:dirt", 2L), 1.5, 3.0);
+    }
+
+    @Test
+    void worldCensusRanksMissingBlocksAndPropertyStates() throws IOException {
+        BlockReporter.writeWorldCensus(tempDir, "Pack", Set.of("minecraft:stone", "minecraft:glass"),
+                List.of("minecraft:furnace:facing=east", "minecraft:furnace:lit=true", "minecraft:furnace:facing=south"), census());
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("world_census_Pack.txt"), StandardCharsets.UTF_8);
+        assertTrue(lines.contains("============ MISSING BLOCKS IN THE WORLD (1) ============"));
+        assertTrue(lines.contains("           7  minecraft:stone"), "missing block ranked by its count");
+        assertFalse(lines.stream().anyMatch(line -> line.endsWith("minecraft:glass")), "absent blocks are left out");
+
+        // Property states are counted over every full state with that value, most frequent first
+        int header = lines.indexOf("============ MISSING PROPERTY STATES IN THE WORLD (2) ============");
+        assertTrue(header >= 0, "missing property states section lists both states found in the world");
+        assertEquals("           8  minecraft:furnace:lit=true", lines.get(header + 1));
+        assertEquals("           7  minecraft:furnace:facing=south", lines.get(header + 2));
+        assertFalse(lines.stream().anyMatch(line -> line.endsWith("facing=east")), "absent states are left out");
+    }
+
+    @Test
+    void blockStateFrequencyListsEveryStateByCount() throws IOException {
+        BlockReporter.writeBlockStateFrequency(tempDir, census());
+
+        List<String> lines = Files.readAllLines(tempDir.resolve(BlockReporter.STATE_FREQUENCY_FILENAME), StandardCharsets.UTF_8);
+        assertTrue(lines.contains("Chunks: 2, counted in 1.5 us mean, 3.0 us max per chunk"));
+        int header = lines.indexOf("============ BLOCK STATES (5) ============");
+        assertTrue(header >= 0);
+        assertEquals("           7  minecraft:stone", lines.get(header + 1));
+        assertEquals("           5  minecraft:furnace[facing=north,lit=true]", lines.get(header + 2));
+        assertEquals("           2  minecraft:dirt", lines.get(header + 5));
+    }
+}
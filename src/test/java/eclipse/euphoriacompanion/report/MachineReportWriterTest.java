@@ -0,0 +1,62 @@
+package eclipse.euphoriacompanion.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MachineReportWriterTest {
+    @TempDir
+    Path tempDir;
+
+    private String writeCsv(String namespace, String category, String blockId) throws IOException {
+        Path basePath = tempDir.resolve("block_comparison_test");
+        try (MachineReportWriter writer = MachineReportWriter.open(basePath, MachineReportWriter.Format.CSV, false)) {
+            writer.writeMissingBlock(namespace, category, blockId);
+        }
+        String content = Files.readString(tempDir.resolve("block_comparison_test.csv"), StandardCharsets.UTF_8);
+        return content.substring(content.indexOf('\n') + 1);
+    }
+
+    @Test
+    void plainFieldsAreNotQuoted() throws IOException {
+        assertEquals("missing_block,minecraft,solid,minecraft:stone,,,\n", writeCsv("minecraft", "solid", "minecraft:stone"));
+    }
+
+    @Test
+    void fieldsWithSeparatorsAreQuoted() throws IOException {
+        assertEquals("missing_block,\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\",,,\n", writeCsv("a,b", "say \"hi\"", "line\nbreak"));
+    }
+
+    @Test
+    void bareCarriageReturnIsQuoted() throws IOException {
+        assertEquals("missing_block,mod,\"solid\rcube\",mod:block,,,\n", writeCsv("mod", "solid\rcube", "mod:block"));
+    }
+
+    @Test
+    void propertyStatesAreSplitIntoColumns() throws IOException {
+        Path basePath = tempDir.resolve("states");
+        try (MachineReportWriter writer = MachineReportWriter.open(basePath, MachineReportWriter.Format.CSV, false)) {
+            writer.writeMissingPropertyState("minecraft:furnace:lit=true");
+        }
+        String content = Files.readString(tempDir.resolve("states.csv"), StandardCharsets.UTF_8);
+        assertEquals("missing_property_state,minecraft,,minecraft:furnace,lit,true,\n", content.substring(content.indexOf('\n') + 1));
+    }
+
+    @Test
+    void pathIncludesGzipSuffix() throws IOException {
+        Path written;
+        try (MachineReportWriter writer = MachineReportWriter.open(tempDir.resolve("report"), MachineReportWriter.Format.NDJSON, true)) {
+            writer.writeSummary("game_blocks", 1);
+            written = writer.getPath();
+        }
+        assertEquals(tempDir.resolve("report.ndjson.gz"), written);
+        assertTrue(Files.isRegularFile(written));
+    }
+}
@@ -0,0 +1,51 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.util.GamePropertyIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlockPropertiesMinifierTest {
+    private static final GamePropertyIndex INDEX = GamePropertyIndex.create(Map.of(
+            "minecraft:stone", Map.of(),
+            "minecraft:dirt", Map.of(),
+            "minecraft:furnace", Map.of("lit", Set.of("true", "false"))), "test");
+
+    @TempDir
+    Path tempDir;
+
+    private BlockPropertiesMinifier.Result minify(String content) throws IOException {
+        Path file = tempDir.resolve("block.properties");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return BlockPropertiesMinifier.minify(file, INDEX);
+    }
+
+    @Test
+    void continuedLinesAreJoined() throws IOException {
+        BlockPropertiesMinifier.Result result = minify("block.1=minecraft:stone \\\n  minecraft:furnace:lit=true \\\n  minecraft:furnace:lit=false\n");
+        assertEquals(List.of("block.1=minecraft:stone minecraft:furnace"), result.lines());
+        assertEquals(1, result.blocksCollapsed());
+    }
+
+    @Test
+    void commentAfterContinuationDropsTheLineAsTheAnalysisDoes() throws IOException {
+        BlockPropertiesMinifier.Result result = minify("block.1=minecraft:stone \\\n# minecraft:furnace\nblock.2=minecraft:dirt\n");
+        assertEquals(List.of("block.2=minecraft:dirt"), result.lines());
+        assertEquals(1, result.entriesBefore());
+    }
+
+    @Test
+    void conditionalDirectivesDoNotEndAContinuedLine() throws IOException {
+        BlockPropertiesMinifier.Result result = minify("block.1=minecraft:stone \\\n#if MC_VERSION >= 11300\nminecraft:dirt\n#endif\n");
+        assertEquals(List.of("#if MC_VERSION >= 11300", "block.1=minecraft:stone minecraft:dirt", "#endif"), result.lines());
+    }
+}
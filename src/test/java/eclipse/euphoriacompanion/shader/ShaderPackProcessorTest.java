@@ -0,0 +1,116 @@
+package eclipse.euphoriacompanion.shader;
+
+import eclipse.euphoriacompanion.perf.Phase;
+import eclipse.euphoriacompanion.perf.PerformanceSummary;
+import eclipse.euphoriacompanion.report.BlockReporter;
+import eclipse.euphoriacompanion.util.BlockRenderCategory;
+import eclipse.euphoriacompanion.util.RegistrySnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShaderPackProcessorTest {
+    private static final int PACKS = 6;
+    private static final int BLOCKS = 300;
+
+    @TempDir
+    Path tempDir;
+
+    private static RegistrySnapshot snapshot() {
+        Map<String, Map<String, Set<String>>> blockProperties = new TreeMap<>();
+        Map<String, BlockRenderCategory> categories = new HashMap<>();
+        for (int i = 0; i < BLOCKS; i++) {
+            String blockId = "testmod:block_" + i;
+            blockProperties.put(blockId, i % 2 == 0 ? Map.of("lit", Set.of("true", "false"), "facing", Set.of("north", "south", "east", "west")) : Map.of());
+            categories.put(blockId, BlockRenderCategory.values().get(i % BlockRenderCategory.values().size()));
+        }
+        return RegistrySnapshot.create(12001, "test", blockProperties, categories);
+    }
+
+    // Each pack lists a different share of the blocks, some with property states
+    private static Path createPacks(Path dir) throws IOException {
+        Path shaderpacksDir = dir.resolve("shaderpacks");
+        for (int pack = 0; pack < PACKS; pack++) {
+            StringBuilder properties = new StringBuilder();
+            for (int i = pack; i < BLOCKS; i += pack + 2) {
+                properties.append("block.").append(10000 + i).append('=').append("testmod:block_").append(i);
+                if (i % 4 == 0) {
+                    properties.append(":lit=true");
+                }
+                properties.append('\n');
+            }
+            Path file = shaderpacksDir.resolve("Pack" + pack).resolve(PackSource.BLOCK_PROPERTIES);
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, properties.toString(), StandardCharsets.UTF_8);
+        }
+        return shaderpacksDir;
+    }
+
+    // Block comparison reports of every pack, without their performance summary, which differs between runs
+    private static List<String> analyze(RegistrySnapshot snapshot, Path shaderpacksDir, Path logsDir) throws IOException {
+        ShaderPackProcessor.analyzeShaderPacks(snapshot, logsDir.getParent(), shaderpacksDir, logsDir, null);
+        List<String> reports = new ArrayList<>();
+        for (int pack = 0; pack < PACKS; pack++) {
+            String content = Files.readString(BlockReporter.comparisonReportPath(logsDir, "Pack" + pack), StandardCharsets.UTF_8);
+            int summaryStart = content.indexOf(PerformanceSummary.SECTION_HEADER);
+            reports.add(summaryStart >= 0 ? content.substring(0, summaryStart) : content);
+        }
+        return reports;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void cancelledRunDoesNotTouchTheReportsOfTheRunAfterIt() throws IOException {
+        RegistrySnapshot snapshot = snapshot();
+        Path shaderpacksDir = createPacks(tempDir);
+        List<String> expected = analyze(snapshot, shaderpacksDir, tempDir.resolve("reference").resolve("logs"));
+
+        // Cancelled from the main loop while a worker is still busy; the cancelled run must not return before it is done
+        Path logsDir = tempDir.resolve("game").resolve("logs");
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        AtomicBoolean workerStarted = new AtomicBoolean();
+        AtomicBoolean workerDone = new AtomicBoolean();
+        AnalysisHandle[] cancelled = new AnalysisHandle[1];
+        cancelled[0] = new AnalysisHandle((phase, completed, total) -> {
+            if (phase == Phase.PROPERTY_REGISTRY && completed > 0 && workerStarted.compareAndSet(false, true)) {
+                workerBusy.countDown();
+                sleep(500);
+                workerDone.set(true);
+            } else if (phase == Phase.SHADER_CODE && completed == 0) {
+                try {
+                    workerBusy.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                cancelled[0].cancel();
+            }
+        });
+        assertThrows(CancellationException.class, () -> ShaderPackProcessor.analyzeShaderPacks(snapshot, logsDir.getParent(), shaderpacksDir, logsDir, null, null, cancelled[0]));
+        assertTrue(workerDone.get(), "the cancelled run waited for its workers");
+
+        // The queued run starts once the cancelled one has returned, as the single analysis thread runs them
+        assertEquals(expected, analyze(snapshot, shaderpacksDir, logsDir));
+        String debugLog = Files.readString(logsDir.resolve("shader_blocks_debug.log"), StandardCharsets.UTF_8);
+        assertTrue(debugLog.endsWith("Completed shader pack processing" + System.lineSeparator()), "the debug log of the second run is complete");
+    }
+}